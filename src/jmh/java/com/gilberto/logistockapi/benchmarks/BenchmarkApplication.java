@@ -0,0 +1,48 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.LogiStockAPIApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application on an in-memory H2 database in PostgreSQL mode, so benchmarks that need
+ * the database run the same SQL as production without an external server.
+ */
+final class BenchmarkApplication {
+
+  private static final String[] ARGUMENTS = {
+      "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;" +
+          "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_ON_EXIT=FALSE",
+      "--logging.level.root=WARN"
+  };
+
+  static {
+    // DevTools would restart the application in another thread and exit the calling one.
+    System.setProperty("spring.devtools.restart.enabled", "false");
+  }
+
+  private BenchmarkApplication() {
+  }
+
+  /**
+   * Starts the application without the web server.
+   */
+  static ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(LogiStockAPIApplication.class)
+        .web(WebApplicationType.NONE)
+        .run(ARGUMENTS);
+  }
+
+  /**
+   * Starts the application with the web server on a random port, available as the
+   * {@code local.server.port} property.
+   */
+  static ConfigurableApplicationContext startServer() {
+    return new SpringApplicationBuilder(LogiStockAPIApplication.class)
+        .web(WebApplicationType.SERVLET)
+        .properties("server.port=0")
+        .run(ARGUMENTS);
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.models.dto.request.AddressForm;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.request.SupplierForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fully populated models, so mapping, serialization and validation benchmarks go through every
+ * field including the supplier.
+ */
+final class BenchmarkFixtures {
+
+  private BenchmarkFixtures() {
+  }
+
+  static ProductForm productForm(int index) {
+    return new ProductForm(
+        "Product " + index,
+        "789" + String.format("%010d", index),
+        Category.FOOD,
+        supplierForm(index),
+        BigDecimal.valueOf(1999 + index, 2),
+        10,
+        100,
+        0,
+        MeasureUnit.UNIT,
+        "Description of product " + index
+    );
+  }
+
+  static SupplierForm supplierForm(int index) {
+    return new SupplierForm(
+        "Supplier " + index,
+        "123.456.789-" + String.format("%02d", index % 100),
+        "supplier" + index + "@logistock.com",
+        "(11) 91234-5678",
+        new AddressForm("Main street", "100", "Downtown", "Sao Paulo", "SP", "01310-100", null)
+    );
+  }
+
+  static Product product(int index) {
+    return Product.builder()
+        .id((long) index)
+        .name("Product " + index)
+        .barCode("789" + String.format("%010d", index))
+        .category(Category.FOOD)
+        .supplier(Supplier.builder()
+            .id((long) index)
+            .name("Supplier " + index)
+            .legalDocument("123.456.789-" + String.format("%02d", index % 100))
+            .email("supplier" + index + "@logistock.com")
+            .phone("(11) 91234-5678")
+            .build())
+        .unitPrice(BigDecimal.valueOf(1999 + index, 2))
+        .measureUnit(MeasureUnit.UNIT)
+        .stockQuantity(10)
+        .maxStockLevel(100)
+        .entryDate(LocalDate.of(2024, 1, 15))
+        .description("Description of product " + index)
+        .build();
+  }
+
+}
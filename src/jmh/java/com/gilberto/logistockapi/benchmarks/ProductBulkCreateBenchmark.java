@@ -0,0 +1,90 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Persists a thousand products in one transaction through JPA, the path that JDBC batching of
+ * the inserts depends on.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.includes=ProductBulkCreate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductBulkCreateBenchmark {
+
+  private static final int PRODUCTS = 1_000;
+
+  private ConfigurableApplicationContext context;
+
+  private EntityManager entityManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private long barCodeSequence;
+
+  @Setup
+  public void setUp() {
+    this.context = BenchmarkApplication.start();
+    this.entityManager       = this.context.getBean(EntityManager.class);
+    this.transactionTemplate = new TransactionTemplate(
+        this.context.getBean(PlatformTransactionManager.class));
+    this.jdbcTemplate        = this.context.getBean(JdbcTemplate.class);
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteProducts() {
+    this.jdbcTemplate.update("delete from pro_product");
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public void createProducts() {
+    this.transactionTemplate.executeWithoutResult(status -> {
+      for (var index = 0; index < PRODUCTS; index++) {
+        this.entityManager.persist(Product.builder()
+            .name("Product " + index)
+            .barCode("bulk-" + this.barCodeSequence++)
+            .category(Category.FOOD)
+            .unitPrice(BigDecimal.ONE)
+            .measureUnit(MeasureUnit.UNIT)
+            .stockQuantity(0)
+            .maxStockLevel(100)
+            .build());
+      }
+      this.entityManager.flush();
+      this.entityManager.clear();
+    });
+  }
+
+}
@@ -0,0 +1,84 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.config.CompactFormatConfiguration;
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encodes and decodes pages of products in each format the product endpoints negotiate, with the
+ * mappers configured as for the controllers. The payload size of each page is printed once per
+ * trial. The timings of the formats are close enough that fewer iterations and forks leave them
+ * within the error of each other.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 15, time = 1)
+@Fork(3)
+public class ProductEncodingBenchmark {
+
+  private static final TypeReference<List<ProductDTO>> PRODUCT_LIST = new TypeReference<>() {
+  };
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"1000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+
+  private List<ProductDTO> products;
+
+  private byte[] encodedProducts;
+
+  @Setup
+  public void setUp() throws IOException {
+    IProductMapper productMapper = new ProductMapper();
+
+    this.objectMapper    = switch (this.format) {
+      case "cbor" -> CompactFormatConfiguration.cborMapper(Jackson2ObjectMapperBuilder.json());
+      case "smile" -> CompactFormatConfiguration.smileMapper(Jackson2ObjectMapperBuilder.json());
+      default -> Jackson2ObjectMapperBuilder.json().build();
+    };
+    this.products        = IntStream.range(0, this.size)
+        .mapToObj(BenchmarkFixtures::product)
+        .map(productMapper::toProductDTO)
+        .toList();
+    this.encodedProducts = this.objectMapper.writeValueAsBytes(this.products);
+
+    System.out.printf("%n%s page of %d products: %d bytes%n", this.format, this.size,
+        this.encodedProducts.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return this.objectMapper.writeValueAsBytes(this.products);
+  }
+
+  @Benchmark
+  public List<ProductDTO> decode() throws IOException {
+    return this.objectMapper.readValue(this.encodedProducts, PRODUCT_LIST);
+  }
+
+}
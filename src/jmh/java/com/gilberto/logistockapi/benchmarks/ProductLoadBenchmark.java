@@ -0,0 +1,352 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.repositories.IProductBulkRepository;
+import com.gilberto.logistockapi.repositories.ISupplierRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * End-to-end load test of the product endpoints. Boots the application with its web server on
+ * the embedded database, seeds it, and drives it over HTTP from a pool of closed-loop clients
+ * with a weighted mix of barcode lookups, searches and stock movements on a few hot products.
+ * Latencies are recorded in HDR histograms per operation.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec@load}, settings are passed as system
+ * properties through {@code -Dload.args="-Dload.threads=32 -Dload.mix=barcode=50,stock=50"}:
+ * <ul>
+ *   <li>{@code load.products} and {@code load.suppliers}: rows seeded, 10000 and 100.</li>
+ *   <li>{@code load.hot-products}: products the stock movements are spread over, 10.</li>
+ *   <li>{@code load.threads}: concurrent clients, 16.</li>
+ *   <li>{@code load.warmup} and {@code load.duration}: ISO-8601 durations, PT10S and PT30S.</li>
+ *   <li>{@code load.mix}: weight of each operation, barcode=70,search=20,stock=10.</li>
+ *   <li>{@code load.result}: JSON report, target/load-result.json.</li>
+ * </ul>
+ *
+ * <p>Clients wait for each response before sending the next request, so under saturation the
+ * percentiles show the service time rather than the delay a fixed arrival rate would see.
+ */
+public final class ProductLoadBenchmark {
+
+  private static final String PRODUCT_API_URL_PATH = "/api/v1/product";
+
+  private static final int SEED_BATCH = 1_000;
+
+  private static final int MAX_STOCK_LEVEL = 1_000;
+
+  private final Settings settings;
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .build();
+
+  private final List<Product> products = new ArrayList<>();
+
+  private String baseUrl;
+
+  private ProductLoadBenchmark(Settings settings) {
+    this.settings = settings;
+  }
+
+  public static void main(String[] args) throws Exception {
+    var settings = Settings.fromSystemProperties();
+    var context  = BenchmarkApplication.startServer();
+    try {
+      new ProductLoadBenchmark(settings).run(context);
+    } finally {
+      context.close();
+    }
+  }
+
+  private void run(ConfigurableApplicationContext context) throws Exception {
+    this.baseUrl = "http://localhost:" +
+        context.getEnvironment().getProperty("local.server.port") + PRODUCT_API_URL_PATH;
+
+    System.out.printf("Seeding %d products from %d suppliers%n", this.settings.products(),
+        this.settings.suppliers());
+    seed(context.getBean(ISupplierRepository.class), context.getBean(IProductBulkRepository.class),
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)));
+
+    System.out.printf("Warming up for %s%n", this.settings.warmup());
+    drive(this.settings.warmup());
+
+    System.out.printf("Measuring for %s with %d clients%n", this.settings.duration(),
+        this.settings.threads());
+    var results = drive(this.settings.duration());
+
+    report(results);
+  }
+
+  private void seed(ISupplierRepository supplierRepository,
+                    IProductBulkRepository productBulkRepository,
+                    TransactionTemplate transactionTemplate) {
+    var suppliers = new ArrayList<Supplier>(this.settings.suppliers());
+    for (var index = 0; index < this.settings.suppliers(); index++) {
+      suppliers.add(Supplier.builder()
+          .name("Supplier " + index)
+          .legalDocument(String.format("%03d.%03d.%03d-%02d", index / 1_000_000 % 1000,
+              index / 1000 % 1000, index % 1000, index % 100))
+          .build());
+    }
+    suppliers = new ArrayList<>(supplierRepository.saveAll(suppliers));
+
+    var batch = new ArrayList<Product>(SEED_BATCH);
+    for (var index = 0; index < this.settings.products(); index++) {
+      batch.add(Product.builder()
+          .name("Product " + index)
+          .barCode("789" + String.format("%010d", index))
+          .category(Category.values()[index % Category.values().length])
+          .supplier(suppliers.get(index % suppliers.size()))
+          .unitPrice(BigDecimal.valueOf(100 + index % 10_000, 2))
+          .measureUnit(MeasureUnit.UNIT)
+          .stockQuantity(MAX_STOCK_LEVEL / 2)
+          .maxStockLevel(MAX_STOCK_LEVEL)
+          .build());
+      if (batch.size() == SEED_BATCH || index == this.settings.products() - 1) {
+        transactionTemplate.executeWithoutResult(status -> productBulkRepository.insertAll(batch));
+        this.products.addAll(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private Map<Operation, Result> drive(Duration duration) throws Exception {
+    var deadline = System.nanoTime() + duration.toNanos();
+    var clients  = new ArrayList<Callable<Map<Operation, Result>>>();
+    for (var thread = 0; thread < this.settings.threads(); thread++) {
+      clients.add(() -> runClient(deadline));
+    }
+
+    var results = new EnumMap<Operation, Result>(Operation.class);
+    for (var operation : Operation.values()) {
+      results.put(operation, new Result());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(this.settings.threads());
+    try {
+      for (var future : executor.invokeAll(clients)) {
+        future.get().forEach((operation, result) -> results.get(operation).add(result));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    var elapsed = Duration.ofNanos(System.nanoTime() - deadline).plus(duration);
+    results.values().forEach(result -> result.elapsed = elapsed);
+    return results;
+  }
+
+  private Map<Operation, Result> runClient(long deadline) throws IOException, InterruptedException {
+    var random  = ThreadLocalRandom.current();
+    var results = new EnumMap<Operation, Result>(Operation.class);
+    for (var operation : Operation.values()) {
+      results.put(operation, new Result());
+    }
+
+    while (System.nanoTime() < deadline) {
+      var operation = this.settings.pick(random.nextInt(this.settings.totalWeight()));
+      var request   = request(operation, random);
+
+      var start    = System.nanoTime();
+      var response = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+      var latency  = System.nanoTime() - start;
+
+      results.get(operation).record(latency, operation.isExpected(response.statusCode()));
+    }
+    return results;
+  }
+
+  private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+    return switch (operation) {
+      case BARCODE_LOOKUP -> {
+        var product = this.products.get(random.nextInt(this.products.size()));
+        yield HttpRequest.newBuilder(URI.create(this.baseUrl + "/barcode/" +
+            product.getBarCode())).GET().build();
+      }
+      case SEARCH -> HttpRequest.newBuilder(URI.create(this.baseUrl +
+          "?pageSize=20&search=Product%20" + random.nextInt(this.products.size()))).GET().build();
+      case STOCK_MOVEMENT -> {
+        var product   = this.products.get(random.nextInt(
+            Math.min(this.settings.hotProducts(), this.products.size())));
+        var direction = random.nextBoolean() ? "/increase" : "/decrease";
+        yield HttpRequest.newBuilder(URI.create(this.baseUrl + "/" + product.getId() + direction))
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\": 1}"))
+            .build();
+      }
+    };
+  }
+
+  private void report(Map<Operation, Result> results) throws IOException {
+    var total = new Result();
+    results.values().forEach(total::add);
+    total.elapsed = results.get(Operation.BARCODE_LOOKUP).elapsed;
+
+    var report = new LinkedHashMap<String, Object>();
+    System.out.printf("%n%-16s %10s %8s %10s %9s %9s %9s %9s %9s%n", "operation", "requests",
+        "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (var entry : results.entrySet()) {
+      if (entry.getValue().histogram.getTotalCount() > 0) {
+        report.put(entry.getKey().name(), entry.getValue().summary());
+        print(entry.getKey().name(), entry.getValue());
+      }
+    }
+    report.put("TOTAL", total.summary());
+    print("TOTAL", total);
+
+    var resultFile = Path.of(System.getProperty("load.result", "target/load-result.json"));
+    Files.createDirectories(resultFile.toAbsolutePath().getParent());
+    var document = new LinkedHashMap<String, Object>();
+    document.put("settings", this.settings.describe());
+    document.put("operations", report);
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(resultFile.toFile(), document);
+    System.out.printf("%nReport written to %s%n", resultFile.toAbsolutePath());
+  }
+
+  private void print(String name, Result result) {
+    var summary = result.summary();
+    System.out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+        summary.get("requests"), summary.get("errors"), summary.get("throughput"),
+        summary.get("p50"), summary.get("p90"), summary.get("p99"), summary.get("p999"),
+        summary.get("max"));
+  }
+
+  private enum Operation {
+    BARCODE_LOOKUP, SEARCH, STOCK_MOVEMENT;
+
+    /**
+     * Stock movements are rejected with 400 when they would leave the stock out of bounds, which
+     * is an expected answer under a storm of random movements.
+     */
+    private boolean isExpected(int status) {
+      return status < 300 || (this == STOCK_MOVEMENT && status == 400);
+    }
+  }
+
+  private static final class Result {
+
+    private final Histogram histogram = new Histogram(3);
+
+    private long errors;
+
+    private Duration elapsed = Duration.ZERO;
+
+    private void record(long latency, boolean expected) {
+      this.histogram.recordValue(latency);
+      if (!expected) {
+        this.errors++;
+      }
+    }
+
+    private void add(Result other) {
+      this.histogram.add(other.histogram);
+      this.errors += other.errors;
+    }
+
+    private Map<String, Number> summary() {
+      var summary = new LinkedHashMap<String, Number>();
+      summary.put("requests", this.histogram.getTotalCount());
+      summary.put("errors", this.errors);
+      summary.put("throughput", this.histogram.getTotalCount() * 1e9 / this.elapsed.toNanos());
+      summary.put("p50", toMillis(this.histogram.getValueAtPercentile(50)));
+      summary.put("p90", toMillis(this.histogram.getValueAtPercentile(90)));
+      summary.put("p99", toMillis(this.histogram.getValueAtPercentile(99)));
+      summary.put("p999", toMillis(this.histogram.getValueAtPercentile(99.9)));
+      summary.put("max", toMillis(this.histogram.getMaxValue()));
+      return summary;
+    }
+
+    private double toMillis(long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+
+  private record Settings(
+      int products,
+      int suppliers,
+      int hotProducts,
+      int threads,
+      Duration warmup,
+      Duration duration,
+      Map<Operation, Integer> mix
+  ) {
+
+    private static Settings fromSystemProperties() {
+      var mix = new EnumMap<Operation, Integer>(Operation.class);
+      for (var weight : System.getProperty("load.mix", "barcode=70,search=20,stock=10")
+          .split(",")) {
+        var parts = weight.trim().split("=");
+        mix.put(switch (parts[0].trim()) {
+          case "barcode" -> Operation.BARCODE_LOOKUP;
+          case "search" -> Operation.SEARCH;
+          case "stock" -> Operation.STOCK_MOVEMENT;
+          default -> throw new IllegalArgumentException("Unknown operation " + parts[0]);
+        }, Integer.parseInt(parts[1].trim()));
+      }
+
+      return new Settings(
+          Integer.getInteger("load.products", 10_000),
+          Integer.getInteger("load.suppliers", 100),
+          Integer.getInteger("load.hot-products", 10),
+          Integer.getInteger("load.threads", 16),
+          Duration.parse(System.getProperty("load.warmup", "PT10S")),
+          Duration.parse(System.getProperty("load.duration", "PT30S")),
+          mix);
+    }
+
+    private int totalWeight() {
+      return this.mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private Operation pick(int value) {
+      for (var entry : this.mix.entrySet()) {
+        value -= entry.getValue();
+        if (value < 0) {
+          return entry.getKey();
+        }
+      }
+      throw new IllegalStateException("Operation mix is empty");
+    }
+
+    private Map<String, Object> describe() {
+      var description = new LinkedHashMap<String, Object>();
+      description.put("products", this.products);
+      description.put("suppliers", this.suppliers);
+      description.put("hotProducts", this.hotProducts);
+      description.put("threads", this.threads);
+      description.put("warmup", this.warmup.toString());
+      description.put("duration", this.duration.toString());
+      description.put("mix", this.mix);
+      return description;
+    }
+  }
+
+}
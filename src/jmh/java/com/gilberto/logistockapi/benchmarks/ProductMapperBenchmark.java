@@ -0,0 +1,67 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+  private final IProductMapper productMapper = new ProductMapper();
+
+  private ProductForm productForm;
+
+  private Product product;
+
+  private ProductView productView;
+
+  @Setup
+  public void setUp() {
+    this.productForm = BenchmarkFixtures.productForm(1);
+    this.product     = BenchmarkFixtures.product(1);
+
+    var supplier = this.product.getSupplier();
+    this.productView = new ProductView(this.product.getId(), this.product.getName(),
+        this.product.getBarCode(), this.product.getCategory(), this.product.getUnitPrice(),
+        this.product.getMeasureUnit(), this.product.getStockQuantity(),
+        this.product.getMaxStockLevel(), this.product.getReorderPoint(),
+        this.product.getDescription(), this.product.getEntryDate(), supplier.getId(),
+        supplier.getName(), supplier.getLegalDocument(), supplier.getEmail(),
+        supplier.getPhone(), this.product.getVersion());
+  }
+
+  @Benchmark
+  public Product toProduct() {
+    return this.productMapper.toProduct(this.productForm);
+  }
+
+  @Benchmark
+  public ProductDTO toProductDTO() {
+    return this.productMapper.toProductDTO(this.product);
+  }
+
+  @Benchmark
+  public ProductDTO viewToProductDTO() {
+    return this.productMapper.toProductDTO(this.productView);
+  }
+
+}
@@ -0,0 +1,123 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares the entity path the read endpoints used before, which hydrates managed products and
+ * suppliers and copies them in {@link ProductMapper}, with the {@link ProductView} projection.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec}; the {@code gc} profiler reports
+ * the bytes allocated per page in {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReadBenchmark {
+
+  private static final int PRODUCTS = 1_000;
+
+  private static final String ORDER_BY = " order by product.entryDate desc, product.id desc";
+
+  @Param({"1", "50"})
+  private int pageSize;
+
+  private ConfigurableApplicationContext context;
+
+  private EntityManager entityManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  private TransactionTemplate readOnlyTransactionTemplate;
+
+  private final IProductMapper productMapper = new ProductMapper();
+
+  @Setup
+  public void setUp() {
+    this.context = BenchmarkApplication.start();
+    this.entityManager = this.context.getBean(EntityManager.class);
+
+    var transactionManager = this.context.getBean(PlatformTransactionManager.class);
+    this.transactionTemplate         = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+
+    var products = new ArrayList<Product>(PRODUCTS);
+    for (var index = 0; index < PRODUCTS; index++) {
+      products.add(Product.builder()
+          .name("Product " + index)
+          .barCode("benchmark-" + index)
+          .category(Category.values()[index % Category.values().length])
+          .supplier(Supplier.builder()
+              .name("Supplier " + index)
+              .legalDocument("legal-document-" + index)
+              .build())
+          .unitPrice(BigDecimal.valueOf(index, 2))
+          .measureUnit(MeasureUnit.UNIT)
+          .stockQuantity(index % 100)
+          .maxStockLevel(100)
+          .description("Description of product " + index)
+          .build());
+    }
+    this.context.getBean(IProductRepository.class).saveAll(products);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public List<ProductDTO> entityPage() {
+    return this.transactionTemplate.execute(status -> this.entityManager
+        .createQuery("select product from pro_product as product " +
+            "  left join fetch product.supplier " + ORDER_BY, Product.class)
+        .setMaxResults(this.pageSize)
+        .getResultList()
+        .stream()
+        .map(this.productMapper::toProductDTO)
+        .toList());
+  }
+
+  @Benchmark
+  public List<ProductDTO> projectionPage() {
+    return this.readOnlyTransactionTemplate.execute(status -> this.entityManager
+        .createQuery(IProductRepository.PRODUCT_VIEW_SELECT + ORDER_BY, ProductView.class)
+        .setMaxResults(this.pageSize)
+        .getResultList()
+        .stream()
+        .map(this.productMapper::toProductDTO)
+        .toList());
+  }
+
+}
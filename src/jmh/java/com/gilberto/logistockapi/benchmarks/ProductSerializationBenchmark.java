@@ -0,0 +1,59 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serializes product lists with an object mapper configured like the one Spring Boot gives the
+ * controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+  @Param({"1", "50", "1000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+
+  private List<ProductDTO> products;
+
+  @Setup
+  public void setUp() {
+    IProductMapper productMapper = new ProductMapper();
+
+    this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    this.products     = IntStream.range(0, this.size)
+        .mapToObj(BenchmarkFixtures::product)
+        .map(productMapper::toProductDTO)
+        .toList();
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return this.objectMapper.writeValueAsBytes(this.products);
+  }
+
+}
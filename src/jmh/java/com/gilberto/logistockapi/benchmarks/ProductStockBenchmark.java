@@ -0,0 +1,107 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementResultDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.services.IProductService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Stock operations of {@link IProductService} against the embedded database. Each single
+ * operation increases and then decreases the same product, so its stock never drifts out of
+ * bounds however long the benchmark runs. Run with {@code -t} above one to measure contention
+ * on that hot row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductStockBenchmark {
+
+  private static final int PRODUCTS = 100;
+
+  private static final QuantityForm ONE = new QuantityForm(1);
+
+  private ConfigurableApplicationContext context;
+
+  private IProductService productService;
+
+  private Long hotProductId;
+
+  private StockMovementsForm increaseAll;
+
+  private StockMovementsForm decreaseAll;
+
+  @Setup
+  public void setUp() {
+    this.context        = BenchmarkApplication.start();
+    this.productService = this.context.getBean(IProductService.class);
+
+    var products = new ArrayList<Product>(PRODUCTS);
+    for (var index = 0; index < PRODUCTS; index++) {
+      var product = BenchmarkFixtures.product(index);
+      product.setId(null);
+      product.setSupplier(null);
+      product.setStockQuantity(50);
+      products.add(product);
+    }
+    var savedProducts = this.context.getBean(IProductRepository.class).saveAll(products);
+
+    this.hotProductId = savedProducts.get(0).getId();
+    this.increaseAll  = movementsOf(savedProducts, 1);
+    this.decreaseAll  = movementsOf(savedProducts, -1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public ProductDTO increaseAndDecreaseStock() throws ProductNotFoundException,
+      ProductStockExceededException, ProductStockUnderThanZeroException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+    this.productService.increaseStock(this.hotProductId, ONE, null);
+    return this.productService.decreaseStock(this.hotProductId, ONE, null);
+  }
+
+  @Benchmark
+  public List<StockMovementResultDTO> applyStockMovements() {
+    this.productService.applyStockMovements(this.increaseAll);
+    return this.productService.applyStockMovements(this.decreaseAll);
+  }
+
+  private StockMovementsForm movementsOf(List<Product> products, int quantity) {
+    return new StockMovementsForm(IntStream.range(0, products.size())
+        .mapToObj(index -> new StockMovementForm(products.get(index).getId(), null, quantity))
+        .toList());
+  }
+
+}
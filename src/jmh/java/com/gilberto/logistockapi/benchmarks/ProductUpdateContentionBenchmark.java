@@ -0,0 +1,127 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.services.IProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Concurrent product updates spread over {@code hotProducts} rows, comparing the optimistic
+ * update of {@link IProductService}, which retries version conflicts with a jittered backoff,
+ * against the same update under a {@code SELECT ... FOR UPDATE} row lock. Fewer hot products
+ * mean more contention; conflicts the optimistic side gives up on are counted by the
+ * {@code logistock.optimistic.conflicts} meter rather than failing the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ProductUpdateContentionBenchmark {
+
+  private static final ProductUpdateForm UPDATE_FORM = new ProductUpdateForm("Contended name",
+      Category.CLOTHING, null, BigDecimal.valueOf(2.99), 1_000, 0, MeasureUnit.UNIT,
+      "description");
+
+  @Param({"1", "16"})
+  private int hotProducts;
+
+  private ConfigurableApplicationContext context;
+
+  private IProductService productService;
+
+  private EntityManager entityManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  private List<Long> productIds;
+
+  @Setup
+  public void setUp() {
+    this.context             = BenchmarkApplication.start();
+    this.productService      = this.context.getBean(IProductService.class);
+    this.entityManager       = SharedEntityManagerCreator.createSharedEntityManager(
+        this.context.getBean(EntityManagerFactory.class));
+    this.transactionTemplate = new TransactionTemplate(
+        this.context.getBean(PlatformTransactionManager.class));
+
+    var products = new ArrayList<Product>(this.hotProducts);
+    for (var index = 0; index < this.hotProducts; index++) {
+      var product = BenchmarkFixtures.product(index);
+      product.setId(null);
+      product.setSupplier(null);
+      products.add(product);
+    }
+    this.productIds = this.context.getBean(IProductRepository.class).saveAll(products).stream()
+        .map(Product::getId)
+        .toList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public ProductDTO optimisticUpdate() throws ProductNotFoundException,
+      ProductVersionMismatchException {
+    try {
+      return this.productService.updateById(nextProductId(), UPDATE_FORM, null);
+    } catch (ProductConflictException exception) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public Product pessimisticUpdate() {
+    return this.transactionTemplate.execute(status -> {
+      var product = this.entityManager.find(Product.class, nextProductId(),
+          LockModeType.PESSIMISTIC_WRITE);
+      product.setName(UPDATE_FORM.name());
+      product.setCategory(UPDATE_FORM.category());
+      product.setUnitPrice(UPDATE_FORM.unitPrice());
+      product.setMaxStockLevel(UPDATE_FORM.maxStockLevel());
+      product.setMeasureUnit(UPDATE_FORM.measureUnit());
+      product.setDescription(UPDATE_FORM.description());
+      return product;
+    });
+  }
+
+  private Long nextProductId() {
+    return this.productIds.get(ThreadLocalRandom.current().nextInt(this.productIds.size()));
+  }
+
+}
@@ -0,0 +1,77 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.models.dto.request.AddressForm;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.request.SupplierForm;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validates the creation forms, whose supplier and address carry the regex patterns. The
+ * invalid supplier breaks every pattern, so message interpolation is measured too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductValidationBenchmark {
+
+  private ValidatorFactory validatorFactory;
+
+  private Validator validator;
+
+  private ProductForm productForm;
+
+  private SupplierForm supplierForm;
+
+  private SupplierForm invalidSupplierForm;
+
+  @Setup
+  public void setUp() {
+    this.validatorFactory    = Validation.buildDefaultValidatorFactory();
+    this.validator           = this.validatorFactory.getValidator();
+    this.productForm         = BenchmarkFixtures.productForm(1);
+    this.supplierForm        = BenchmarkFixtures.supplierForm(1);
+    this.invalidSupplierForm = new SupplierForm("Supplier", "123456789", "not-an-email",
+        "phone", new AddressForm("Main street", "100", "Downtown", "Sao Paulo", "SP", "01310100",
+        null));
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.validatorFactory.close();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<ProductForm>> validProductForm() {
+    return this.validator.validate(this.productForm);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<SupplierForm>> validSupplierForm() {
+    return this.validator.validate(this.supplierForm);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<SupplierForm>> invalidSupplierForm() {
+    return this.validator.validate(this.invalidSupplierForm);
+  }
+
+}
@@ -0,0 +1,82 @@
+package com.gilberto.logistockapi.benchmarks;
+
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.services.IStockReservationService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Reservations of a product that already holds {@code openReservations} reservations, to check
+ * that their cost does not grow with the number of reservations held.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockReservationBenchmark {
+
+  @Param({"10", "5000"})
+  private int openReservations;
+
+  private ConfigurableApplicationContext context;
+
+  private IStockReservationService stockReservationService;
+
+  private ReservationForm reservationForm;
+
+  private Long productId;
+
+  @Setup
+  public void setUp() throws ProductNotFoundException, ProductStockUnderThanZeroException {
+    this.context                 = BenchmarkApplication.start();
+    this.stockReservationService = this.context.getBean(IStockReservationService.class);
+
+    var product = BenchmarkFixtures.product(0);
+    product.setId(null);
+    product.setSupplier(null);
+    product.setStockQuantity(this.openReservations * 2);
+    product.setMaxStockLevel(this.openReservations * 2);
+    this.productId       = this.context.getBean(IProductRepository.class).save(product).getId();
+    this.reservationForm = new ReservationForm(this.productId, 1, null);
+
+    for (var index = 0; index < this.openReservations; index++) {
+      this.stockReservationService.reserve(this.reservationForm);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.context.close();
+  }
+
+  @Benchmark
+  public int reservedQuantity() {
+    return this.stockReservationService.reservedQuantity(this.productId);
+  }
+
+  @Benchmark
+  public void reserveAndRelease() throws ProductNotFoundException,
+      ProductStockUnderThanZeroException, ReservationNotFoundException {
+    var reservation = this.stockReservationService.reserve(this.reservationForm);
+    this.stockReservationService.release(reservation.id());
+  }
+
+}
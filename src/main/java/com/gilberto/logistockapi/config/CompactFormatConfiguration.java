@@ -0,0 +1,55 @@
+package com.gilberto.logistockapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary formats served instead of JSON to clients accepting {@code application/cbor} or
+ * {@code application/x-jackson-smile}. Their structure is the one of the JSON, but each
+ * repeated field name is written once per response and referenced after, as string references
+ * in CBOR and shared names in Smile, and enums are written as their ordinals. Enum constants must
+ * then only ever be appended.
+ */
+@Configuration
+public class CompactFormatConfiguration {
+  
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapperBuilder));
+  }
+  
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return new MappingJackson2SmileHttpMessageConverter(smileMapper(objectMapperBuilder));
+  }
+  
+  public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return objectMapperBuilder
+        .factory(CBORFactory.builder()
+            .enable(CBORGenerator.Feature.STRINGREF)
+            .build())
+        .featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+        .build();
+  }
+  
+  public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return objectMapperBuilder
+        .factory(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build())
+        .featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+        .build();
+  }
+  
+}
@@ -0,0 +1,77 @@
+package com.gilberto.logistockapi.config;
+
+import com.gilberto.logistockapi.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the datasource with one routing the reads to the replicas. The primary and each
+ * replica get their own pool, configured by {@code spring.datasource.hikari} and published as
+ * the {@code hikaricp.*} metrics of the {@code primary} and {@code replica-<index>} pools.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logistock.datasource-routing", name = "enabled",
+    havingValue = "true")
+public class DataSourceRoutingConfiguration {
+  
+  @Bean(initMethod = "start", destroyMethod = "close")
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      DataSourceRoutingProperties properties, DataSourceProperties dataSourceProperties,
+      Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+    var username = dataSourceProperties.determineUsername();
+    var password = dataSourceProperties.determinePassword();
+    var primary  = createPool("primary", dataSourceProperties, dataSourceProperties.determineUrl(),
+        username, password, environment, meterRegistry);
+    
+    var replicas = new ArrayList<HikariDataSource>(properties.replicas().size());
+    for (var index = 0; index < properties.replicas().size(); index++) {
+      var replica = properties.replicas().get(index);
+      replicas.add(createPool("replica-" + index, dataSourceProperties, replica.url(),
+          ObjectUtils.defaultIfNull(replica.username(), username),
+          ObjectUtils.defaultIfNull(replica.password(), password), environment, meterRegistry));
+    }
+    
+    return new ReplicaRoutingDataSource(properties, primary, replicas);
+  }
+  
+  /**
+   * Defers the choice of the target to the first statement of each connection, once the
+   * transaction and its read-only flag are set up.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+  
+  private HikariDataSource createPool(String name, DataSourceProperties dataSourceProperties,
+                                      String url, String username, String password,
+                                      Environment environment,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+    var pool = new HikariDataSource();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    pool.setPoolName(name);
+    pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+    pool.setJdbcUrl(url);
+    pool.setUsername(username);
+    pool.setPassword(password);
+    meterRegistry.ifAvailable(registry ->
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    return pool;
+  }
+  
+}
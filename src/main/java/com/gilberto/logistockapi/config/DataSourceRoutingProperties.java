@@ -0,0 +1,46 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the routing of reads to replicas. When enabled, the reads that allow it go to a
+ * replica whose lag, measured every {@code lagCheckInterval}, is within {@code maxReplicaLag},
+ * which must be longer than the interval. The products written in the last
+ * {@code readYourWritesWindow} are read from the primary, so the window should be longer than the
+ * tolerated lag. Replicas without a username or password use the ones of the primary.
+ */
+@ConfigurationProperties(prefix = "logistock.datasource-routing")
+public record DataSourceRoutingProperties(
+    @DefaultValue("false")
+    boolean enabled,
+    
+    @DefaultValue
+    List<Replica> replicas,
+    
+    @DefaultValue("5s")
+    Duration maxReplicaLag,
+    
+    @DefaultValue("1s")
+    Duration lagCheckInterval,
+    
+    @DefaultValue("10s")
+    Duration readYourWritesWindow,
+    
+    @DefaultValue("100000")
+    long readYourWritesMaximumSize
+) {
+  
+  public record Replica(
+      String url,
+      
+      String username,
+      
+      String password
+  ) {
+  
+  }
+  
+}
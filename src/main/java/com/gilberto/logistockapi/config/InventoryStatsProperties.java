@@ -0,0 +1,21 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the inventory aggregates, kept in memory and written to the summary table every
+ * {@code persistInterval}. At startup they are rebuilt from the catalog with one query per
+ * category, {@code rebuildParallelism} of them at a time.
+ */
+@ConfigurationProperties(prefix = "logistock.inventory-stats")
+public record InventoryStatsProperties(
+    @DefaultValue("1m")
+    Duration persistInterval,
+    
+    @DefaultValue("4")
+    int rebuildParallelism
+) {
+
+}
@@ -0,0 +1,23 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Retries of writes that lose an optimistic locking race. The backoff before each retry is drawn
+ * at random up to an exponentially growing cap, so the writers that collided spread out instead
+ * of colliding again.
+ */
+@ConfigurationProperties(prefix = "logistock.optimistic-retry")
+public record OptimisticRetryProperties(
+    @DefaultValue("5")
+    int maxAttempts,
+    
+    @DefaultValue("2ms")
+    Duration initialBackoff,
+    
+    @DefaultValue("100ms")
+    Duration maxBackoff
+) {
+}
@@ -0,0 +1,19 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds of the in-process cache of products served by the id and barcode lookups.
+ */
+@ConfigurationProperties(prefix = "logistock.product-cache")
+public record ProductCacheProperties(
+    @DefaultValue("10000")
+    long maximumSize,
+    
+    @DefaultValue("5m")
+    Duration expireAfterWrite
+) {
+
+}
@@ -0,0 +1,15 @@
+package com.gilberto.logistockapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Rows fetched per round trip by the server-side cursor of the catalog export.
+ */
+@ConfigurationProperties(prefix = "logistock.product-export")
+public record ProductExportProperties(
+    @DefaultValue("1000")
+    int fetchSize
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.gilberto.logistockapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Rows checked and inserted together by the bulk product import, each batch in its own
+ * transaction.
+ */
+@ConfigurationProperties(prefix = "logistock.product-import")
+public record ProductImportProperties(
+    @DefaultValue("1000")
+    int batchSize
+) {
+
+}
@@ -0,0 +1,17 @@
+package com.gilberto.logistockapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Bound of the cache of encoded product responses, in bytes held by the JSON and by the products
+ * it was encoded from, estimated as much again as the JSON.
+ */
+@ConfigurationProperties(prefix = "logistock.product-json-cache")
+public record ProductJsonCacheProperties(
+    @DefaultValue("64MB")
+    DataSize maximumWeight
+) {
+
+}
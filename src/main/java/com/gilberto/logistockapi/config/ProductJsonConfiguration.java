@@ -0,0 +1,20 @@
+package com.gilberto.logistockapi.config;
+
+import com.gilberto.logistockapi.controllers.ProductJsonHttpMessageConverter;
+import com.gilberto.logistockapi.services.IProductJsonCacheService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts the converter of cached product encodings in front of the default JSON one.
+ */
+@Configuration
+public class ProductJsonConfiguration {
+  
+  @Bean
+  public ProductJsonHttpMessageConverter productJsonHttpMessageConverter(
+      IProductJsonCacheService productJsonCacheService) {
+    return new ProductJsonHttpMessageConverter(productJsonCacheService);
+  }
+  
+}
@@ -0,0 +1,56 @@
+package com.gilberto.logistockapi.config;
+
+import com.gilberto.logistockapi.datasource.ReplicaRoutingDataSource;
+import com.gilberto.logistockapi.monitoring.SqlMetricsFilter;
+import com.gilberto.logistockapi.monitoring.SqlMetricsListener;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.proxy.NanoTimeStopwatchFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Proxies the datasource so every statement, and every row read through a result set, is counted
+ * towards the request running on the current thread. Result sets are proxied only here, since it
+ * costs a reflective call per row.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "logistock.sql-metrics", name = "enabled", havingValue = "true")
+public class SqlMetricsConfiguration {
+  
+  @Bean
+  public static BeanPostProcessor sqlMetricsDataSourceProxy() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // The connections of the routing datasource are counted through the proxy in front of it.
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+            || bean instanceof ReplicaRoutingDataSource) {
+          return bean;
+        }
+        
+        var listener = new SqlMetricsListener();
+        var proxy = ProxyDataSourceBuilder.create(beanName, dataSource)
+            .listener(listener)
+            .methodListener(listener)
+            .proxyResultSet()
+            .build();
+        // The default stopwatch has millisecond resolution, which rounds most queries to zero.
+        proxy.setProxyConfig(ProxyConfig.Builder.from(proxy.getProxyConfig())
+            .stopwatchFactory(new NanoTimeStopwatchFactory())
+            .build());
+        return proxy;
+      }
+    };
+  }
+  
+  @Bean
+  public SqlMetricsFilter sqlMetricsFilter(SqlMetricsProperties properties) {
+    return new SqlMetricsFilter(properties);
+  }
+  
+}
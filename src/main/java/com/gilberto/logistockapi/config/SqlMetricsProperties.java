@@ -0,0 +1,26 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the per-request SQL metrics. When enabled the datasource is proxied to count the
+ * statements, rows and database time of each request, requests over either budget are logged
+ * and, with {@code exposeHeaders}, the counts are returned as {@code X-DB-*} headers.
+ */
+@ConfigurationProperties(prefix = "logistock.sql-metrics")
+public record SqlMetricsProperties(
+    @DefaultValue("false")
+    boolean enabled,
+    
+    @DefaultValue("false")
+    boolean exposeHeaders,
+    
+    @DefaultValue("20")
+    int statementBudget,
+    
+    @DefaultValue("200ms")
+    Duration timeBudget
+) {
+}
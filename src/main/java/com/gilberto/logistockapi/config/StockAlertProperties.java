@@ -0,0 +1,16 @@
+package com.gilberto.logistockapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the stock alerts. A product is low on stock at or under its reorder point and
+ * overstocked at {@code overstockRatio} of its maximum stock level or above.
+ */
+@ConfigurationProperties(prefix = "logistock.stock.alert")
+public record StockAlertProperties(
+    @DefaultValue("0.9")
+    double overstockRatio
+) {
+
+}
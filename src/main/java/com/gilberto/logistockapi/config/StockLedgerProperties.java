@@ -0,0 +1,25 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the stock ledger snapshots, which bound the movements read to compute the stock
+ * of a product at a given moment. Snapshots are taken {@code snapshotLag} behind the current
+ * time, which must be longer than any transaction recording movements, so no movement commits
+ * into a period already in a snapshot.
+ */
+@ConfigurationProperties(prefix = "logistock.stock.ledger")
+public record StockLedgerProperties(
+    @DefaultValue("1h")
+    Duration snapshotInterval,
+    
+    @DefaultValue("1m")
+    Duration snapshotLag,
+    
+    @DefaultValue("1000")
+    int snapshotBatchSize
+) {
+
+}
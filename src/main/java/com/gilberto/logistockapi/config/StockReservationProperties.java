@@ -0,0 +1,23 @@
+package com.gilberto.logistockapi.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of stock reservations, which hold stock of a product until they are committed,
+ * released or expire.
+ */
+@ConfigurationProperties(prefix = "logistock.stock.reservation")
+public record StockReservationProperties(
+    @DefaultValue("15m")
+    Duration defaultTtl,
+    
+    @DefaultValue("1h")
+    Duration maxTtl,
+    
+    @DefaultValue("16")
+    int stripes
+) {
+
+}
@@ -0,0 +1,59 @@
+package com.gilberto.logistockapi.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the write-behind mode, in which stock movements are accumulated in memory and
+ * written to the database in coalesced batches. Movements acknowledged after their flush wait for
+ * it at most {@code ackTimeout}. The accumulators check movements against the stock they loaded,
+ * so a net quantity the flush finds out of bounds, after a single, batch or reservation write of
+ * the same product, is rejected. With {@code FLUSH_BEFORE_ACK} its callers get a conflict,
+ * otherwise they were already acknowledged and it is recorded in the
+ * {@code wbr_write_behind_rejection} table to be reconciled.
+ */
+@ConfigurationProperties(prefix = "logistock.stock.write-behind")
+public record StockWriteBehindProperties(
+    @DefaultValue("false")
+    boolean enabled,
+    
+    @DefaultValue("FLUSH_BEFORE_ACK")
+    Durability durability,
+    
+    @DefaultValue("5s")
+    Duration ackTimeout,
+    
+    @DefaultValue("50ms")
+    Duration flushInterval,
+    
+    @DefaultValue("500")
+    int flushThreshold,
+    
+    @DefaultValue("16")
+    int stripes,
+    
+    @DefaultValue("stock-write-behind.log")
+    Path logFile
+) {
+  
+  /**
+   * When a stock movement is acknowledged to the caller.
+   */
+  public enum Durability {
+    /**
+     * As soon as it is accumulated in memory, movements not yet flushed are lost on a crash.
+     */
+    NONE,
+    /**
+     * After the flush that writes it to the database has committed.
+     */
+    FLUSH_BEFORE_ACK,
+    /**
+     * After it is synced to a local append log, which is replayed on the next startup.
+     */
+    APPEND_LOG
+  }
+  
+}
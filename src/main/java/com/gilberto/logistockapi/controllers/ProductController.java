@@ -1,20 +1,53 @@
 package com.gilberto.logistockapi.controllers;
 
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
 import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
 import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
 import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
 import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.models.dto.request.ProductExportFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
 import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementFilter;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.dto.response.InventoryStatsDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductCacheStatsDTO;
 import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductImportResultDTO;
+import com.gilberto.logistockapi.models.dto.response.StockAlertDTO;
+import com.gilberto.logistockapi.models.dto.response.StockAvailabilityDTO;
+import com.gilberto.logistockapi.models.dto.response.StockLevelDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementResultDTO;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.models.projections.ProductVersion;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import com.gilberto.logistockapi.services.IProductCacheService;
+import com.gilberto.logistockapi.services.IProductExportService;
+import com.gilberto.logistockapi.services.IProductImportService;
 import com.gilberto.logistockapi.services.IProductService;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import com.gilberto.logistockapi.services.IStockLedgerService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,18 +56,53 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/product")
 public class ProductController {
   
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  
+  public static final String CATEGORY_FACETS_HEADER = "X-Category-Facets";
+  
+  public static final String TOTAL_HITS_HEADER = "X-Total-Hits";
+  
+  public static final String TOTAL_HITS_ESTIMATED_HEADER = "X-Total-Hits-Estimated";
+  
   private final IProductService productService;
   
-  public ProductController(@Autowired IProductService productService) {
-    this.productService = productService;
+  private final IProductCacheService productCacheService;
+  
+  private final IProductExportService productExportService;
+  
+  private final IProductImportService productImportService;
+  
+  private final IStockLedgerService stockLedgerService;
+  
+  private final IStockAlertService stockAlertService;
+  
+  private final IInventoryStatsService inventoryStatsService;
+  
+  public ProductController(@Autowired IProductService productService,
+                           @Autowired IProductCacheService productCacheService,
+                           @Autowired IProductExportService productExportService,
+                           @Autowired IProductImportService productImportService,
+                           @Autowired IStockLedgerService stockLedgerService,
+                           @Autowired IStockAlertService stockAlertService,
+                           @Autowired IInventoryStatsService inventoryStatsService) {
+    this.productService        = productService;
+    this.productCacheService   = productCacheService;
+    this.productExportService  = productExportService;
+    this.productImportService  = productImportService;
+    this.stockLedgerService    = stockLedgerService;
+    this.stockAlertService     = stockAlertService;
+    this.inventoryStatsService = inventoryStatsService;
   }
   
   @PostMapping
@@ -45,55 +113,216 @@ public class ProductController {
         .body(this.productService.create(productForm));
   }
   
+  @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<ProductImportResultDTO> importProducts(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream inputStream)
+      throws IOException {
+    var format = CatalogFormat.fromMediaType(contentType).orElseThrow();
+    return ResponseEntity.ok(this.productImportService.importProducts(format, inputStream));
+  }
+  
   @GetMapping
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<List<ProductDTO>> listAll(@Valid ProductFilter filter) {
-    return ResponseEntity.ok(this.productService.listAll(filter));
+  public ResponseEntity<List<ProductDTO>> listAll(@Valid ProductFilter filter)
+      throws InvalidCursorException {
+    var page     = this.productService.listAll(filter);
+    var response = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+    }
+    if (page.facets() != null) {
+      response.header(CATEGORY_FACETS_HEADER, page.facets().entrySet().stream()
+          .map(facet -> facet.getKey() + "=" + facet.getValue())
+          .collect(Collectors.joining(", ")));
+    }
+    if (page.totalHits() != null) {
+      response.header(TOTAL_HITS_HEADER, String.valueOf(page.totalHits().value()));
+      response.header(TOTAL_HITS_ESTIMATED_HEADER, String.valueOf(page.totalHits().estimated()));
+    }
+    return response.body(page.content());
+  }
+  
+  @GetMapping("/export")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<StreamingResponseBody> export(ProductExportFilter filter) {
+    var format = ObjectUtils.defaultIfNull(filter.format(), CatalogFormat.NDJSON);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(format.getMediaType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("products." + format.name().toLowerCase(Locale.ROOT))
+            .build()
+            .toString())
+        .body(outputStream -> this.productExportService.export(filter, outputStream));
   }
   
+  @GetMapping("/stats")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<InventoryStatsDTO> stats() {
+    return ResponseEntity.ok(this.inventoryStatsService.stats());
+  }
+  
+  @GetMapping("/alerts")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<List<StockAlertDTO>> listAlerts(
+      @RequestParam(required = false) StockAlertType type) {
+    return ResponseEntity.ok(this.stockAlertService.listAll(type));
+  }
+  
+  /**
+   * With {@code If-None-Match}, only the version of the product is looked up and a 304 is
+   * returned while it is unchanged, without building the product.
+   */
   @GetMapping("/{id}")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<ProductDTO> findById(@PathVariable Long id)
+  public ResponseEntity<ProductDTO> findById(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
       throws ProductNotFoundException {
-    return ResponseEntity.ok(this.productService.findById(id));
+    if (ifNoneMatch != null) {
+      var version = this.productService.findVersionById(id);
+      if (ProductETags.noneMatchHits(ifNoneMatch, version.version())) {
+        return notModified(version);
+      }
+    }
+    return withETag(this.productService.findById(id));
   }
   
   @GetMapping("/barcode/{barcode}")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<ProductDTO> findByBarCode(@PathVariable String barcode)
+  public ResponseEntity<ProductDTO> findByBarCode(
+      @PathVariable String barcode,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
       throws ProductNotFoundException {
-    return ResponseEntity.ok(this.productService.findByBarCode(barcode));
+    if (ifNoneMatch != null) {
+      var version = this.productService.findVersionByBarCode(barcode);
+      if (ProductETags.noneMatchHits(ifNoneMatch, version.version())) {
+        return notModified(version);
+      }
+    }
+    return withETag(this.productService.findByBarCode(barcode));
   }
   
-  @PutMapping("/{id}")
+  @GetMapping("/{id}/availability")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<ProductDTO> updateById(@PathVariable Long id,
-                                               @RequestBody @Valid ProductUpdateForm updateForm)
+  public ResponseEntity<StockAvailabilityDTO> findAvailabilityById(@PathVariable Long id)
       throws ProductNotFoundException {
-    return ResponseEntity.ok(this.productService.updateById(id, updateForm));
+    return ResponseEntity.ok(this.productService.findAvailabilityById(id));
+  }
+  
+  @GetMapping("/{id}/movements")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<List<StockMovementDTO>> findMovements(@PathVariable Long id,
+                                                              @Valid StockMovementFilter filter)
+      throws ProductNotFoundException, InvalidCursorException {
+    var page     = this.stockLedgerService.findMovements(id, filter);
+    var response = ResponseEntity.ok();
+    if (page.nextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+    }
+    return response.body(page.content());
+  }
+  
+  @GetMapping("/{id}/movements/stock")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<StockLevelDTO> findStockAt(
+      @PathVariable Long id,
+      @RequestParam(required = false) Instant at) throws ProductNotFoundException {
+    return ResponseEntity.ok(this.stockLedgerService.findStockAt(id, at));
+  }
+  
+  @PutMapping("/{id}")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<ProductDTO> updateById(
+      @PathVariable Long id,
+      @RequestBody @Valid ProductUpdateForm updateForm,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+      throws ProductNotFoundException, ProductVersionMismatchException,
+      ProductConflictException {
+    var expectedVersion = expectedVersion(id, ifMatch);
+    return withETag(this.productService.updateById(id, updateForm, expectedVersion));
   }
   
   @DeleteMapping("/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public ResponseEntity<Object> deleteById(@PathVariable Long id) throws ProductNotFoundException {
+  public ResponseEntity<Object> deleteById(@PathVariable Long id)
+      throws ProductNotFoundException, ProductConflictException {
     this.productService.delete(id);
     return ResponseEntity.noContent().build();
   }
   
   @PatchMapping("/{id}/increase")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<ProductDTO> increaseStock(@PathVariable Long id,
-                                                  @RequestBody @Valid QuantityForm quantityForm)
-      throws ProductNotFoundException, ProductStockExceededException {
-    return ResponseEntity.ok(this.productService.increaseStock(id, quantityForm));
+  public ResponseEntity<ProductDTO> increaseStock(
+      @PathVariable Long id,
+      @RequestBody @Valid QuantityForm quantityForm,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+      throws ProductNotFoundException, ProductStockExceededException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+    var expectedVersion = expectedVersion(id, ifMatch);
+    return withETag(this.productService.increaseStock(id, quantityForm, expectedVersion));
   }
   
   @PatchMapping("/{id}/decrease")
   @ResponseStatus(HttpStatus.OK)
-  public ResponseEntity<ProductDTO> decreaseStock(@PathVariable Long id,
-                                              @RequestBody @Valid QuantityForm quantityForm)
-      throws ProductStockUnderThanZeroException, ProductNotFoundException {
-    return ResponseEntity.ok(this.productService.decreaseStock(id, quantityForm));
+  public ResponseEntity<ProductDTO> decreaseStock(
+      @PathVariable Long id,
+      @RequestBody @Valid QuantityForm quantityForm,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+      throws ProductStockUnderThanZeroException, ProductNotFoundException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+    var expectedVersion = expectedVersion(id, ifMatch);
+    return withETag(this.productService.decreaseStock(id, quantityForm, expectedVersion));
+  }
+  
+  @PostMapping("/stock/movements")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<List<StockMovementResultDTO>> applyStockMovements(
+      @RequestBody @Valid StockMovementsForm movementsForm) {
+    return ResponseEntity.ok(this.productService.applyStockMovements(movementsForm));
+  }
+  
+  @GetMapping("/cache/stats")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<ProductCacheStatsDTO> cacheStats() {
+    return ResponseEntity.ok(this.productCacheService.stats());
+  }
+  
+  /**
+   * Version an {@code If-Match} header makes the write conditional on, {@code null} when the
+   * write is unconditional. A single tag is checked by the write itself, a list is resolved
+   * against the current version first.
+   */
+  private Long expectedVersion(Long id, String ifMatch)
+      throws ProductNotFoundException, ProductVersionMismatchException {
+    if (ifMatch == null || ProductETags.isWildcard(ifMatch)) {
+      return null;
+    }
+    
+    var versions = ProductETags.matchVersions(ifMatch);
+    if (versions.size() == 1) {
+      return versions.get(0);
+    }
+    
+    var version = this.productService.findVersionById(id).version();
+    if (!versions.contains(version)) {
+      throw new ProductVersionMismatchException();
+    }
+    return version;
+  }
+  
+  private ResponseEntity<ProductDTO> notModified(ProductVersion version) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(ProductETags.of(version.version()))
+        .build();
+  }
+  
+  private ResponseEntity<ProductDTO> withETag(ProductDTO product) {
+    var response = ResponseEntity.ok();
+    if (product.version() != null) {
+      response.eTag(ProductETags.of(product.version()));
+    }
+    return response.body(product);
   }
   
 }
@@ -0,0 +1,70 @@
+package com.gilberto.logistockapi.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Entity tags of products, which are their quoted versions. The same product has the same tag on
+ * every endpoint that returns it.
+ */
+final class ProductETags {
+  
+  private static final String WILDCARD = "*";
+  
+  private static final String WEAK_PREFIX = "W/";
+  
+  /**
+   * Longer tags could overflow a {@code Long}, and no version gets that far.
+   */
+  private static final int MAX_VERSION_DIGITS = 18;
+  
+  private ProductETags() {
+  }
+  
+  static String of(Long version) {
+    return "\"" + version + "\"";
+  }
+  
+  static boolean isWildcard(String header) {
+    return WILDCARD.equals(StringUtils.trim(header));
+  }
+  
+  /**
+   * Whether an {@code If-None-Match} header lists the version, comparing weak tags as well.
+   */
+  static boolean noneMatchHits(String header, Long version) {
+    return isWildcard(header) || versions(header, true).contains(version);
+  }
+  
+  /**
+   * Versions listed by an {@code If-Match} header, which only compares strong tags. Tags that are
+   * not versions of a product are left out since they can never match.
+   */
+  static List<Long> matchVersions(String header) {
+    return versions(header, false);
+  }
+  
+  private static List<Long> versions(String header, boolean includeWeak) {
+    var versions = new ArrayList<Long>();
+    for (var tag : StringUtils.split(header, ',')) {
+      tag = tag.trim();
+      if (tag.startsWith(WEAK_PREFIX)) {
+        if (!includeWeak) {
+          continue;
+        }
+        tag = tag.substring(WEAK_PREFIX.length());
+      }
+      
+      if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+        continue;
+      }
+      var version = tag.substring(1, tag.length() - 1);
+      if (version.length() <= MAX_VERSION_DIGITS && StringUtils.isNumeric(version)) {
+        versions.add(Long.valueOf(version));
+      }
+    }
+    return versions;
+  }
+  
+}
@@ -0,0 +1,107 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.services.IProductJsonCacheService;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes the products and lists of products returned as JSON from their cached encodings,
+ * instead of serializing them on every response. Anything else, and every other media type, is
+ * left to the next converters. Request bodies are never read by it.
+ */
+public class ProductJsonHttpMessageConverter implements GenericHttpMessageConverter<Object> {
+  
+  private final IProductJsonCacheService productJsonCacheService;
+  
+  public ProductJsonHttpMessageConverter(IProductJsonCacheService productJsonCacheService) {
+    this.productJsonCacheService = productJsonCacheService;
+  }
+  
+  @Override
+  public List<MediaType> getSupportedMediaTypes() {
+    return List.of(MediaType.APPLICATION_JSON);
+  }
+  
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+  
+  @Override
+  public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+    return false;
+  }
+  
+  @Override
+  public Object read(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw notReadable(inputMessage);
+  }
+  
+  @Override
+  public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+    throw notReadable(inputMessage);
+  }
+  
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return canWrite(null, clazz, mediaType);
+  }
+  
+  @Override
+  public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+    if (mediaType != null && !MediaType.ALL.equalsTypeAndSubtype(mediaType)
+        && !MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+      return false;
+    }
+    
+    var resolvableType = type == null ?
+                         ResolvableType.forClass(clazz) :
+                         ResolvableType.forType(type);
+    if (ProductDTO.class == resolvableType.resolve()) {
+      return true;
+    }
+    return List.class.isAssignableFrom(resolvableType.toClass())
+        && ProductDTO.class == resolvableType.asCollection().resolveGeneric(0);
+  }
+  
+  @Override
+  public void write(Object body, MediaType contentType, HttpOutputMessage outputMessage)
+      throws IOException {
+    write(body, null, contentType, outputMessage);
+  }
+  
+  @Override
+  @SuppressWarnings("unchecked")
+  public void write(Object body, Type type, MediaType contentType,
+                    HttpOutputMessage outputMessage) throws IOException {
+    var headers = outputMessage.getHeaders();
+    if (headers.getContentType() == null) {
+      headers.setContentType(contentType == null || !contentType.isConcrete() ?
+                             MediaType.APPLICATION_JSON :
+                             contentType);
+    }
+    
+    if (body instanceof ProductDTO product) {
+      var json = this.productJsonCacheService.toJson(product);
+      headers.setContentLength(json.length);
+      outputMessage.getBody().write(json);
+    } else {
+      this.productJsonCacheService.writeJson((List<ProductDTO>) body, outputMessage.getBody());
+    }
+    outputMessage.getBody().flush();
+  }
+  
+  private HttpMessageNotReadableException notReadable(HttpInputMessage inputMessage) {
+    return new HttpMessageNotReadableException(
+        "Cached product encodings are only written to responses", inputMessage);
+  }
+  
+}
@@ -0,0 +1,72 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ReservationDTO;
+import com.gilberto.logistockapi.services.IProductService;
+import com.gilberto.logistockapi.services.IStockReservationService;
+import jakarta.validation.Valid;
+import java.net.URI;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/reservation")
+public class ReservationController {
+  
+  private final IStockReservationService stockReservationService;
+  
+  private final IProductService productService;
+  
+  public ReservationController(@Autowired IStockReservationService stockReservationService,
+                               @Autowired IProductService productService) {
+    this.stockReservationService = stockReservationService;
+    this.productService          = productService;
+  }
+  
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public ResponseEntity<ReservationDTO> reserve(
+      @RequestBody @Valid ReservationForm reservationForm)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException {
+    var reservation = this.stockReservationService.reserve(reservationForm);
+    return ResponseEntity.created(URI.create("/api/v1/reservation/" + reservation.id()))
+        .body(reservation);
+  }
+  
+  @GetMapping("/{id}")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<ReservationDTO> findById(@PathVariable Long id)
+      throws ReservationNotFoundException {
+    return ResponseEntity.ok(this.stockReservationService.findById(id));
+  }
+  
+  @PostMapping("/{id}/commit")
+  @ResponseStatus(HttpStatus.OK)
+  public ResponseEntity<ProductDTO> commit(@PathVariable Long id)
+      throws ReservationNotFoundException, ProductNotFoundException,
+      ProductStockUnderThanZeroException {
+    return ResponseEntity.ok(this.productService.commitReservation(id));
+  }
+  
+  @DeleteMapping("/{id}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public ResponseEntity<Object> release(@PathVariable Long id)
+      throws ReservationNotFoundException {
+    this.stockReservationService.release(id);
+    return ResponseEntity.noContent().build();
+  }
+  
+}
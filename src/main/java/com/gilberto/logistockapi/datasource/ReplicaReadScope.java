@@ -0,0 +1,69 @@
+package com.gilberto.logistockapi.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the reads of the current thread that a replica may serve. Read-only transactions are
+ * only routed to a replica inside a scope, since the read-only repository methods are also called
+ * by the writes, which must see the primary. The replica chosen for the first connection of a
+ * scope serves the rest of it, so the reads of one request see a single replica.
+ */
+public final class ReplicaReadScope implements AutoCloseable {
+  
+  private static final ThreadLocal<ReplicaReadScope> CURRENT = new ThreadLocal<>();
+  
+  private final ReplicaReadScope enclosing;
+  
+  private Object replica;
+  
+  private ReplicaReadScope(ReplicaReadScope enclosing) {
+    this.enclosing = enclosing;
+    this.replica   = enclosing == null ? null : enclosing.replica;
+  }
+  
+  /**
+   * Opens a scope on the current thread, to be closed by the same thread.
+   */
+  public static ReplicaReadScope open() {
+    var scope = new ReplicaReadScope(CURRENT.get());
+    CURRENT.set(scope);
+    return scope;
+  }
+  
+  /**
+   * Runs the read inside a scope.
+   */
+  public static <T> T read(Supplier<T> reader) {
+    var scope = open();
+    try {
+      return reader.get();
+    } finally {
+      scope.close();
+    }
+  }
+  
+  /**
+   * Returns the scope open on the current thread, or {@code null}.
+   */
+  static ReplicaReadScope current() {
+    return CURRENT.get();
+  }
+  
+  Object replica() {
+    return this.replica;
+  }
+  
+  void replica(Object replica) {
+    this.replica = replica;
+  }
+  
+  @Override
+  public void close() {
+    if (this.enclosing == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(this.enclosing);
+    }
+  }
+  
+}
@@ -0,0 +1,154 @@
+package com.gilberto.logistockapi.datasource;
+
+import com.gilberto.logistockapi.config.DataSourceRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the reads of a {@link ReplicaReadScope} to the replicas in turns, as long as they run
+ * in a read-only transaction or outside any transaction, and every other connection to the
+ * primary. The lag of each replica is measured by writing the current time to the heartbeat row
+ * of the primary and reading back the time the replica holds, which works whatever replicates
+ * the database. Replicas that cannot be read or lag more than the tolerance get no reads until
+ * they catch up, and without any replica left the reads go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+  
+  private static final String PRIMARY = "primary";
+  
+  private static final long HEARTBEAT_ID = 1L;
+  
+  private static final String UPDATE_HEARTBEAT_SQL = "update rhb_replication_heartbeat " +
+      "   set rhb_beat_at = ? " +
+      " where rhb_id = ?";
+  
+  private static final String INSERT_HEARTBEAT_SQL = "insert into rhb_replication_heartbeat " +
+      "(rhb_id, rhb_beat_at) values (?, ?)";
+  
+  private static final String FIND_HEARTBEAT_SQL = "select rhb_beat_at " +
+      "  from rhb_replication_heartbeat " +
+      " where rhb_id = ?";
+  
+  private final DataSourceRoutingProperties properties;
+  
+  private final HikariDataSource primary;
+  
+  private final List<HikariDataSource> replicas;
+  
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  
+  private volatile List<String> availableReplicas = List.of();
+  
+  private ScheduledExecutorService scheduler;
+  
+  public ReplicaRoutingDataSource(DataSourceRoutingProperties properties,
+                                  HikariDataSource primary, List<HikariDataSource> replicas) {
+    this.properties = properties;
+    this.primary    = primary;
+    this.replicas   = replicas;
+    
+    var targets = new HashMap<Object, Object>();
+    targets.put(PRIMARY, primary);
+    replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+  
+  /**
+   * Measures the lag of the replicas every interval. Until the first measure every read goes to
+   * the primary, which also leaves the schema migrations time to create the heartbeat table.
+   */
+  public void start() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "replica-lag-check");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var interval = this.properties.lagCheckInterval().toMillis();
+    this.scheduler.scheduleWithFixedDelay(this::checkLag, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+  
+  @Override
+  public void close() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+    }
+    this.replicas.forEach(HikariDataSource::close);
+    this.primary.close();
+  }
+  
+  /**
+   * Writes a heartbeat to the primary and keeps the replicas whose last replicated heartbeat is
+   * within the tolerated lag. The lag measured includes the time since the previous heartbeat.
+   */
+  public void checkLag() {
+    var beatAt = Instant.now();
+    try {
+      var primaryTemplate = new JdbcTemplate(this.primary);
+      if (primaryTemplate.update(UPDATE_HEARTBEAT_SQL, Timestamp.from(beatAt), HEARTBEAT_ID) == 0) {
+        primaryTemplate.update(INSERT_HEARTBEAT_SQL, HEARTBEAT_ID, Timestamp.from(beatAt));
+      }
+    } catch (DataAccessException exception) {
+      log.warn("Could not write the replication heartbeat: {}", exception.getMessage());
+      this.availableReplicas = List.of();
+      return;
+    }
+    
+    var available = new ArrayList<String>(this.replicas.size());
+    for (var replica : this.replicas) {
+      try {
+        var replicatedAt = new JdbcTemplate(replica)
+            .queryForObject(FIND_HEARTBEAT_SQL, Timestamp.class, HEARTBEAT_ID);
+        var lag          = Duration.between(replicatedAt.toInstant(), beatAt);
+        if (lag.compareTo(this.properties.maxReplicaLag()) <= 0) {
+          available.add(replica.getPoolName());
+        } else {
+          log.debug("Replica {} lags {}, its reads go to the primary", replica.getPoolName(), lag);
+        }
+      } catch (DataAccessException exception) {
+        log.warn("Could not read the replication heartbeat of {}: {}", replica.getPoolName(),
+            exception.getMessage());
+      }
+    }
+    this.availableReplicas = List.copyOf(available);
+  }
+  
+  @Override
+  protected Object determineCurrentLookupKey() {
+    var scope = ReplicaReadScope.current();
+    if (scope == null || TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return PRIMARY;
+    }
+    
+    var available = this.availableReplicas;
+    if (scope.replica() != null && available.contains(scope.replica())) {
+      return scope.replica();
+    }
+    if (available.isEmpty()) {
+      return PRIMARY;
+    }
+    
+    var replica = available.get(Math.floorMod(this.nextReplica.getAndIncrement(),
+        available.size()));
+    scope.replica(replica);
+    return replica;
+  }
+  
+}
@@ -4,8 +4,10 @@ import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
 @Getter
-public sealed class HttpException extends Exception permits ProductAlreadyRegisteredException,
-    ProductNotFoundException, ProductStockExceededException, ProductStockUnderThanZeroException {
+public sealed class HttpException extends Exception permits InvalidCursorException,
+    InvalidProductRowException, ProductAlreadyRegisteredException, ProductConflictException,
+    ProductNotFoundException, ProductStockExceededException, ProductStockUnderThanZeroException,
+    ProductVersionMismatchException, ReservationNotFoundException, StockWriteTimeoutException {
   
   private HttpStatus status;
   
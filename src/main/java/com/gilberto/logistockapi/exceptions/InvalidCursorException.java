@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public final class InvalidCursorException extends HttpException {
+    
+    public InvalidCursorException() {
+        super("Invalid page cursor!", HttpStatus.BAD_REQUEST);
+    }
+}
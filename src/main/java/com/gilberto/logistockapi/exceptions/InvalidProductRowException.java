@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public final class InvalidProductRowException extends HttpException {
+  
+  public InvalidProductRowException(String message) {
+    super(message, HttpStatus.BAD_REQUEST);
+  }
+}
@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public final class ProductConflictException extends HttpException {
+
+    public ProductConflictException() {
+        super("Product is being changed concurrently, try again!", HttpStatus.CONFLICT);
+    }
+}
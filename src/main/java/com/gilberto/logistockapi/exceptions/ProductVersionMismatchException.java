@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public final class ProductVersionMismatchException extends HttpException {
+
+    public ProductVersionMismatchException() {
+        super("Product was changed since the given version!", HttpStatus.PRECONDITION_FAILED);
+    }
+}
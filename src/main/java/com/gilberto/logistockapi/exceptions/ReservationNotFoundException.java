@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public final class ReservationNotFoundException extends HttpException {
+
+    public ReservationNotFoundException() {
+        super("Reservation not found or already expired!", HttpStatus.NOT_FOUND);
+    }
+}
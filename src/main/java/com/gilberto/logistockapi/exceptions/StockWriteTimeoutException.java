@@ -0,0 +1,13 @@
+package com.gilberto.logistockapi.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public final class StockWriteTimeoutException extends HttpException {
+
+    public StockWriteTimeoutException() {
+        super("Stock movement was not written in time, it may still be applied!",
+            HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
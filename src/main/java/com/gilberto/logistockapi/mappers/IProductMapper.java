@@ -3,6 +3,8 @@ package com.gilberto.logistockapi.mappers;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.response.ProductDTO;
 import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
 
 public interface IProductMapper {
   
@@ -10,4 +12,10 @@ public interface IProductMapper {
   
   ProductDTO toProductDTO(Product product);
   
+  ProductDTO toProductDTO(ProductView productView);
+  
+  ProductStockLevel toStockLevel(Product product);
+  
+  ProductStockLevel toStockLevel(ProductView productView);
+  
 }
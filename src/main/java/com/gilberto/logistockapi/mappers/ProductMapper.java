@@ -5,6 +5,9 @@ import com.gilberto.logistockapi.models.dto.response.ProductDTO;
 import com.gilberto.logistockapi.models.dto.response.SupplierDTO;
 import com.gilberto.logistockapi.models.entity.Product;
 import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import org.apache.commons.lang3.ObjectUtils;
 
 public class ProductMapper implements IProductMapper {
   
@@ -19,6 +22,7 @@ public class ProductMapper implements IProductMapper {
         .stockQuantity(productForm.stockQuantity())
         .measureUnit(productForm.measureUnit())
         .maxStockLevel(productForm.maxStockLevel())
+        .reorderPoint(ObjectUtils.defaultIfNull(productForm.reorderPoint(), 0))
         .build();
   }
   
@@ -33,7 +37,68 @@ public class ProductMapper implements IProductMapper {
         product.getUnitPrice(),
         product.getMeasureUnit(),
         product.getStockQuantity(),
-        product.getDescription()
+        product.getDescription(),
+        product.getVersion()
+    );
+  }
+  
+  @Override
+  public ProductDTO toProductDTO(ProductView productView) {
+    return new ProductDTO(
+        productView.id(),
+        productView.name(),
+        productView.barCode(),
+        productView.category(),
+        createSupplierDTO(productView),
+        productView.unitPrice(),
+        productView.measureUnit(),
+        productView.stockQuantity(),
+        productView.description(),
+        productView.version()
+    );
+  }
+  
+  @Override
+  public ProductStockLevel toStockLevel(Product product) {
+    return new ProductStockLevel(
+        product.getId(),
+        product.getBarCode(),
+        product.getCategory(),
+        product.getMeasureUnit(),
+        product.getUnitPrice(),
+        product.getStockQuantity(),
+        product.getMaxStockLevel(),
+        product.getReorderPoint(),
+        product.getVersion()
+    );
+  }
+  
+  @Override
+  public ProductStockLevel toStockLevel(ProductView productView) {
+    return new ProductStockLevel(
+        productView.id(),
+        productView.barCode(),
+        productView.category(),
+        productView.measureUnit(),
+        productView.unitPrice(),
+        productView.stockQuantity(),
+        productView.maxStockLevel(),
+        productView.reorderPoint(),
+        productView.version()
+    );
+  }
+  
+  private SupplierDTO createSupplierDTO(ProductView productView) {
+    if (productView.supplierId() == null) {
+      return null;
+    }
+    
+    return new SupplierDTO(
+        productView.supplierId(),
+        productView.supplierName(),
+        productView.supplierLegalDocument(),
+        productView.supplierEmail(),
+        productView.supplierPhone()
     );
   }
   
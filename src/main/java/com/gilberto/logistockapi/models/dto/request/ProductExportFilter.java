@@ -0,0 +1,19 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.models.enums.Category;
+import java.util.List;
+
+/**
+ * Filters of the catalog export, the same as the ones of the product listing. The format
+ * defaults to NDJSON.
+ */
+public record ProductExportFilter(
+    String search,
+    
+    List<Category> categories,
+    
+    CatalogFormat format
+) {
+
+}
@@ -1,11 +1,17 @@
 package com.gilberto.logistockapi.models.dto.request;
 
 import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.HitCount;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
 
+/**
+ * Filters of the product listing. Pages are either addressed by page number or, for deep
+ * pagination, by the cursor returned with the previous page, in which case the page number is
+ * ignored. The facets count the products matching the search in every category, whichever
+ * categories are selected, and the total hits are only counted when asked for.
+ */
 public record ProductFilter(
-    @NotNull
     Integer pageNumber,
     
     @NotNull
@@ -13,7 +19,13 @@ public record ProductFilter(
     
     String search,
     
-    List<Category> categories
+    List<Category> categories,
+    
+    String cursor,
+    
+    Boolean facets,
+    
+    HitCount totalHits
 ) {
 
 }
@@ -3,6 +3,7 @@ package com.gilberto.logistockapi.models.dto.request;
 import com.gilberto.logistockapi.models.enums.Category;
 import com.gilberto.logistockapi.models.enums.MeasureUnit;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import jakarta.validation.constraints.NotNull;
@@ -24,6 +25,9 @@ public record ProductUpdateForm(
     @NotNull
     Integer maxStockLevel,
     
+    @Min(0)
+    Integer reorderPoint,
+    
     @NotNull
     MeasureUnit measureUnit,
     
@@ -0,0 +1,20 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import org.hibernate.validator.constraints.time.DurationMin;
+
+public record ReservationForm(
+    @NotNull
+    Long productId,
+    
+    @NotNull
+    @Min(1)
+    Integer quantity,
+    
+    @DurationMin(seconds = 1)
+    Duration ttl
+) {
+
+}
@@ -0,0 +1,37 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last movement of a page in the history order, creation time and then id, both
+ * ascending. Clients only see it as an opaque token.
+ */
+public record StockMovementCursor(
+    Instant createdAt,
+    Long id
+) {
+  
+  public static StockMovementCursor decode(String token) throws InvalidCursorException {
+    try {
+      var value  = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var fields = value.split("_");
+      if (fields.length != 2) {
+        throw new InvalidCursorException();
+      }
+      return new StockMovementCursor(Instant.parse(fields[0]), Long.valueOf(fields[1]));
+    } catch (IllegalArgumentException | DateTimeParseException exception) {
+      throw new InvalidCursorException();
+    }
+  }
+  
+  public String encode() {
+    var value = this.createdAt + "_" + this.id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+  
+}
@@ -0,0 +1,23 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.time.Instant;
+
+/**
+ * Period of the stock movement history, from inclusive and to exclusive, open ended when not
+ * given. A cursor returned with a previous page continues the history after it.
+ */
+public record StockMovementFilter(
+    Instant from,
+    
+    Instant to,
+    
+    @Min(1)
+    @Max(1000)
+    Integer pageSize,
+    
+    String cursor
+) {
+
+}
@@ -0,0 +1,23 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A single stock movement identified by product id or, when absent, by barcode. The quantity has
+ * the same meaning as in {@link QuantityForm}, positive values increase the stock and negative
+ * values decrease it. Its bounds keep a single bad movement from failing the whole batch.
+ */
+public record StockMovementForm(
+    Long id,
+    
+    String barCode,
+    
+    @NotNull
+    @Min(-1_000_000_000)
+    @Max(1_000_000_000)
+    Integer quantity
+) {
+
+}
@@ -0,0 +1,14 @@
+package com.gilberto.logistockapi.models.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record StockMovementsForm(
+    @NotEmpty
+    @Size(max = 1000)
+    List<@Valid StockMovementForm> movements
+) {
+
+}
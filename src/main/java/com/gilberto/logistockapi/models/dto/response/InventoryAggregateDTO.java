@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.math.BigDecimal;
+
+public record InventoryAggregateDTO(
+    long products,
+    long units,
+    BigDecimal value
+) {
+
+}
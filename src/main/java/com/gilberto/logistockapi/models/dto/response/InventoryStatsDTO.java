@@ -0,0 +1,13 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import java.util.Map;
+
+public record InventoryStatsDTO(
+    InventoryAggregateDTO total,
+    Map<Category, InventoryAggregateDTO> byCategory,
+    Map<MeasureUnit, InventoryAggregateDTO> byMeasureUnit
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+public record ProductCacheStatsDTO(
+    long hitCount,
+    long missCount,
+    long evictionCount,
+    double hitRate,
+    long size
+) {
+
+}
@@ -13,7 +13,8 @@ public record ProductDTO(
     BigDecimal unitPrice,
     MeasureUnit measureUnit,
     Integer stockQuantity,
-    String description
+    String description,
+    Long version
 ) {
 
 }
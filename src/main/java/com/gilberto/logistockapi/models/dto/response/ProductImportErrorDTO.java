@@ -0,0 +1,13 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+/**
+ * @param row position of the row in the file, starting from one and not counting the CSV
+ *     header.
+ */
+public record ProductImportErrorDTO(
+    long row,
+    String barCode,
+    ErrorDTO error
+) {
+
+}
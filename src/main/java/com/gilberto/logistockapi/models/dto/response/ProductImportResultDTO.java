@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.util.List;
+
+public record ProductImportResultDTO(
+    int imported,
+    int failed,
+    List<ProductImportErrorDTO> errors
+) {
+
+}
@@ -0,0 +1,18 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import com.gilberto.logistockapi.models.enums.Category;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of the product listing. The facets and the total hits are only present when the filter
+ * asks for them.
+ */
+public record ProductPageDTO(
+    List<ProductDTO> content,
+    String nextCursor,
+    Map<Category, Long> facets,
+    TotalHitsDTO totalHits
+) {
+
+}
@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.time.Instant;
+
+public record ReservationDTO(
+    Long id,
+    Long productId,
+    Integer quantity,
+    Instant expiresAt
+) {
+
+}
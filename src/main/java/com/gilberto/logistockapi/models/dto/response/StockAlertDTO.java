@@ -0,0 +1,14 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+
+public record StockAlertDTO(
+    Long productId,
+    String barCode,
+    StockAlertType type,
+    Integer stockQuantity,
+    Integer reorderPoint,
+    Integer maxStockLevel
+) {
+
+}
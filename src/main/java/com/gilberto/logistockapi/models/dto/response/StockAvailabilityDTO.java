@@ -0,0 +1,10 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+public record StockAvailabilityDTO(
+    Long productId,
+    Integer stockQuantity,
+    Integer reservedQuantity,
+    Integer availableQuantity
+) {
+
+}
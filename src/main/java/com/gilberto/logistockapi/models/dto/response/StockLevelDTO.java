@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.time.Instant;
+
+public record StockLevelDTO(
+    Long productId,
+    Integer stockQuantity,
+    Instant at
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.time.Instant;
+
+public record StockMovementDTO(
+    Long id,
+    Integer quantity,
+    Instant createdAt
+) {
+
+}
@@ -0,0 +1,13 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+import java.util.List;
+
+/**
+ * Page of the stock movement history, with the cursor of the next page when this one is full.
+ */
+public record StockMovementPageDTO(
+    List<StockMovementDTO> content,
+    String nextCursor
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+public record StockMovementResultDTO(
+    Long id,
+    String barCode,
+    Integer quantity,
+    Integer stockQuantity,
+    ErrorDTO error
+) {
+
+}
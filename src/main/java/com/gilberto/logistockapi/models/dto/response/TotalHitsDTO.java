@@ -0,0 +1,8 @@
+package com.gilberto.logistockapi.models.dto.response;
+
+public record TotalHitsDTO(
+    long value,
+    boolean estimated
+) {
+
+}
@@ -0,0 +1,57 @@
+package com.gilberto.logistockapi.models.entity;
+
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@Entity(name = "ins_inventory_summary")
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventorySummary {
+  
+  @EmbeddedId
+  private Key key;
+  
+  @Column(name = "ins_products", nullable = false)
+  private Long products;
+  
+  @Column(name = "ins_units", nullable = false)
+  private Long units;
+  
+  @Column(name = "ins_value", nullable = false, precision = 38, scale = 2)
+  private BigDecimal value;
+  
+  @Column(name = "ins_updated_at", nullable = false)
+  private Instant updatedAt;
+  
+  @Data
+  @Embeddable
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class Key implements Serializable {
+    
+    @Column(name = "ins_category", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private Category category;
+    
+    @Column(name = "ins_measure_unit", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private MeasureUnit measureUnit;
+    
+  }
+  
+}
@@ -13,6 +13,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import lombok.AllArgsConstructor;
@@ -29,7 +31,8 @@ import org.hibernate.annotations.CreationTimestamp;
 public class Product {
   
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pro_product_seq")
+  @SequenceGenerator(name = "pro_product_seq", sequenceName = "pro_product_seq", allocationSize = 50)
   @Column(name = "pro_id")
   private Long id;
   
@@ -60,6 +63,10 @@ public class Product {
   @Column(name = "pro_max_stock_level", nullable = false)
   private Integer maxStockLevel;
   
+  @Builder.Default
+  @Column(name = "pro_reorder_point", nullable = false)
+  private Integer reorderPoint = 0;
+  
   @Column(name = "pro_entry_date", nullable = false)
   @CreationTimestamp
   private LocalDate entryDate;
@@ -67,4 +74,8 @@ public class Product {
   @Column(name = "pro_description")
   private String description;
   
+  @Version
+  @Column(name = "pro_version", nullable = false)
+  private Long version;
+  
 }
@@ -0,0 +1,30 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time last written to the primary by the replica lag check, read back from each replica to
+ * measure how far behind it is.
+ */
+@Data
+@Builder
+@Entity(name = "rhb_replication_heartbeat")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplicationHeartbeat {
+  
+  @Id
+  @Column(name = "rhb_id")
+  private Long id;
+  
+  @Column(name = "rhb_beat_at", nullable = false)
+  private Instant beatAt;
+  
+}
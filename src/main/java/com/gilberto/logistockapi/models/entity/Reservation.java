@@ -0,0 +1,41 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@Entity(name = "res_reservation")
+@AllArgsConstructor
+@NoArgsConstructor
+public class Reservation {
+  
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "res_reservation_seq")
+  @SequenceGenerator(name = "res_reservation_seq", sequenceName = "res_reservation_seq",
+      allocationSize = 50)
+  @Column(name = "res_id")
+  private Long id;
+  
+  @Column(name = "res_product_id", nullable = false)
+  private Long productId;
+  
+  @Column(name = "res_quantity", nullable = false)
+  private Integer quantity;
+  
+  @Column(name = "res_created_at", nullable = false)
+  private Instant createdAt;
+  
+  @Column(name = "res_expires_at", nullable = false)
+  private Instant expiresAt;
+  
+}
@@ -0,0 +1,38 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@Entity(name = "stm_stock_movement")
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+  
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stm_stock_movement_seq")
+  @SequenceGenerator(name = "stm_stock_movement_seq", sequenceName = "stm_stock_movement_seq",
+      allocationSize = 50)
+  @Column(name = "stm_id")
+  private Long id;
+  
+  @Column(name = "stm_product_id", nullable = false)
+  private Long productId;
+  
+  @Column(name = "stm_quantity", nullable = false)
+  private Integer quantity;
+  
+  @Column(name = "stm_created_at", nullable = false)
+  private Instant createdAt;
+  
+}
@@ -0,0 +1,41 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@Entity(name = "sts_stock_snapshot")
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockSnapshot {
+  
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sts_stock_snapshot_seq")
+  @SequenceGenerator(name = "sts_stock_snapshot_seq", sequenceName = "sts_stock_snapshot_seq",
+      allocationSize = 50)
+  @Column(name = "sts_id")
+  private Long id;
+  
+  @Column(name = "sts_product_id", nullable = false)
+  private Long productId;
+  
+  @Column(name = "sts_stock_quantity", nullable = false)
+  private Integer stockQuantity;
+  
+  /**
+   * The snapshot includes every movement created up to this moment.
+   */
+  @Column(name = "sts_taken_at", nullable = false)
+  private Instant takenAt;
+  
+}
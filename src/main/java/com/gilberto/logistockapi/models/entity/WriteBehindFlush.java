@@ -0,0 +1,29 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sequence of the last append log segment committed by the stock write-behind, written in the
+ * same transaction as the stock so a segment is never replayed after its flush committed.
+ */
+@Data
+@Builder
+@Entity(name = "wbf_write_behind_flush")
+@AllArgsConstructor
+@NoArgsConstructor
+public class WriteBehindFlush {
+  
+  @Id
+  @Column(name = "wbf_log_file")
+  private String logFile;
+  
+  @Column(name = "wbf_sequence", nullable = false)
+  private Long sequence;
+  
+}
@@ -0,0 +1,43 @@
+package com.gilberto.logistockapi.models.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Net quantity of a product that the stock write-behind acknowledged before writing it and the
+ * flush could not write, written in the same transaction as the rest of the flush.
+ */
+@Data
+@Builder
+@Entity(name = "wbr_write_behind_rejection")
+@AllArgsConstructor
+@NoArgsConstructor
+public class WriteBehindRejection {
+  
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE,
+      generator = "wbr_write_behind_rejection_seq")
+  @SequenceGenerator(name = "wbr_write_behind_rejection_seq",
+      sequenceName = "wbr_write_behind_rejection_seq", allocationSize = 50)
+  @Column(name = "wbr_id")
+  private Long id;
+  
+  @Column(name = "wbr_product_id", nullable = false)
+  private Long productId;
+  
+  @Column(name = "wbr_quantity", nullable = false)
+  private Integer quantity;
+  
+  @Column(name = "wbr_rejected_at", nullable = false)
+  private Instant rejectedAt;
+  
+}
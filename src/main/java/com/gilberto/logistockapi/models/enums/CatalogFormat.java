@@ -0,0 +1,28 @@
+package com.gilberto.logistockapi.models.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+
+/**
+ * Represents the format of the catalog exports and imports, one product per line in both.
+ */
+public enum CatalogFormat {
+  NDJSON("application/x-ndjson"), CSV("text/csv");
+  
+  private final String mediaType;
+  
+  CatalogFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+  
+  public String getMediaType() {
+    return mediaType;
+  }
+  
+  public static Optional<CatalogFormat> fromMediaType(MediaType mediaType) {
+    return Arrays.stream(values())
+        .filter(format -> MediaType.parseMediaType(format.mediaType).isCompatibleWith(mediaType))
+        .findFirst();
+  }
+}
@@ -0,0 +1,8 @@
+package com.gilberto.logistockapi.models.enums;
+
+/**
+ * Represents how the total number of products matching a listing is counted.
+ */
+public enum HitCount {
+    EXACT, ESTIMATED
+}
@@ -0,0 +1,8 @@
+package com.gilberto.logistockapi.models.enums;
+
+/**
+ * Represents why the stock of a product needs attention.
+ */
+public enum StockAlertType {
+    LOW_STOCK, OVERSTOCK
+}
@@ -0,0 +1,18 @@
+package com.gilberto.logistockapi.models.projections;
+
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import java.math.BigDecimal;
+
+/**
+ * Number of products, units in stock and value of the stock of one category and measure unit.
+ */
+public record InventoryAggregate(
+    Category category,
+    MeasureUnit measureUnit,
+    Long products,
+    Long units,
+    BigDecimal value
+) {
+
+}
@@ -0,0 +1,8 @@
+package com.gilberto.logistockapi.models.projections;
+
+public record ProductQuantity(
+    Long productId,
+    Long quantity
+) {
+
+}
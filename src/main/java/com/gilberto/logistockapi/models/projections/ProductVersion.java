@@ -0,0 +1,12 @@
+package com.gilberto.logistockapi.models.projections;
+
+/**
+ * Version of a product, which changes on every write to it and identifies its representation in
+ * entity tags.
+ */
+public record ProductVersion(
+    Long id,
+    Long version
+) {
+
+}
@@ -0,0 +1,32 @@
+package com.gilberto.logistockapi.models.projections;
+
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat row of a product and its supplier, read straight from the result set of the read queries
+ * without loading managed entities.
+ */
+public record ProductView(
+    Long id,
+    String name,
+    String barCode,
+    Category category,
+    BigDecimal unitPrice,
+    MeasureUnit measureUnit,
+    Integer stockQuantity,
+    Integer maxStockLevel,
+    Integer reorderPoint,
+    String description,
+    LocalDate entryDate,
+    Long supplierId,
+    String supplierName,
+    String supplierLegalDocument,
+    String supplierEmail,
+    String supplierPhone,
+    Long version
+) {
+
+}
@@ -0,0 +1,70 @@
+package com.gilberto.logistockapi.monitoring;
+
+import java.time.Duration;
+
+/**
+ * Statements, rows and database time of the request running on the current thread. Statements
+ * executed on other threads, such as the body of a streamed response, are not counted.
+ */
+public final class SqlMetrics {
+  
+  private static final ThreadLocal<SqlMetrics> CURRENT = new ThreadLocal<>();
+  
+  private long statements;
+  
+  private long rows;
+  
+  private long elapsedNanos;
+  
+  private SqlMetrics() {
+  }
+  
+  /**
+   * Starts counting on the current thread, replacing the metrics being counted.
+   */
+  public static SqlMetrics start() {
+    var metrics = new SqlMetrics();
+    CURRENT.set(metrics);
+    return metrics;
+  }
+  
+  /**
+   * Returns the metrics being counted on the current thread, or {@code null}.
+   */
+  public static SqlMetrics current() {
+    return CURRENT.get();
+  }
+  
+  public static void stop() {
+    CURRENT.remove();
+  }
+  
+  void recordStatement(long elapsedNanos, long updatedRows) {
+    this.statements++;
+    this.rows         += updatedRows;
+    this.elapsedNanos += elapsedNanos;
+  }
+  
+  void recordRow() {
+    this.rows++;
+  }
+  
+  /**
+   * Statements executed, a JDBC batch counts as one.
+   */
+  public long statements() {
+    return this.statements;
+  }
+  
+  /**
+   * Rows read plus rows changed.
+   */
+  public long rows() {
+    return this.rows;
+  }
+  
+  public Duration elapsed() {
+    return Duration.ofNanos(this.elapsedNanos);
+  }
+  
+}
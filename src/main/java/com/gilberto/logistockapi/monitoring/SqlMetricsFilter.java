@@ -0,0 +1,116 @@
+package com.gilberto.logistockapi.monitoring;
+
+import com.gilberto.logistockapi.config.SqlMetricsProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts the SQL of each request and logs the requests that exceed the statement or time
+ * budget. With headers exposed, the counts are written as headers when the body starts, since
+ * headers can no longer be added once it is written.
+ */
+@Slf4j
+public class SqlMetricsFilter extends OncePerRequestFilter {
+  
+  public static final String STATEMENTS_HEADER = "X-DB-Queries";
+  
+  public static final String ROWS_HEADER = "X-DB-Rows";
+  
+  /**
+   * Database time in milliseconds.
+   */
+  public static final String TIME_HEADER = "X-DB-Time";
+  
+  private final SqlMetricsProperties properties;
+  
+  public SqlMetricsFilter(SqlMetricsProperties properties) {
+    this.properties = properties;
+  }
+  
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    var metrics = SqlMetrics.start();
+    try {
+      if (this.properties.exposeHeaders()) {
+        var headerWritingResponse = new HeaderWritingResponse(response, metrics);
+        filterChain.doFilter(request, headerWritingResponse);
+        headerWritingResponse.writeHeaders();
+      } else {
+        filterChain.doFilter(request, response);
+      }
+    } finally {
+      SqlMetrics.stop();
+      
+      if (metrics.statements() > this.properties.statementBudget() ||
+          metrics.elapsed().compareTo(this.properties.timeBudget()) > 0) {
+        log.warn("{} {} executed {} statements over {} rows in {} ms", request.getMethod(),
+            request.getRequestURI(), metrics.statements(), metrics.rows(),
+            metrics.elapsed().toMillis());
+      }
+    }
+  }
+  
+  private static class HeaderWritingResponse extends HttpServletResponseWrapper {
+    
+    private final SqlMetrics metrics;
+    
+    private boolean headersWritten;
+    
+    HeaderWritingResponse(HttpServletResponse response, SqlMetrics metrics) {
+      super(response);
+      this.metrics = metrics;
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeaders();
+      return super.getOutputStream();
+    }
+    
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeaders();
+      return super.getWriter();
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeaders();
+      super.flushBuffer();
+    }
+    
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeaders();
+      super.sendError(sc, msg);
+    }
+    
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeaders();
+      super.sendError(sc);
+    }
+    
+    private void writeHeaders() {
+      if (this.headersWritten || isCommitted()) {
+        return;
+      }
+      this.headersWritten = true;
+      setHeader(STATEMENTS_HEADER, Long.toString(this.metrics.statements()));
+      setHeader(ROWS_HEADER, Long.toString(this.metrics.rows()));
+      setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", this.metrics.elapsed().toNanos() / 1e6));
+    }
+    
+  }
+  
+}
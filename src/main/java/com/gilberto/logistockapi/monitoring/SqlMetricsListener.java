@@ -0,0 +1,69 @@
+package com.gilberto.logistockapi.monitoring;
+
+import java.sql.ResultSet;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Adds each executed statement with its update count, and each row read through a result set, to
+ * the {@link SqlMetrics} of the current thread.
+ */
+public class SqlMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+  
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+  }
+  
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    var metrics = SqlMetrics.current();
+    if (metrics != null) {
+      metrics.recordStatement(execInfo.getElapsedTime(), updatedRows(execInfo.getResult()));
+    }
+  }
+  
+  @Override
+  public void beforeMethod(MethodExecutionContext executionContext) {
+  }
+  
+  @Override
+  public void afterMethod(MethodExecutionContext executionContext) {
+    var metrics = SqlMetrics.current();
+    if (metrics != null &&
+        executionContext.getTarget() instanceof ResultSet &&
+        Boolean.TRUE.equals(executionContext.getResult()) &&
+        "next".equals(executionContext.getMethod().getName())) {
+      metrics.recordRow();
+    }
+  }
+  
+  /**
+   * Batches report a count per statement, which drivers may replace with
+   * {@link java.sql.Statement#SUCCESS_NO_INFO}, so only positive counts are added.
+   */
+  private long updatedRows(Object result) {
+    if (result instanceof Integer count) {
+      return Math.max(count, 0);
+    }
+    if (result instanceof Long count) {
+      return Math.max(count, 0);
+    }
+    
+    var rows = 0L;
+    if (result instanceof int[] counts) {
+      for (var count : counts) {
+        rows += Math.max(count, 0);
+      }
+    } else if (result instanceof long[] counts) {
+      for (var count : counts) {
+        rows += Math.max(count, 0);
+      }
+    }
+    return rows;
+  }
+  
+}
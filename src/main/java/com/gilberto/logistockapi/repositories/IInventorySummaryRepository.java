@@ -0,0 +1,11 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.InventorySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IInventorySummaryRepository
+    extends JpaRepository<InventorySummary, InventorySummary.Key> {
+
+}
@@ -0,0 +1,19 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.Product;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface IProductBulkRepository {
+  
+  Set<String> findRegisteredBarCodes(Collection<String> barCodes);
+  
+  /**
+   * Persists the products, which Hibernate sends as JDBC batches of inserts that the PostgreSQL
+   * driver rewrites into multi-row inserts, and detaches them. Must be called inside a
+   * transaction.
+   */
+  void insertAll(List<Product> products);
+  
+}
@@ -2,26 +2,131 @@ package com.gilberto.logistockapi.repositories;
 
 import com.gilberto.logistockapi.models.entity.Product;
 import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.projections.InventoryAggregate;
+import com.gilberto.logistockapi.models.projections.ProductVersion;
+import com.gilberto.logistockapi.models.projections.ProductView;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface IProductRepository extends JpaRepository<Product, Long> {
   
+  /**
+   * Select clause of the {@link ProductView} projection, to be followed by the where clause.
+   */
+  String PRODUCT_VIEW_SELECT = "select new com.gilberto.logistockapi.models.projections" +
+      ".ProductView(product.id, product.name, product.barCode, product.category, " +
+      "   product.unitPrice, product.measureUnit, product.stockQuantity, " +
+      "   product.maxStockLevel, product.reorderPoint, product.description, " +
+      "   product.entryDate, supplier.id, supplier.name, supplier.legalDocument, " +
+      "   supplier.email, supplier.phone, product.version) " +
+      "  from pro_product as product " +
+      "  left join product.supplier as supplier ";
+  
+  @Override
+  @EntityGraph(attributePaths = "supplier")
+  Optional<Product> findById(Long id);
+  
+  @EntityGraph(attributePaths = "supplier")
   Optional<Product> findByBarCode(String barCode);
   
-  @Query("select product from pro_product as product " +
-      " where (product.category in :categories) " +
-      "   and ((:search = '' OR CAST(product.id AS text) = :search) " +
-      "     or (upper(product.barCode) like concat('%', upper(:search), '%')) " +
-      "     or (upper(product.name) like concat('%', upper(:search), '%'))) " +
-      " order by product.entryDate desc " +
-      " limit :pageSize " +
-      " offset :pageNumber")
-  List<Product> findAllByFilters(List<Category> categories, String search, int pageSize,
-                                 int pageNumber);
-  
-}
\ No newline at end of file
+  @Transactional(readOnly = true)
+  @Query(PRODUCT_VIEW_SELECT + " where product.id = :id")
+  Optional<ProductView> findViewById(Long id);
+  
+  @Transactional(readOnly = true)
+  @Query(PRODUCT_VIEW_SELECT + " where product.barCode = :barCode")
+  Optional<ProductView> findViewByBarCode(String barCode);
+  
+  @Transactional(readOnly = true)
+  @Query("select new com.gilberto.logistockapi.models.projections" +
+      ".ProductVersion(product.id, product.version) " +
+      "  from pro_product as product " +
+      " where product.id = :id")
+  Optional<ProductVersion> findVersionById(Long id);
+  
+  @Transactional(readOnly = true)
+  @Query("select new com.gilberto.logistockapi.models.projections" +
+      ".ProductVersion(product.id, product.version) " +
+      "  from pro_product as product " +
+      " where product.barCode = :barCode")
+  Optional<ProductVersion> findVersionByBarCode(String barCode);
+  
+  @Transactional(readOnly = true)
+  @Query("select product.stockQuantity from pro_product as product where product.id = :id")
+  Optional<Integer> findStockQuantityById(Long id);
+  
+  @Transactional(readOnly = true)
+  @Query("select new com.gilberto.logistockapi.models.projections" +
+      ".InventoryAggregate(product.category, product.measureUnit, count(product), " +
+      "   sum(product.stockQuantity), sum(product.unitPrice * product.stockQuantity)) " +
+      "  from pro_product as product " +
+      " where product.category = :category " +
+      " group by product.category, product.measureUnit")
+  List<InventoryAggregate> aggregateInventory(Category category);
+  
+  /**
+   * Adds the quantity to the product stock in a single conditional statement.
+   *
+   * @return the number of updated rows, zero when the product does not exist or the
+   *     resulting stock would exceed its maximum level.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update pro_product as product " +
+      "   set product.stockQuantity = product.stockQuantity + :quantity, " +
+      "       product.version = product.version + 1 " +
+      " where product.id = :id " +
+      "   and product.stockQuantity + :quantity <= product.maxStockLevel")
+  int increaseStock(Long id, Integer quantity);
+  
+  /**
+   * Same as {@link #increaseStock(Long, Integer)}, only when the product is at the given version.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update pro_product as product " +
+      "   set product.stockQuantity = product.stockQuantity + :quantity, " +
+      "       product.version = product.version + 1 " +
+      " where product.id = :id " +
+      "   and product.version = :version " +
+      "   and product.stockQuantity + :quantity <= product.maxStockLevel")
+  int increaseStock(Long id, Integer quantity, Long version);
+  
+  /**
+   * Subtracts the quantity from the product stock in a single conditional statement, leaving at
+   * least the reserved quantity in stock.
+   *
+   * @return the number of updated rows, zero when the product does not exist or the
+   *     resulting stock would be under the reserved quantity.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update pro_product as product " +
+      "   set product.stockQuantity = product.stockQuantity - :quantity, " +
+      "       product.version = product.version + 1 " +
+      " where product.id = :id " +
+      "   and product.stockQuantity - :quantity >= :reservedQuantity")
+  int decreaseStock(Long id, Integer quantity, Integer reservedQuantity);
+  
+  /**
+   * Same as {@link #decreaseStock(Long, Integer, Integer)}, only when the product is at the given
+   * version.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update pro_product as product " +
+      "   set product.stockQuantity = product.stockQuantity - :quantity, " +
+      "       product.version = product.version + 1 " +
+      " where product.id = :id " +
+      "   and product.version = :version " +
+      "   and product.stockQuantity - :quantity >= :reservedQuantity")
+  int decreaseStock(Long id, Integer quantity, Integer reservedQuantity, Long version);
+  
+}
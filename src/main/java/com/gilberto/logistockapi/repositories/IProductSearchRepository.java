@@ -0,0 +1,56 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.dto.request.ProductCursor;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.models.enums.Category;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+public interface IProductSearchRepository {
+  
+  /**
+   * Lists the products matching the criteria ordered by entry date and id, both descending. The
+   * query only carries the predicates the criteria actually use, so each combination gets a plan
+   * that can use its indexes.
+   */
+  List<ProductView> search(ProductSearchCriteria criteria);
+  
+  /**
+   * Streams every product matching the categories and the search in the same order as
+   * {@link #search}, fetching the given number of rows per round trip. Must be consumed and closed
+   * inside a transaction.
+   */
+  Stream<ProductView> stream(List<Category> categories, String search, int fetchSize);
+  
+  /**
+   * Counts the products matching the search in each category with a single grouped query, so
+   * the search is evaluated once for every category. Categories without any match are left out.
+   */
+  Map<Category, Long> countByCategory(String search);
+  
+  /**
+   * Estimates the number of products matching the categories and the search from the row
+   * estimate of the query plan, which reads the planner statistics instead of the products.
+   *
+   * @return the estimate, empty when the database does not report row estimates in its plans.
+   */
+  OptionalLong estimateCount(List<Category> categories, String search);
+  
+  /**
+   * @param search term matched against the id, or as a substring of the barcode and the name,
+   *     blank to match every product.
+   * @param after  position to seek past, {@code null} to start from the offset.
+   */
+  record ProductSearchCriteria(
+      List<Category> categories,
+      String search,
+      ProductCursor after,
+      int offset,
+      int limit
+  ) {
+  
+  }
+  
+}
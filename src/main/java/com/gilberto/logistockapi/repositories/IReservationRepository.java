@@ -0,0 +1,10 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IReservationRepository extends JpaRepository<Reservation, Long> {
+
+}
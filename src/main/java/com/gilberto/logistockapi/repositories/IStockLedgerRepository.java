@@ -0,0 +1,66 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.StockMovement;
+import com.gilberto.logistockapi.models.projections.ProductQuantity;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IStockLedgerRepository extends JpaRepository<StockMovement, Long> {
+  
+  @Transactional(readOnly = true)
+  boolean existsByProductId(Long productId);
+  
+  @Transactional(readOnly = true)
+  @Query("select movement " +
+      "  from stm_stock_movement as movement " +
+      " where movement.productId = :productId " +
+      "   and movement.createdAt >= :from " +
+      "   and movement.createdAt < :to " +
+      " order by movement.createdAt, movement.id")
+  List<StockMovement> findMovements(Long productId, Instant from, Instant to, Pageable pageable);
+  
+  /**
+   * Movements of the period after the given creation time and id, in the same order.
+   */
+  @Transactional(readOnly = true)
+  @Query("select movement " +
+      "  from stm_stock_movement as movement " +
+      " where movement.productId = :productId " +
+      "   and (movement.createdAt > :afterCreatedAt " +
+      "        or (movement.createdAt = :afterCreatedAt and movement.id > :afterId)) " +
+      "   and movement.createdAt >= :from " +
+      "   and movement.createdAt < :to " +
+      " order by movement.createdAt, movement.id")
+  List<StockMovement> findMovementsAfter(Long productId, Instant afterCreatedAt, Long afterId,
+                                         Instant from, Instant to, Pageable pageable);
+  
+  /**
+   * Net quantity moved for the product after {@code from} and up to {@code to}.
+   */
+  @Transactional(readOnly = true)
+  @Query("select coalesce(sum(movement.quantity), 0) " +
+      "  from stm_stock_movement as movement " +
+      " where movement.productId = :productId " +
+      "   and movement.createdAt > :from " +
+      "   and movement.createdAt <= :to")
+  long sumQuantity(Long productId, Instant from, Instant to);
+  
+  /**
+   * Net quantity moved for each product moved after {@code from} and up to {@code to}.
+   */
+  @Transactional(readOnly = true)
+  @Query("select new com.gilberto.logistockapi.models.projections" +
+      ".ProductQuantity(movement.productId, sum(movement.quantity)) " +
+      "  from stm_stock_movement as movement " +
+      " where movement.createdAt > :from " +
+      "   and movement.createdAt <= :to " +
+      " group by movement.productId")
+  List<ProductQuantity> sumQuantitiesByProduct(Instant from, Instant to);
+  
+}
@@ -0,0 +1,43 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface IStockMovementRepository {
+  
+  /**
+   * Applies every movement as one JDBC batch of conditional updates.
+   *
+   * @return the number of updated rows for each movement, in the same order, zero when the
+   *     product does not exist or the movement would leave its stock out of bounds, the lower
+   *     bound being the quantity reserved of the product.
+   */
+  int[] applyStockMovements(List<StockMovementForm> movements);
+  
+  List<ProductStockLevel> findStockLevels(List<StockMovementForm> movements);
+  
+  /**
+   * Streams the stock levels of the products under their reorder point or at the given ratio of
+   * their maximum level, to be closed by the caller inside a transaction.
+   */
+  Stream<ProductStockLevel> streamAlertingStockLevels(double overstockRatio);
+  
+  record ProductStockLevel(
+      Long id,
+      String barCode,
+      Category category,
+      MeasureUnit measureUnit,
+      BigDecimal unitPrice,
+      Integer stockQuantity,
+      Integer maxStockLevel,
+      Integer reorderPoint,
+      Long version
+  ) {
+  
+  }
+  
+}
@@ -0,0 +1,36 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.StockSnapshot;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IStockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+  
+  @Transactional(readOnly = true)
+  Optional<StockSnapshot> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+      Long productId, Instant takenAt);
+  
+  @Transactional(readOnly = true)
+  @Query("select max(snapshot.takenAt) from sts_stock_snapshot as snapshot")
+  Optional<Instant> findLatestTakenAt();
+  
+  /**
+   * Latest snapshot of each of the products that has one.
+   */
+  @Transactional(readOnly = true)
+  @Query("select snapshot " +
+      "  from sts_stock_snapshot as snapshot " +
+      " where snapshot.productId in :productIds " +
+      "   and snapshot.takenAt = (select max(latest.takenAt) " +
+      "                             from sts_stock_snapshot as latest " +
+      "                            where latest.productId = snapshot.productId)")
+  List<StockSnapshot> findLatestByProductIds(Collection<Long> productIds);
+  
+}
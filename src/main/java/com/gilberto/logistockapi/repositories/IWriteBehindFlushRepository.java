@@ -0,0 +1,10 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.WriteBehindFlush;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IWriteBehindFlushRepository extends JpaRepository<WriteBehindFlush, String> {
+
+}
@@ -0,0 +1,14 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.WriteBehindRejection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IWriteBehindRejectionRepository
+    extends JpaRepository<WriteBehindRejection, Long> {
+  
+  List<WriteBehindRejection> findByProductId(Long productId);
+  
+}
@@ -0,0 +1,57 @@
+package com.gilberto.logistockapi.repositories.implementations;
+
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.repositories.IProductBulkRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class ProductBulkRepository implements IProductBulkRepository {
+  
+  private static final String FIND_REGISTERED_BAR_CODES_SQL = "select pro_barcode " +
+      "  from pro_product " +
+      " where pro_barcode in (:barCodes)";
+  
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  
+  @PersistenceContext
+  private EntityManager entityManager;
+  
+  public ProductBulkRepository(@Autowired NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+  
+  @Override
+  public Set<String> findRegisteredBarCodes(Collection<String> barCodes) {
+    if (barCodes.isEmpty()) {
+      return Set.of();
+    }
+    
+    return new HashSet<>(this.jdbcTemplate.queryForList(FIND_REGISTERED_BAR_CODES_SQL,
+        new MapSqlParameterSource("barCodes", barCodes), String.class));
+  }
+  
+  @Override
+  public void insertAll(List<Product> products) {
+    for (var product : products) {
+      if (product.getSupplier() != null) {
+        product.setSupplier(this.entityManager.getReference(Supplier.class,
+            product.getSupplier().getId()));
+      }
+      this.entityManager.persist(product);
+    }
+    
+    this.entityManager.flush();
+    this.entityManager.clear();
+  }
+  
+}
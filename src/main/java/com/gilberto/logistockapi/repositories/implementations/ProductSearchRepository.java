@@ -0,0 +1,181 @@
+package com.gilberto.logistockapi.repositories.implementations;
+
+import com.gilberto.logistockapi.models.dto.request.ProductCursor;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class ProductSearchRepository implements IProductSearchRepository {
+  
+  private static final String LIKE_ESCAPE = "\\";
+  
+  /**
+   * Row estimate of the top node of a PostgreSQL plan, as in {@code (cost=0.00..1.00 rows=42 ...)}.
+   */
+  private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+  
+  @PersistenceContext
+  private EntityManager entityManager;
+  
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  
+  public ProductSearchRepository(@Autowired NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+  
+  @Override
+  @Transactional(readOnly = true)
+  public List<ProductView> search(ProductSearchCriteria criteria) {
+    return createQuery(criteria.categories(), criteria.search(), criteria.after())
+        .setFirstResult(criteria.offset())
+        .setMaxResults(criteria.limit())
+        .getResultList();
+  }
+  
+  @Override
+  public Stream<ProductView> stream(List<Category> categories, String search, int fetchSize) {
+    return createQuery(categories, search, null)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream();
+  }
+  
+  @Override
+  @Transactional(readOnly = true)
+  public Map<Category, Long> countByCategory(String search) {
+    var jpql       = new StringBuilder("select product.category, count(product) " +
+        "  from pro_product as product ");
+    var parameters = new HashMap<String, Object>();
+    
+    var predicate = searchPredicate(search, parameters);
+    if (predicate != null) {
+      jpql.append(" where ").append(predicate);
+    }
+    
+    jpql.append(" group by product.category");
+    
+    var query = this.entityManager.createQuery(jpql.toString(), Object[].class);
+    parameters.forEach(query::setParameter);
+    
+    var counts = new EnumMap<Category, Long>(Category.class);
+    for (var row : query.getResultList()) {
+      counts.put((Category) row[0], (Long) row[1]);
+    }
+    return counts;
+  }
+  
+  @Override
+  public OptionalLong estimateCount(List<Category> categories, String search) {
+    if (categories.isEmpty()) {
+      return OptionalLong.of(0);
+    }
+    
+    var sql        = new StringBuilder("explain select pro_id " +
+        "  from pro_product " +
+        " where pro_category in (:categories) ");
+    var parameters = new HashMap<String, Object>();
+    parameters.put("categories", categories.stream().map(Category::name).toList());
+    
+    if (StringUtils.isNotBlank(search)) {
+      sql.append("   and (upper(pro_barcode) like :pattern escape '" + LIKE_ESCAPE + "' " +
+          "     or upper(pro_name) like :pattern escape '" + LIKE_ESCAPE + "' ");
+      parameters.put("pattern", likePattern(search));
+      
+      if (isIdSearch(search)) {
+        sql.append("     or pro_id = :id ");
+        parameters.put("id", Long.valueOf(search));
+      }
+      
+      sql.append("   ) ");
+    }
+    
+    var plan = this.jdbcTemplate.queryForList(sql.toString(), parameters, String.class);
+    var rows = PLAN_ROWS.matcher(plan.isEmpty() ? "" : plan.get(0));
+    return rows.find() ? OptionalLong.of(Long.parseLong(rows.group(1))) : OptionalLong.empty();
+  }
+  
+  private TypedQuery<ProductView> createQuery(List<Category> categories, String search,
+                                              ProductCursor after) {
+    var jpql       = new StringBuilder(IProductRepository.PRODUCT_VIEW_SELECT +
+        " where product.category in :categories ");
+    var parameters = new HashMap<String, Object>();
+    parameters.put("categories", categories);
+    
+    var predicate = searchPredicate(search, parameters);
+    if (predicate != null) {
+      jpql.append("   and ").append(predicate);
+    }
+    
+    if (after != null) {
+      jpql.append("   and (product.entryDate < :entryDate " +
+          "     or (product.entryDate = :entryDate and product.id < :lastId)) ");
+      parameters.put("entryDate", after.entryDate());
+      parameters.put("lastId", after.id());
+    }
+    
+    jpql.append(" order by product.entryDate desc, product.id desc");
+    
+    var query = this.entityManager.createQuery(jpql.toString(), ProductView.class);
+    parameters.forEach(query::setParameter);
+    return query;
+  }
+  
+  /**
+   * Matches the term as a substring of the upper cased barcode and name, which the trigram
+   * indexes of both expressions can serve, and as an id only when it is numeric so the primary
+   * key is used instead of casting every id to text.
+   *
+   * @return the predicate, {@code null} when the search is blank.
+   */
+  private String searchPredicate(String search, HashMap<String, Object> parameters) {
+    if (StringUtils.isBlank(search)) {
+      return null;
+    }
+    
+    var predicate = new StringBuilder("(upper(product.barCode) like :pattern escape '" +
+        LIKE_ESCAPE + "' " +
+        "     or upper(product.name) like :pattern escape '" + LIKE_ESCAPE + "' ");
+    parameters.put("pattern", likePattern(search));
+    
+    if (isIdSearch(search)) {
+      predicate.append("     or product.id = :id ");
+      parameters.put("id", Long.valueOf(search));
+    }
+    
+    return predicate.append("   ) ").toString();
+  }
+  
+  private boolean isIdSearch(String search) {
+    return StringUtils.isNumeric(search) && search.length() < 19;
+  }
+  
+  private String likePattern(String search) {
+    return "%" + escapeLike(search.toUpperCase(Locale.ROOT)) + "%";
+  }
+  
+  private String escapeLike(String value) {
+    return value.replace(LIKE_ESCAPE, LIKE_ESCAPE + LIKE_ESCAPE)
+        .replace("%", LIKE_ESCAPE + "%")
+        .replace("_", LIKE_ESCAPE + "_");
+  }
+  
+}
@@ -0,0 +1,114 @@
+package com.gilberto.logistockapi.repositories.implementations;
+
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class StockMovementRepository implements IStockMovementRepository {
+  
+  // A decrease must leave at least the quantity held by the active reservations of the product.
+  // The bounds are checked in bigint, so a movement that would overflow the stock is only
+  // rejected instead of failing the batch.
+  private static final String APPLY_MOVEMENT_SQL = "update pro_product " +
+      "   set pro_stock_quantity = pro_stock_quantity + ?, " +
+      "       pro_version = pro_version + 1 " +
+      " where (pro_id = ? or pro_barcode = ?) " +
+      "   and cast(pro_stock_quantity as bigint) + ? >= " +
+      "       (select coalesce(sum(res_quantity), 0) " +
+      "          from res_reservation " +
+      "         where res_product_id = pro_id) " +
+      "   and cast(pro_stock_quantity as bigint) + ? <= pro_max_stock_level";
+  
+  private static final String STOCK_LEVEL_COLUMNS = "pro_id, pro_barcode, pro_category, " +
+      "       pro_measure_unit, pro_unit_price, pro_stock_quantity, pro_max_stock_level, " +
+      "       pro_reorder_point, pro_version ";
+  
+  private static final String FIND_STOCK_LEVELS_SQL = "select " + STOCK_LEVEL_COLUMNS +
+      "  from pro_product " +
+      " where pro_id in (:ids) " +
+      "    or pro_barcode in (:barCodes)";
+  
+  private static final String FIND_ALERTING_STOCK_LEVELS_SQL = "select " + STOCK_LEVEL_COLUMNS +
+      "  from pro_product " +
+      " where pro_stock_quantity <= pro_reorder_point " +
+      "    or pro_stock_quantity >= pro_max_stock_level * :overstockRatio";
+  
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  
+  public StockMovementRepository(@Autowired NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+  
+  @Override
+  public int[] applyStockMovements(List<StockMovementForm> movements) {
+    var arguments = movements.stream()
+        .map(movement -> new Object[]{
+            movement.quantity(),
+            movement.id(),
+            movement.id() == null ? movement.barCode() : null,
+            movement.quantity(),
+            movement.quantity()
+        })
+        .toList();
+    
+    return this.jdbcTemplate.getJdbcTemplate().batchUpdate(APPLY_MOVEMENT_SQL, arguments);
+  }
+  
+  @Override
+  public List<ProductStockLevel> findStockLevels(List<StockMovementForm> movements) {
+    var ids = movements.stream()
+        .map(StockMovementForm::id)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+    var barCodes = movements.stream()
+        .filter(movement -> movement.id() == null)
+        .map(StockMovementForm::barCode)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+    
+    if (ids.isEmpty() && barCodes.isEmpty()) {
+      return List.of();
+    }
+    
+    // An empty "in" list is not valid SQL, so an impossible value keeps the query well formed.
+    var parameters = new MapSqlParameterSource()
+        .addValue("ids", ids.isEmpty() ? List.of(-1L) : ids)
+        .addValue("barCodes", barCodes.isEmpty() ? List.of("") : barCodes);
+    
+    return this.jdbcTemplate.query(FIND_STOCK_LEVELS_SQL, parameters, this::toStockLevel);
+  }
+  
+  @Override
+  public Stream<ProductStockLevel> streamAlertingStockLevels(double overstockRatio) {
+    return this.jdbcTemplate.queryForStream(FIND_ALERTING_STOCK_LEVELS_SQL,
+        new MapSqlParameterSource("overstockRatio", overstockRatio), this::toStockLevel);
+  }
+  
+  private ProductStockLevel toStockLevel(ResultSet resultSet, int rowNumber) throws SQLException {
+    return new ProductStockLevel(
+        resultSet.getLong("pro_id"),
+        resultSet.getString("pro_barcode"),
+        Category.valueOf(resultSet.getString("pro_category")),
+        MeasureUnit.valueOf(resultSet.getString("pro_measure_unit")),
+        resultSet.getBigDecimal("pro_unit_price"),
+        resultSet.getInt("pro_stock_quantity"),
+        resultSet.getInt("pro_max_stock_level"),
+        resultSet.getInt("pro_reorder_point"),
+        resultSet.getLong("pro_version")
+    );
+  }
+  
+}
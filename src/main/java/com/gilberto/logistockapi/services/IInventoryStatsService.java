@@ -0,0 +1,31 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.response.InventoryStatsDTO;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+
+public interface IInventoryStatsService {
+  
+  /**
+   * Adds a created product, with its stock, to the aggregates.
+   */
+  void add(ProductStockLevel product);
+  
+  /**
+   * Removes a deleted product, with its stock, from the aggregates. An updated product is
+   * removed as it was and added as it is.
+   */
+  void remove(ProductStockLevel product);
+  
+  /**
+   * Adds a movement applied to the stock of the product to the aggregates.
+   */
+  void recordMovement(ProductStockLevel product, int quantity);
+  
+  InventoryStatsDTO stats();
+  
+  /**
+   * Writes the aggregates to the summary table.
+   */
+  void persist();
+  
+}
@@ -0,0 +1,14 @@
+package com.gilberto.logistockapi.services;
+
+public interface IOptimisticRetryService {
+  
+  /**
+   * Records that the given attempt of an operation lost an optimistic locking race and waits
+   * before the next attempt.
+   *
+   * @return whether the operation should be attempted again, {@code false} without waiting when
+   *     it has no attempts left.
+   */
+  boolean backoff(String operation, int attempt);
+  
+}
@@ -0,0 +1,33 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.response.ProductCacheStatsDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import java.util.Optional;
+import java.util.function.Function;
+
+public interface IProductCacheService {
+  
+  /**
+   * Returns the cached product or loads it with the given loader and caches it. Products that are
+   * not found are not cached.
+   */
+  Optional<ProductDTO> findById(Long id, Function<Long, Optional<ProductDTO>> loader);
+  
+  Optional<ProductDTO> findByBarCode(String barCode,
+                                     Function<String, Optional<ProductDTO>> loader);
+  
+  /**
+   * Returns the product if it is cached, without loading it.
+   */
+  Optional<ProductDTO> findCached(Long id);
+  
+  Optional<ProductDTO> findCachedByBarCode(String barCode);
+  
+  /**
+   * Drops the product, must be called after every change to it has been written.
+   */
+  void evict(Long id);
+  
+  ProductCacheStatsDTO stats();
+  
+}
@@ -0,0 +1,15 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.request.ProductExportFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IProductExportService {
+  
+  /**
+   * Writes every product matching the filter to the stream as it is read from the database, so
+   * the memory used does not grow with the size of the catalog. The stream is not closed.
+   */
+  void export(ProductExportFilter filter, OutputStream outputStream) throws IOException;
+  
+}
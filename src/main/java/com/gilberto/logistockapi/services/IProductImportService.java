@@ -0,0 +1,18 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.response.ProductImportResultDTO;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IProductImportService {
+  
+  /**
+   * Creates the products of the stream as it is read, validating each row as the product
+   * creation does. Rows that are invalid, repeat a barcode or are already registered are
+   * reported and skipped, the others are imported.
+   */
+  ProductImportResultDTO importProducts(CatalogFormat format, InputStream inputStream)
+      throws IOException;
+  
+}
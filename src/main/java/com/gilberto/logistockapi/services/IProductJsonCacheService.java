@@ -0,0 +1,25 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface IProductJsonCacheService {
+  
+  /**
+   * Returns the product encoded as UTF-8 JSON, reusing the bytes encoded for an equal product.
+   */
+  byte[] toJson(ProductDTO product);
+  
+  /**
+   * Writes the products as a JSON array made of the encoded products.
+   */
+  void writeJson(List<ProductDTO> products, OutputStream outputStream) throws IOException;
+  
+  /**
+   * Drops the encoded product, must be called after every change to it has been written.
+   */
+  void evict(Long id);
+  
+}
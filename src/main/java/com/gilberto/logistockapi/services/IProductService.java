@@ -1,34 +1,81 @@
 package com.gilberto.logistockapi.services;
 
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
 import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
 import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
 import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
 import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
 import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
 import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductPageDTO;
+import com.gilberto.logistockapi.models.dto.response.StockAvailabilityDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementResultDTO;
+import com.gilberto.logistockapi.models.projections.ProductVersion;
 import java.util.List;
 
 public interface IProductService {
   
   ProductDTO create(ProductForm productForm) throws ProductAlreadyRegisteredException;
   
-  List<ProductDTO> listAll(ProductFilter filter);
+  ProductPageDTO listAll(ProductFilter filter) throws InvalidCursorException;
   
   ProductDTO findById(Long id) throws ProductNotFoundException;
   
   ProductDTO findByBarCode(String barCode) throws ProductNotFoundException;
   
-  void delete(Long id) throws ProductNotFoundException;
+  /**
+   * Returns the version of the product from the cached product or, when it is not cached, from
+   * a query of the version alone.
+   */
+  ProductVersion findVersionById(Long id) throws ProductNotFoundException;
   
-  ProductDTO updateById(Long id, ProductUpdateForm updateForm) throws ProductNotFoundException;
+  ProductVersion findVersionByBarCode(String barCode) throws ProductNotFoundException;
   
-  ProductDTO increaseStock(Long id, QuantityForm quantity)
-      throws ProductNotFoundException, ProductStockExceededException;
+  /**
+   * Deletes the product, retrying when it is changed concurrently.
+   */
+  void delete(Long id) throws ProductNotFoundException, ProductConflictException;
   
-  ProductDTO decreaseStock(Long id, QuantityForm quantity)
-      throws ProductNotFoundException, ProductStockUnderThanZeroException;
+  /**
+   * Updates the product only when it is at the expected version, unless that is {@code null}.
+   * Unconditional updates are retried when the product is changed concurrently.
+   */
+  ProductDTO updateById(Long id, ProductUpdateForm updateForm, Long expectedVersion)
+      throws ProductNotFoundException, ProductVersionMismatchException,
+      ProductConflictException;
+  
+  /**
+   * Increases the stock only when the product is at the expected version, unless that is
+   * {@code null}. Conditional movements bypass the write-behind accumulators.
+   */
+  ProductDTO increaseStock(Long id, QuantityForm quantity, Long expectedVersion)
+      throws ProductNotFoundException, ProductStockExceededException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException;
+  
+  /**
+   * Decreases the stock, never below the quantity held by the reservations of the product.
+   */
+  ProductDTO decreaseStock(Long id, QuantityForm quantity, Long expectedVersion)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException;
+  
+  /**
+   * Decreases the stock by the quantity of the reservation, which then ends.
+   */
+  ProductDTO commitReservation(Long reservationId)
+      throws ReservationNotFoundException, ProductNotFoundException,
+      ProductStockUnderThanZeroException;
+  
+  StockAvailabilityDTO findAvailabilityById(Long id) throws ProductNotFoundException;
+  
+  List<StockMovementResultDTO> applyStockMovements(StockMovementsForm movementsForm);
   
 }
@@ -0,0 +1,19 @@
+package com.gilberto.logistockapi.services;
+
+public interface IReadYourWritesService {
+  
+  /**
+   * Records that the product was just written, so it is read from the primary for the
+   * read-your-writes window, until the replicas can be trusted to have it.
+   */
+  void recordWrite(Long productId);
+  
+  boolean isRecentlyWritten(Long productId);
+  
+  /**
+   * Tells whether any product was written in the read-your-writes window, for the reads that
+   * cannot tell which products they return before running.
+   */
+  boolean hasRecentWrites();
+  
+}
@@ -0,0 +1,24 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.models.dto.response.StockAlertDTO;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import java.util.List;
+
+public interface IStockAlertService {
+  
+  /**
+   * Adds the product to the alerts or removes it from them according to its new stock level,
+   * unless the alerts already hold a newer version of the product.
+   */
+  void evaluate(ProductStockLevel stockLevel);
+  
+  void remove(Long productId);
+  
+  /**
+   * Lists the products in alert, ordered by id, only those of the given type when it is not
+   * {@code null}.
+   */
+  List<StockAlertDTO> listAll(StockAlertType type);
+  
+}
@@ -0,0 +1,46 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.StockMovementFilter;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.response.StockLevelDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementPageDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+public interface IStockLedgerService {
+  
+  /**
+   * Runs the stock update and, when it updated the product, records the movement in the same
+   * transaction.
+   *
+   * @return the number of rows updated by the stock update.
+   */
+  int apply(Long productId, int quantity, IntSupplier stockUpdate);
+  
+  /**
+   * Records movements already applied to the products they identify by id, as one batch in the
+   * transaction that applied them.
+   */
+  void recordAll(List<StockMovementForm> movements);
+  
+  /**
+   * Lists a page of the movements of the product in the period of the filter, oldest first.
+   */
+  StockMovementPageDTO findMovements(Long productId, StockMovementFilter filter)
+      throws ProductNotFoundException, InvalidCursorException;
+  
+  /**
+   * Computes the stock of the product at the given moment, or now when it is {@code null}, from
+   * the latest snapshot before it and the movements since that snapshot.
+   */
+  StockLevelDTO findStockAt(Long productId, Instant at) throws ProductNotFoundException;
+  
+  /**
+   * Takes a snapshot of every product moved since the previous snapshots.
+   */
+  void takeSnapshots();
+  
+}
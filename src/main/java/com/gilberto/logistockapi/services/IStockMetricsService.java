@@ -0,0 +1,19 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.HttpException;
+
+public interface IStockMetricsService {
+  
+  /**
+   * Counts a movement that changed the stock, increases have a positive quantity and decreases a
+   * negative one.
+   */
+  void recordApplied(int quantity);
+  
+  /**
+   * Counts a movement rejected with the given exception because it would leave the stock out of
+   * bounds.
+   */
+  void recordRejected(int quantity, HttpException exception);
+  
+}
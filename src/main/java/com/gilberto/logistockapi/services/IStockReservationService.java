@@ -0,0 +1,56 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.models.dto.response.ReservationDTO;
+
+public interface IStockReservationService {
+  
+  /**
+   * Holds the quantity of the product until the reservation is committed, released or expires.
+   *
+   * @throws ProductStockUnderThanZeroException when the stock not yet reserved is less than the
+   *     quantity.
+   */
+  ReservationDTO reserve(ReservationForm reservationForm)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException;
+  
+  ReservationDTO findById(Long reservationId) throws ReservationNotFoundException;
+  
+  void release(Long reservationId) throws ReservationNotFoundException;
+  
+  /**
+   * Ends the reservation by applying the stock update, which receives the quantity still
+   * reserved by the other reservations of the product. The reservation is kept when no row was
+   * updated.
+   *
+   * @return the number of rows updated by the stock update.
+   */
+  int commit(Long reservationId, StockUpdate stockUpdate) throws ReservationNotFoundException;
+  
+  /**
+   * Applies a stock update that must not take reserved stock, no reservation of the product can
+   * be made while it runs.
+   *
+   * @return the number of rows updated by the stock update.
+   */
+  int updateUnreserved(Long productId, StockUpdate stockUpdate);
+  
+  int reservedQuantity(Long productId);
+  
+  /**
+   * Conditional update of the stock of a product.
+   */
+  @FunctionalInterface
+  interface StockUpdate {
+    
+    /**
+     * @return the number of updated rows.
+     */
+    int apply(int reservedQuantity);
+    
+  }
+  
+}
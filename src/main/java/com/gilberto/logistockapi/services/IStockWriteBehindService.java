@@ -0,0 +1,40 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+
+public interface IStockWriteBehindService {
+  
+  boolean isEnabled();
+  
+  /**
+   * Accumulates the movement. When movements are acknowledged after the flush, a movement whose
+   * flush could not write it, because the stock was changed through another path, is rejected
+   * with a {@link ProductConflictException}, and one whose flush does not end within the
+   * acknowledgement timeout with a {@link StockWriteTimeoutException}.
+   */
+  ProductDTO increaseStock(Long id, Integer quantity)
+      throws ProductNotFoundException, ProductStockExceededException, ProductConflictException,
+      StockWriteTimeoutException;
+  
+  ProductDTO decreaseStock(Long id, Integer quantity)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException,
+      ProductConflictException, StockWriteTimeoutException;
+  
+  /**
+   * Writes every accumulated movement to the database.
+   */
+  void flush();
+  
+  /**
+   * Writes the accumulated movements and drops the cached state of the product, so the next
+   * movement reloads it from the database. Must be called before the product is changed through
+   * any other path.
+   */
+  void evict(Long id);
+  
+}
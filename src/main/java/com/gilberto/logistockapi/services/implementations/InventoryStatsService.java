@@ -0,0 +1,250 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.InventoryStatsProperties;
+import com.gilberto.logistockapi.models.dto.response.InventoryAggregateDTO;
+import com.gilberto.logistockapi.models.dto.response.InventoryStatsDTO;
+import com.gilberto.logistockapi.models.entity.InventorySummary;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.models.projections.InventoryAggregate;
+import com.gilberto.logistockapi.repositories.IInventorySummaryRepository;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the number of products, units in stock and stock value of each category and measure
+ * unit in memory, updated by every change of a product or its stock, so the statistics are read
+ * from a fixed number of cells whatever the size of the catalog. The cells are written to the
+ * summary table in the background rather than with each change, which would make every stock
+ * movement of a category contend for the same row. They are rebuilt from the catalog at startup,
+ * so changes made since the last write are never lost. Like the reservations, this assumes it is
+ * the only instance changing the catalog.
+ */
+@Slf4j
+@Service
+public class InventoryStatsService implements IInventoryStatsService,
+    SmartInitializingSingleton {
+
+  private final InventoryStatsProperties properties;
+
+  private final IProductRepository productRepository;
+
+  private final IInventorySummaryRepository inventorySummaryRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Cell[][] cells = new Cell[Category.values().length][MeasureUnit.values().length];
+
+  private final AtomicBoolean dirty = new AtomicBoolean();
+
+  private ScheduledExecutorService scheduler;
+
+  public InventoryStatsService(@Autowired InventoryStatsProperties properties,
+                               @Autowired IProductRepository productRepository,
+                               @Autowired IInventorySummaryRepository inventorySummaryRepository,
+                               @Autowired PlatformTransactionManager transactionManager) {
+    this.properties                 = properties;
+    this.productRepository          = productRepository;
+    this.inventorySummaryRepository = inventorySummaryRepository;
+    this.transactionTemplate        = new TransactionTemplate(transactionManager);
+    for (var category : Category.values()) {
+      for (var measureUnit : MeasureUnit.values()) {
+        this.cells[category.ordinal()][measureUnit.ordinal()] = new Cell();
+      }
+    }
+  }
+
+  /**
+   * Starts once every bean is created rather than in a {@code PostConstruct}, because the
+   * rebuild threads need the repository beans while the creation of this one would hold the
+   * singleton lock, and still before the web server accepts requests.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    start();
+  }
+
+  public void start() {
+    rebuild();
+    persist();
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "inventory-stats-persist");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var interval = this.properties.persistInterval().toMillis();
+    this.scheduler.scheduleWithFixedDelay(this::scheduledPersist, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    this.scheduler.shutdown();
+    scheduledPersist();
+  }
+
+  @Override
+  public void add(ProductStockLevel product) {
+    cellOf(product).add(1, product.stockQuantity(), valueOf(product, product.stockQuantity()));
+    this.dirty.set(true);
+  }
+
+  @Override
+  public void remove(ProductStockLevel product) {
+    cellOf(product).add(-1, -product.stockQuantity(), valueOf(product, -product.stockQuantity()));
+    this.dirty.set(true);
+  }
+
+  @Override
+  public void recordMovement(ProductStockLevel product, int quantity) {
+    cellOf(product).add(0, quantity, valueOf(product, quantity));
+    this.dirty.set(true);
+  }
+
+  @Override
+  public InventoryStatsDTO stats() {
+    var total         = new Cell();
+    var byCategory    = new EnumMap<Category, Cell>(Category.class);
+    var byMeasureUnit = new EnumMap<MeasureUnit, Cell>(MeasureUnit.class);
+    for (var category : Category.values()) {
+      for (var measureUnit : MeasureUnit.values()) {
+        var cell = this.cells[category.ordinal()][measureUnit.ordinal()].copy();
+        total.add(cell);
+        byCategory.computeIfAbsent(category, key -> new Cell()).add(cell);
+        byMeasureUnit.computeIfAbsent(measureUnit, key -> new Cell()).add(cell);
+      }
+    }
+
+    var categories = new EnumMap<Category, InventoryAggregateDTO>(Category.class);
+    byCategory.forEach((category, cell) -> categories.put(category, cell.toDTO()));
+    var measureUnits = new EnumMap<MeasureUnit, InventoryAggregateDTO>(MeasureUnit.class);
+    byMeasureUnit.forEach((measureUnit, cell) -> measureUnits.put(measureUnit, cell.toDTO()));
+
+    return new InventoryStatsDTO(total.toDTO(), categories, measureUnits);
+  }
+
+  @Override
+  public void persist() {
+    this.dirty.set(false);
+
+    var updatedAt = Instant.now();
+    var summaries = new ArrayList<InventorySummary>(Category.values().length
+        * MeasureUnit.values().length);
+    for (var category : Category.values()) {
+      for (var measureUnit : MeasureUnit.values()) {
+        var cell = this.cells[category.ordinal()][measureUnit.ordinal()].copy();
+        summaries.add(InventorySummary.builder()
+            .key(new InventorySummary.Key(category, measureUnit))
+            .products(cell.products)
+            .units(cell.units)
+            .value(cell.value)
+            .updatedAt(updatedAt)
+            .build());
+      }
+    }
+    this.transactionTemplate.executeWithoutResult(status ->
+        this.inventorySummaryRepository.saveAll(summaries));
+  }
+
+  /**
+   * Aggregates each category with its own query, so they scan the catalog in parallel.
+   */
+  private void rebuild() {
+    var categories = Category.values();
+    var executor   = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(this.properties.rebuildParallelism(), categories.length)));
+    try {
+      var aggregates = Arrays.stream(categories)
+          .map(category -> CompletableFuture.supplyAsync(() ->
+              this.productRepository.aggregateInventory(category), executor))
+          .toList();
+
+      for (var future : aggregates) {
+        for (var aggregate : future.join()) {
+          this.cells[aggregate.category().ordinal()][aggregate.measureUnit().ordinal()]
+              .reset(aggregate);
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    log.info("Rebuilt the inventory aggregates of {} categories", categories.length);
+  }
+
+  private void scheduledPersist() {
+    if (!this.dirty.get()) {
+      return;
+    }
+
+    try {
+      persist();
+    } catch (RuntimeException exception) {
+      this.dirty.set(true);
+      log.error("Could not persist the inventory aggregates", exception);
+    }
+  }
+
+  private Cell cellOf(ProductStockLevel product) {
+    return this.cells[product.category().ordinal()][product.measureUnit().ordinal()];
+  }
+
+  private BigDecimal valueOf(ProductStockLevel product, int quantity) {
+    return product.unitPrice().multiply(BigDecimal.valueOf(quantity));
+  }
+
+  private static final class Cell {
+
+    private long products;
+
+    private long units;
+
+    private BigDecimal value = BigDecimal.ZERO;
+
+    private synchronized void add(long products, long units, BigDecimal value) {
+      this.products += products;
+      this.units    += units;
+      this.value     = this.value.add(value);
+    }
+
+    private synchronized void reset(InventoryAggregate aggregate) {
+      this.products = aggregate.products();
+      this.units    = aggregate.units();
+      this.value    = aggregate.value();
+    }
+
+    private synchronized Cell copy() {
+      var copy = new Cell();
+      copy.add(this.products, this.units, this.value);
+      return copy;
+    }
+
+    private void add(Cell cell) {
+      add(cell.products, cell.units, cell.value);
+    }
+
+    private InventoryAggregateDTO toDTO() {
+      return new InventoryAggregateDTO(this.products, this.units, this.value);
+    }
+
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.OptimisticRetryProperties;
+import com.gilberto.logistockapi.services.IOptimisticRetryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Waits a full-jitter exponential backoff between attempts and publishes
+ * {@code logistock.optimistic.conflicts}, tagged by operation and by whether the conflict was
+ * retried or exhausted the attempts.
+ */
+@Service
+public class OptimisticRetryService implements IOptimisticRetryService {
+  
+  private static final String CONFLICTS = "logistock.optimistic.conflicts";
+  
+  private final OptimisticRetryProperties properties;
+  
+  private final MeterRegistry meterRegistry;
+  
+  public OptimisticRetryService(@Autowired OptimisticRetryProperties properties,
+                                @Autowired MeterRegistry meterRegistry) {
+    this.properties    = properties;
+    this.meterRegistry = meterRegistry;
+  }
+  
+  @Override
+  public boolean backoff(String operation, int attempt) {
+    if (attempt >= this.properties.maxAttempts()) {
+      conflicts(operation, "exhausted").increment();
+      return false;
+    }
+    
+    conflicts(operation, "retried").increment();
+    try {
+      TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(cap(attempt) + 1));
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    return true;
+  }
+  
+  private long cap(int attempt) {
+    var max = this.properties.maxBackoff().toNanos();
+    var cap = this.properties.initialBackoff().toNanos();
+    for (var doubling = 1; doubling < attempt && cap < max; doubling++) {
+      cap *= 2;
+    }
+    return Math.min(cap, max);
+  }
+  
+  private Counter conflicts(String operation, String outcome) {
+    return Counter.builder(CONFLICTS)
+        .description("Writes that lost an optimistic locking race")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .register(this.meterRegistry);
+  }
+  
+}
@@ -0,0 +1,113 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.ProductCacheProperties;
+import com.gilberto.logistockapi.models.dto.response.ProductCacheStatsDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.services.IProductCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches products by id only, barcodes are resolved to ids through a separate index since a
+ * product's barcode never changes. Evicting the id is then enough to drop every cached copy of a
+ * product. Loads run inside the cache's atomic computation, so an eviction issued while a load is
+ * in flight waits for it and still removes what it loaded. As a {@link MeterBinder} its hits,
+ * misses and evictions are published as the {@code cache.*} metrics of the {@code products}
+ * cache.
+ */
+@Service
+public class ProductCacheService implements IProductCacheService, MeterBinder {
+  
+  private final Cache<Long, ProductDTO> productsById;
+  
+  private final Cache<String, Long> idsByBarCode;
+  
+  public ProductCacheService(@Autowired ProductCacheProperties properties) {
+    this.productsById = Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .expireAfterWrite(properties.expireAfterWrite())
+        .recordStats()
+        .build();
+    this.idsByBarCode = Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .build();
+  }
+  
+  @Override
+  public Optional<ProductDTO> findById(Long id, Function<Long, Optional<ProductDTO>> loader) {
+    return Optional.ofNullable(this.productsById.get(id,
+        key -> loader.apply(key).orElse(null)));
+  }
+  
+  @Override
+  public Optional<ProductDTO> findByBarCode(String barCode,
+                                            Function<String, Optional<ProductDTO>> loader) {
+    var id = this.idsByBarCode.getIfPresent(barCode);
+    if (id != null) {
+      // A barcode whose product was deleted may now belong to a new product with another id.
+      var product = this.productsById.get(id, key -> loader.apply(barCode)
+          .filter(found -> found.id().equals(key))
+          .orElse(null));
+      if (product != null) {
+        return Optional.of(product);
+      }
+    }
+    
+    // The id of a barcode seen for the first time is only known after this load, which runs
+    // outside of the atomic computation, so its result is returned but not cached.
+    var product = loader.apply(barCode);
+    product.ifPresent(found -> this.idsByBarCode.put(barCode, found.id()));
+    return product;
+  }
+  
+  @Override
+  public Optional<ProductDTO> findCached(Long id) {
+    return Optional.ofNullable(this.productsById.getIfPresent(id));
+  }
+  
+  @Override
+  public Optional<ProductDTO> findCachedByBarCode(String barCode) {
+    return Optional.ofNullable(this.idsByBarCode.getIfPresent(barCode))
+        .flatMap(this::findCached)
+        .filter(product -> product.barCode().equals(barCode));
+  }
+  
+  @Override
+  public void evict(Long id) {
+    this.productsById.invalidate(id);
+    
+    // Inside a transaction a concurrent read can still load the old row until the commit.
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          ProductCacheService.this.productsById.invalidate(id);
+        }
+      });
+    }
+  }
+  
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, this.productsById, "products");
+  }
+  
+  @Override
+  public ProductCacheStatsDTO stats() {
+    // Runs the pending size evictions so the counts below include them.
+    this.productsById.cleanUp();
+    var stats = this.productsById.stats();
+    return new ProductCacheStatsDTO(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+        stats.hitRate(), this.productsById.estimatedSize());
+  }
+  
+}
@@ -0,0 +1,137 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.config.ProductExportProperties;
+import com.gilberto.logistockapi.datasource.ReplicaReadScope;
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.request.ProductExportFilter;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository;
+import com.gilberto.logistockapi.services.IProductExportService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams the catalog inside a read-only transaction, which PostgreSQL needs to keep the cursor
+ * open between fetches. Rows are projections, so the persistence context stays empty however
+ * many of them are read.
+ */
+@Service
+public class ProductExportService implements IProductExportService {
+  
+  private static final String CSV_HEADER = "id,name,barCode,category,unitPrice,measureUnit," +
+      "stockQuantity,description,supplierId,supplierName,supplierLegalDocument,supplierEmail," +
+      "supplierPhone";
+  
+  private final IProductSearchRepository productSearchRepository;
+  
+  private final ObjectMapper objectMapper;
+  
+  private final IProductMapper productMapper;
+  
+  private final int fetchSize;
+  
+  public ProductExportService(@Autowired IProductSearchRepository productSearchRepository,
+                              @Autowired ObjectMapper objectMapper,
+                              @Autowired ProductExportProperties properties) {
+    this.productSearchRepository = productSearchRepository;
+    this.objectMapper            = objectMapper;
+    this.fetchSize               = properties.fetchSize();
+    this.productMapper           = new ProductMapper();
+  }
+  
+  @Override
+  @Transactional(readOnly = true)
+  public void export(ProductExportFilter filter, OutputStream outputStream) throws IOException {
+    var categories = filter.categories() == null ?
+                     Arrays.asList(Category.values()) :
+                     filter.categories();
+    var format     = ObjectUtils.defaultIfNull(filter.format(), CatalogFormat.NDJSON);
+    
+    // The connection is only taken on the first fetch, so a replica may still serve the export.
+    var scope = ReplicaReadScope.open();
+    try (var productViews = this.productSearchRepository.stream(categories,
+        StringUtils.defaultIfBlank(filter.search(), ""), this.fetchSize)) {
+      var products = productViews.map(this.productMapper::toProductDTO).iterator();
+      if (format == CatalogFormat.CSV) {
+        writeCsv(products, outputStream);
+      } else {
+        writeNdjson(products, outputStream);
+      }
+    } finally {
+      scope.close();
+    }
+  }
+  
+  private void writeNdjson(Iterator<ProductDTO> products, OutputStream outputStream)
+      throws IOException {
+    var generator = this.objectMapper.getFactory().createGenerator(outputStream);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.setRootValueSeparator(null);
+    
+    while (products.hasNext()) {
+      this.objectMapper.writeValue(generator, products.next());
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+  }
+  
+  private void writeCsv(Iterator<ProductDTO> products, OutputStream outputStream)
+      throws IOException {
+    var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    writer.write(CSV_HEADER);
+    writer.write("\r\n");
+    
+    while (products.hasNext()) {
+      var product  = products.next();
+      var supplier = product.supplier();
+      writeCsvRow(writer, product.id(), product.name(), product.barCode(), product.category(),
+          product.unitPrice(), product.measureUnit(), product.stockQuantity(),
+          product.description(),
+          supplier == null ? null : supplier.id(),
+          supplier == null ? null : supplier.name(),
+          supplier == null ? null : supplier.legalDocument(),
+          supplier == null ? null : supplier.email(),
+          supplier == null ? null : supplier.phone());
+    }
+    writer.flush();
+  }
+  
+  private void writeCsvRow(Writer writer, Object... values) throws IOException {
+    for (var index = 0; index < values.length; index++) {
+      if (index > 0) {
+        writer.write(',');
+      }
+      writer.write(escapeCsv(Objects.toString(values[index], "")));
+    }
+    writer.write("\r\n");
+  }
+  
+  /**
+   * Quotes the value when it holds a separator, a quote or a line break, doubling its quotes as
+   * RFC 4180 requires.
+   */
+  private String escapeCsv(String value) {
+    if (StringUtils.containsNone(value, ',', '"', '\r', '\n')) {
+      return value;
+    }
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+  
+}
@@ -0,0 +1,372 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.gilberto.logistockapi.config.ProductImportProperties;
+import com.gilberto.logistockapi.exceptions.HttpException;
+import com.gilberto.logistockapi.exceptions.InvalidProductRowException;
+import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.SupplierForm;
+import com.gilberto.logistockapi.models.dto.response.ErrorDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductImportErrorDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductImportResultDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.repositories.IProductBulkRepository;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import com.gilberto.logistockapi.services.IProductImportService;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import com.gilberto.logistockapi.services.IStockLedgerService;
+import com.gilberto.logistockapi.services.ISupplierService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports products in batches of rows: each batch is checked against the registered barcodes
+ * with one query and inserted with JDBC batches in its own transaction, so a failure only
+ * loses the batch it happened in. Suppliers are resolved once per legal document for the whole
+ * import.
+ */
+@Service
+public class ProductImportService implements IProductImportService {
+  
+  private static final List<String> PRODUCT_COLUMNS = List.of("name", "barCode", "category",
+      "unitPrice", "stockQuantity", "maxStockLevel", "reorderPoint", "measureUnit",
+      "description");
+  
+  private static final Map<String, String> SUPPLIER_COLUMNS = Map.of(
+      "supplierName", "name",
+      "supplierLegalDocument", "legalDocument",
+      "supplierEmail", "email",
+      "supplierPhone", "phone");
+  
+  private static final CsvMapper CSV_MAPPER = new CsvMapper();
+  
+  private final IProductBulkRepository productBulkRepository;
+  
+  private final ISupplierService supplierService;
+  
+  private final IStockLedgerService stockLedgerService;
+  
+  private final IStockAlertService stockAlertService;
+  
+  private final IInventoryStatsService inventoryStatsService;
+  
+  private final ObjectMapper objectMapper;
+  
+  private final Validator validator;
+  
+  private final TransactionTemplate transactionTemplate;
+  
+  private final IProductMapper productMapper;
+  
+  private final int batchSize;
+  
+  public ProductImportService(@Autowired IProductBulkRepository productBulkRepository,
+                              @Autowired ISupplierService supplierService,
+                              @Autowired IStockLedgerService stockLedgerService,
+                              @Autowired IStockAlertService stockAlertService,
+                              @Autowired IInventoryStatsService inventoryStatsService,
+                              @Autowired ObjectMapper objectMapper,
+                              @Autowired Validator validator,
+                              @Autowired PlatformTransactionManager transactionManager,
+                              @Autowired ProductImportProperties properties) {
+    this.productBulkRepository = productBulkRepository;
+    this.supplierService       = supplierService;
+    this.stockLedgerService    = stockLedgerService;
+    this.stockAlertService     = stockAlertService;
+    this.inventoryStatsService = inventoryStatsService;
+    this.objectMapper          = objectMapper;
+    this.validator             = validator;
+    this.transactionTemplate   = new TransactionTemplate(transactionManager);
+    this.batchSize             = properties.batchSize();
+    this.productMapper         = new ProductMapper();
+  }
+  
+  @Override
+  public ProductImportResultDTO importProducts(CatalogFormat format, InputStream inputStream)
+      throws IOException {
+    var productImport = new ProductImport();
+    
+    if (format == CatalogFormat.CSV) {
+      readCsv(inputStream, productImport::add);
+    } else {
+      readNdjson(inputStream, productImport::add);
+    }
+    productImport.flush();
+    
+    productImport.errors.sort(Comparator.comparingLong(ProductImportErrorDTO::row));
+    return new ProductImportResultDTO(productImport.imported, productImport.errors.size(),
+        productImport.errors);
+  }
+  
+  private void readNdjson(InputStream inputStream, Consumer<ProductRow> consumer)
+      throws IOException {
+    var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    var row    = 0L;
+    
+    for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+      row++;
+      if (line.isBlank()) {
+        continue;
+      }
+      
+      try {
+        var productForm = this.objectMapper.readValue(line, ProductForm.class);
+        if (productForm == null) {
+          consumer.accept(new ProductRow(row, null, null,
+              new InvalidProductRowException("Malformed row: null is not a product")));
+          continue;
+        }
+        consumer.accept(new ProductRow(row, productForm.barCode(), productForm, null));
+      } catch (JsonProcessingException exception) {
+        consumer.accept(new ProductRow(row, null, null,
+            new InvalidProductRowException("Malformed row: " + exception.getOriginalMessage())));
+      }
+    }
+  }
+  
+  /**
+   * Maps the columns by the names of the header, the same as the export's, so unknown columns
+   * like the ids are ignored. The supplier columns are nested into the supplier of the form.
+   */
+  private void readCsv(InputStream inputStream, Consumer<ProductRow> consumer)
+      throws IOException {
+    var reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+    MappingIterator<Map<String, String>> rows = CSV_MAPPER
+        .readerForMapOf(String.class)
+        .with(CsvSchema.emptySchema().withHeader())
+        .readValues(reader);
+    var row = 0L;
+    
+    while (true) {
+      Map<String, String> columns;
+      try {
+        if (!rows.hasNextValue()) {
+          return;
+        }
+        row++;
+        columns = rows.nextValue();
+      } catch (JsonProcessingException exception) {
+        // The rest of the file can't be told apart from the broken row, so reading stops here.
+        consumer.accept(new ProductRow(row, null, null,
+            new InvalidProductRowException("Malformed row: " + exception.getOriginalMessage())));
+        return;
+      }
+      
+      var barCode = StringUtils.trimToNull(columns.get("barCode"));
+      try {
+        consumer.accept(new ProductRow(row, barCode,
+            this.objectMapper.convertValue(toProductFields(columns), ProductForm.class), null));
+      } catch (IllegalArgumentException exception) {
+        consumer.accept(new ProductRow(row, barCode, null,
+            new InvalidProductRowException("Malformed row: " + exception.getMessage())));
+      }
+    }
+  }
+  
+  private Map<String, Object> toProductFields(Map<String, String> columns) {
+    var fields = new HashMap<String, Object>();
+    PRODUCT_COLUMNS.forEach(column ->
+        fields.put(column, StringUtils.trimToNull(columns.get(column))));
+    
+    var supplierFields = new HashMap<String, Object>();
+    SUPPLIER_COLUMNS.forEach((column, field) -> {
+      var value = StringUtils.trimToNull(columns.get(column));
+      if (value != null) {
+        supplierFields.put(field, value);
+      }
+    });
+    if (!supplierFields.isEmpty()) {
+      fields.put("supplier", supplierFields);
+    }
+    
+    return fields;
+  }
+  
+  private String describe(Iterable<ConstraintViolation<ProductForm>> violations) {
+    var messages = new ArrayList<String>();
+    violations.forEach(violation ->
+        messages.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+    return messages.stream()
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+  
+  /**
+   * Inserts the products and records their initial stock in the ledger, in one transaction, then
+   * evaluates their alerts and adds them to the inventory aggregates.
+   */
+  private void insertAll(List<Product> products) {
+    this.transactionTemplate.executeWithoutResult(status -> {
+      this.productBulkRepository.insertAll(products);
+      this.stockLedgerService.recordAll(products.stream()
+          .filter(product -> product.getStockQuantity() != 0)
+          .map(product -> new StockMovementForm(product.getId(), null,
+              product.getStockQuantity()))
+          .toList());
+    });
+    for (var product : products) {
+      var stockLevel = this.productMapper.toStockLevel(product);
+      this.stockAlertService.evaluate(stockLevel);
+      this.inventoryStatsService.add(stockLevel);
+    }
+  }
+  
+  private ErrorDTO toErrorDTO(HttpException exception) {
+    return new ErrorDTO(exception.getStatus().value(), exception.getMessage());
+  }
+  
+  private record ProductRow(
+      long row,
+      String barCode,
+      ProductForm form,
+      HttpException error
+  ) {
+  
+  }
+  
+  /**
+   * State of a single import. Barcodes already seen are kept for the whole file so a barcode
+   * repeated in a later batch is still reported.
+   */
+  private final class ProductImport {
+    
+    private final List<ProductRow> batch = new ArrayList<>(batchSize);
+    
+    private final HashSet<String> barCodes = new HashSet<>();
+    
+    private final HashMap<String, Supplier> suppliers = new HashMap<>();
+    
+    private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+    
+    private int imported;
+    
+    private void add(ProductRow productRow) {
+      if (productRow.error() != null) {
+        reject(productRow, productRow.error());
+        return;
+      }
+      
+      var violations = validator.validate(productRow.form());
+      if (!violations.isEmpty()) {
+        reject(productRow, new InvalidProductRowException(describe(violations)));
+        return;
+      }
+      
+      if (!this.barCodes.add(productRow.barCode())) {
+        reject(productRow, new ProductAlreadyRegisteredException());
+        return;
+      }
+      
+      this.batch.add(productRow);
+      if (this.batch.size() >= batchSize) {
+        flush();
+      }
+    }
+    
+    private void flush() {
+      if (this.batch.isEmpty()) {
+        return;
+      }
+      
+      var registeredBarCodes = productBulkRepository.findRegisteredBarCodes(this.batch.stream()
+          .map(ProductRow::barCode)
+          .toList());
+      
+      var productRows = new ArrayList<ProductRow>(this.batch.size());
+      var products    = new ArrayList<Product>(this.batch.size());
+      for (var productRow : this.batch) {
+        if (registeredBarCodes.contains(productRow.barCode())) {
+          reject(productRow, new ProductAlreadyRegisteredException());
+          continue;
+        }
+        productRows.add(productRow);
+        products.add(toProduct(productRow.form()));
+      }
+      this.batch.clear();
+      
+      try {
+        insertAll(products);
+        this.imported += products.size();
+      } catch (DataIntegrityViolationException exception) {
+        insertOneByOne(productRows, products);
+      }
+    }
+    
+    /**
+     * Fallback for a batch the database rejected, which only rejects the failing rows. A row is
+     * reported as already registered when its barcode was registered after the batch was
+     * checked, and with the error of the database otherwise.
+     */
+    private void insertOneByOne(List<ProductRow> productRows, List<Product> products) {
+      for (var index = 0; index < products.size(); index++) {
+        var product = products.get(index);
+        // The failed batch already assigned an id, persisting again needs a new one.
+        product.setId(null);
+        try {
+          insertAll(List.of(product));
+          this.imported++;
+        } catch (DataIntegrityViolationException exception) {
+          var productRow = productRows.get(index);
+          var registered = productBulkRepository.findRegisteredBarCodes(
+              List.of(productRow.barCode()));
+          reject(productRow, registered.contains(productRow.barCode()) ?
+                             new ProductAlreadyRegisteredException() :
+                             new InvalidProductRowException("Rejected by the database: " +
+                                 exception.getMostSpecificCause().getMessage()));
+        }
+      }
+    }
+    
+    private Product toProduct(ProductForm productForm) {
+      var product = productMapper.toProduct(productForm);
+      product.setStockQuantity(ObjectUtils.defaultIfNull(product.getStockQuantity(), 0));
+      product.setSupplier(resolveSupplier(productForm.supplier()));
+      return product;
+    }
+    
+    private Supplier resolveSupplier(SupplierForm supplierForm) {
+      if (supplierForm == null) {
+        return null;
+      }
+      return this.suppliers.computeIfAbsent(supplierForm.legalDocument(),
+          legalDocument -> supplierService.save(supplierForm));
+    }
+    
+    private void reject(ProductRow productRow, HttpException exception) {
+      this.errors.add(new ProductImportErrorDTO(productRow.row(), productRow.barCode(),
+          toErrorDTO(exception)));
+    }
+    
+  }
+  
+}
@@ -0,0 +1,96 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.config.ProductJsonCacheProperties;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.services.IProductJsonCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the JSON of the last encoding of each product, by id. The bytes are only reused for a
+ * product equal to the one encoded, which the lookups served from the product cache pass at the
+ * cost of a reference comparison. The version alone would not do, since the products with the
+ * stock projected by the write-behind accumulators have none. Each entry weighs twice its JSON,
+ * since the product kept to compare with holds about as many bytes in its compact strings as
+ * their encoding. As a {@link MeterBinder} its hits and misses are published as the
+ * {@code cache.*} metrics of the {@code product-json} cache.
+ */
+@Service
+public class ProductJsonCacheService implements IProductJsonCacheService, MeterBinder {
+  
+  private final ObjectMapper objectMapper;
+  
+  private final Cache<Long, EncodedProduct> encodedProducts;
+  
+  public ProductJsonCacheService(@Autowired ObjectMapper objectMapper,
+                                 @Autowired ProductJsonCacheProperties properties) {
+    this.objectMapper    = objectMapper;
+    this.encodedProducts = Caffeine.newBuilder()
+        .maximumWeight(properties.maximumWeight().toBytes())
+        .weigher((Long id, EncodedProduct encoded) -> 2 * encoded.json().length)
+        .recordStats()
+        .build();
+  }
+  
+  @Override
+  public byte[] toJson(ProductDTO product) {
+    if (product.id() == null) {
+      return encode(product);
+    }
+    
+    var encoded = this.encodedProducts.getIfPresent(product.id());
+    if (encoded != null && (encoded.product() == product || encoded.product().equals(product))) {
+      return encoded.json();
+    }
+    
+    var json = encode(product);
+    this.encodedProducts.put(product.id(), new EncodedProduct(product, json));
+    return json;
+  }
+  
+  @Override
+  public void writeJson(List<ProductDTO> products, OutputStream outputStream) throws IOException {
+    outputStream.write('[');
+    for (var index = 0; index < products.size(); index++) {
+      if (index > 0) {
+        outputStream.write(',');
+      }
+      outputStream.write(toJson(products.get(index)));
+    }
+    outputStream.write(']');
+  }
+  
+  @Override
+  public void evict(Long id) {
+    this.encodedProducts.invalidate(id);
+  }
+  
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, this.encodedProducts, "product-json");
+  }
+  
+  private byte[] encode(ProductDTO product) {
+    try {
+      return this.objectMapper.writeValueAsBytes(product);
+    } catch (JsonProcessingException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  private record EncodedProduct(ProductDTO product, byte[] json) {
+  
+  }
+  
+}
@@ -1,25 +1,66 @@
 package com.gilberto.logistockapi.services.implementations;
 
+import com.gilberto.logistockapi.datasource.ReplicaReadScope;
 import com.gilberto.logistockapi.mappers.IProductMapper;
 import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.request.ProductCursor;
 import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.dto.response.ErrorDTO;
 import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductPageDTO;
+import com.gilberto.logistockapi.models.dto.response.StockAvailabilityDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementResultDTO;
+import com.gilberto.logistockapi.models.dto.response.TotalHitsDTO;
 import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.exceptions.HttpException;
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
 import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
 import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
 import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
 import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
 import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.HitCount;
+import com.gilberto.logistockapi.models.projections.ProductVersion;
+import com.gilberto.logistockapi.models.projections.ProductView;
 import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository.ProductSearchCriteria;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import com.gilberto.logistockapi.services.IOptimisticRetryService;
+import com.gilberto.logistockapi.services.IProductCacheService;
+import com.gilberto.logistockapi.services.IProductJsonCacheService;
 import com.gilberto.logistockapi.services.IProductService;
+import com.gilberto.logistockapi.services.IReadYourWritesService;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import com.gilberto.logistockapi.services.IStockLedgerService;
+import com.gilberto.logistockapi.services.IStockMetricsService;
+import com.gilberto.logistockapi.services.IStockReservationService;
+import com.gilberto.logistockapi.services.IStockWriteBehindService;
 import com.gilberto.logistockapi.services.ISupplierService;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,20 +68,73 @@ import java.util.stream.Collectors;
 @Service
 public class ProductService implements IProductService {
 
+    private static final String UPDATE_OPERATION = "product.update";
+    
+    private static final String DELETE_OPERATION = "product.delete";
+
     private final IProductRepository productRepository;
     
     private final IProductMapper productMapper;
     
     private final ISupplierService supplierService;
     
+    private final IStockMovementRepository stockMovementRepository;
+    
+    private final IProductSearchRepository productSearchRepository;
+    
+    private final IStockWriteBehindService stockWriteBehindService;
+    
+    private final IProductCacheService productCacheService;
+    
+    private final IStockMetricsService stockMetricsService;
+    
+    private final IOptimisticRetryService optimisticRetryService;
+    
+    private final IStockReservationService stockReservationService;
+    
+    private final IStockLedgerService stockLedgerService;
+    
+    private final IStockAlertService stockAlertService;
+    
+    private final IInventoryStatsService inventoryStatsService;
+    
+    private final IReadYourWritesService readYourWritesService;
+    
+    private final IProductJsonCacheService productJsonCacheService;
+    
     public ProductService(@Autowired IProductRepository productRepository,
-                          @Autowired ISupplierService supplierService) {
-        this.productRepository = productRepository;
-        this.supplierService   = supplierService;
-        this.productMapper     = new ProductMapper();
+                          @Autowired ISupplierService supplierService,
+                          @Autowired IStockMovementRepository stockMovementRepository,
+                          @Autowired IProductSearchRepository productSearchRepository,
+                          @Autowired IStockWriteBehindService stockWriteBehindService,
+                          @Autowired IProductCacheService productCacheService,
+                          @Autowired IStockMetricsService stockMetricsService,
+                          @Autowired IOptimisticRetryService optimisticRetryService,
+                          @Autowired IStockReservationService stockReservationService,
+                          @Autowired IStockLedgerService stockLedgerService,
+                          @Autowired IStockAlertService stockAlertService,
+                          @Autowired IInventoryStatsService inventoryStatsService,
+                          @Autowired IReadYourWritesService readYourWritesService,
+                          @Autowired IProductJsonCacheService productJsonCacheService) {
+        this.productRepository       = productRepository;
+        this.supplierService         = supplierService;
+        this.stockMovementRepository = stockMovementRepository;
+        this.productSearchRepository = productSearchRepository;
+        this.stockWriteBehindService = stockWriteBehindService;
+        this.productCacheService     = productCacheService;
+        this.stockMetricsService     = stockMetricsService;
+        this.optimisticRetryService  = optimisticRetryService;
+        this.stockReservationService = stockReservationService;
+        this.stockLedgerService      = stockLedgerService;
+        this.stockAlertService       = stockAlertService;
+        this.inventoryStatsService   = inventoryStatsService;
+        this.readYourWritesService   = readYourWritesService;
+        this.productJsonCacheService = productJsonCacheService;
+        this.productMapper           = new ProductMapper();
     }
 
     @Override
+    @Transactional
     public ProductDTO create(ProductForm productForm) throws ProductAlreadyRegisteredException {
 
         verifyIfIsAlreadyRegistered(productForm.barCode());
@@ -48,98 +142,472 @@ public class ProductService implements IProductService {
         var product = this.productMapper.toProduct(productForm);
         product.setSupplier(this.supplierService.save(productForm.supplier()));
         var savedProduct = this.productRepository.save(product);
+        this.readYourWritesService.recordWrite(savedProduct.getId());
+        recordInitialStock(savedProduct);
+        var stockLevel = this.productMapper.toStockLevel(savedProduct);
+        afterCommit(() -> {
+            this.stockAlertService.evaluate(stockLevel);
+            this.inventoryStatsService.add(stockLevel);
+        });
         return this.productMapper.toProductDTO(savedProduct);
     }
     
     @Override
-    public List<ProductDTO> listAll(ProductFilter filter) {
+    public ProductPageDTO listAll(ProductFilter filter) throws InvalidCursorException {
         var search = StringUtils.defaultIfBlank(filter.search(), "");
         
         var categories = filter.categories() == null ?
                          Arrays.asList(Category.values()) :
                          filter.categories();
         
-        var pageNumber = filter.pageNumber() * filter.pageSize();
+        var cursor = StringUtils.isNotBlank(filter.cursor()) ?
+                     ProductCursor.decode(filter.cursor()) :
+                     null;
         
-        return this.productRepository.findAllByFilters(categories, search, filter.pageSize(),
-                pageNumber).stream()
-            .map(this.productMapper::toProductDTO)
-            .collect(Collectors.toList());
+        var pageNumber = cursor == null ?
+                         ObjectUtils.defaultIfNull(filter.pageNumber(), 0) * filter.pageSize() :
+                         0;
+        
+        var criteria = new ProductSearchCriteria(categories, search, cursor, pageNumber,
+            filter.pageSize());
+        
+        // A page cannot tell which products it returns before running, so any write in the
+        // read-your-writes window sends it to the primary.
+        return this.readYourWritesService.hasRecentWrites() ?
+               searchPage(filter, criteria) :
+               ReplicaReadScope.read(() -> searchPage(filter, criteria));
     }
     
     @Override
     public ProductDTO findById(Long id) throws ProductNotFoundException {
-        return this.productRepository.findById(id)
-            .map(this.productMapper::toProductDTO)
+        return this.productCacheService.findById(id, key -> findViewById(key)
+                .map(this.productMapper::toProductDTO))
             .orElseThrow(ProductNotFoundException::new);
     }
     
     @Override
     public ProductDTO findByBarCode(String barCode) throws ProductNotFoundException {
-        return this.productRepository.findByBarCode(barCode)
-            .map(this.productMapper::toProductDTO)
+        return this.productCacheService.findByBarCode(barCode, key -> findViewByBarCode(key)
+                .map(this.productMapper::toProductDTO))
             .orElseThrow(ProductNotFoundException::new);
     }
     
     @Override
-    public void delete(Long id) throws ProductNotFoundException {
-        this.verifyIfExists(id);
-        this.productRepository.deleteById(id);
+    public ProductVersion findVersionById(Long id) throws ProductNotFoundException {
+        return this.productCacheService.findCached(id)
+            .map(product -> new ProductVersion(product.id(), product.version()))
+            .or(() -> this.productRepository.findVersionById(id))
+            .orElseThrow(ProductNotFoundException::new);
     }
     
     @Override
-    public ProductDTO updateById(Long id, ProductUpdateForm updateForm)
-        throws ProductNotFoundException {
+    public ProductVersion findVersionByBarCode(String barCode) throws ProductNotFoundException {
+        return this.productCacheService.findCachedByBarCode(barCode)
+            .map(product -> new ProductVersion(product.id(), product.version()))
+            .or(() -> this.productRepository.findVersionByBarCode(barCode))
+            .orElseThrow(ProductNotFoundException::new);
+    }
+    
+    @Override
+    public void delete(Long id) throws ProductNotFoundException, ProductConflictException {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                this.stockWriteBehindService.evict(id);
+                // Deleting the product as it was read fails when its stock changed since, so
+                // the stock removed from the aggregates is the one deleted.
+                var product = this.verifyIfExists(id);
+                this.productRepository.delete(product);
+                evictWritten(id);
+                this.stockAlertService.remove(id);
+                this.inventoryStatsService.remove(this.productMapper.toStockLevel(product));
+                return;
+            } catch (OptimisticLockingFailureException exception) {
+                if (!this.optimisticRetryService.backoff(DELETE_OPERATION, attempt)) {
+                    throw new ProductConflictException();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reads the product and writes it back with the form applied, which fails when the product
+     * changed in between. The whole read and write is then retried, unless the caller expects a
+     * version that is now gone.
+     */
+    @Override
+    public ProductDTO updateById(Long id, ProductUpdateForm updateForm, Long expectedVersion)
+        throws ProductNotFoundException, ProductVersionMismatchException,
+        ProductConflictException {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return tryUpdateById(id, updateForm, expectedVersion);
+            } catch (OptimisticLockingFailureException exception) {
+                if (expectedVersion != null) {
+                    throw new ProductVersionMismatchException();
+                }
+                if (!this.optimisticRetryService.backoff(UPDATE_OPERATION, attempt)) {
+                    throw new ProductConflictException();
+                }
+            }
+        }
+    }
+    
+    private ProductDTO tryUpdateById(Long id, ProductUpdateForm updateForm, Long expectedVersion)
+        throws ProductNotFoundException, ProductVersionMismatchException {
+        this.stockWriteBehindService.evict(id);
         var product = this.verifyIfExists(id);
+        verifyVersion(product, expectedVersion);
+        var previousStockLevel = this.productMapper.toStockLevel(product);
         product.setName(updateForm.name());
         product.setCategory(updateForm.category());
         product.setUnitPrice(updateForm.unitPrice());
         product.setMeasureUnit(updateForm.measureUnit());
         product.setDescription(updateForm.description());
         product.setMaxStockLevel(updateForm.maxStockLevel());
+        product.setReorderPoint(ObjectUtils.defaultIfNull(updateForm.reorderPoint(), 0));
         product.setSupplier(this.supplierService.save(updateForm.supplier()));
 
         var updatedProduct = this.productRepository.save(product);
+        evictWritten(id);
+        var stockLevel = this.productMapper.toStockLevel(updatedProduct);
+        this.stockAlertService.evaluate(stockLevel);
+        this.inventoryStatsService.remove(previousStockLevel);
+        this.inventoryStatsService.add(stockLevel);
         
         return this.productMapper.toProductDTO(updatedProduct);
     }
     
     @Override
-    public ProductDTO increaseStock(Long id, QuantityForm quantityForm)
-        throws ProductNotFoundException, ProductStockExceededException {
-        var product = verifyIfExists(id);
-        var updatedQuantity = sumQuantity(product.getStockQuantity(), quantityForm.quantity());
+    public ProductDTO increaseStock(Long id, QuantityForm quantityForm, Long expectedVersion)
+        throws ProductNotFoundException, ProductStockExceededException,
+        ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+        var quantity = quantityForm.quantity();
+        try {
+            var productDTO = this.stockWriteBehindService.isEnabled() && expectedVersion == null ?
+                             this.stockWriteBehindService.increaseStock(id, quantity) :
+                             increaseStoredStock(id, quantity, expectedVersion);
+            this.stockMetricsService.recordApplied(quantity);
+            return productDTO;
+        } catch (ProductStockExceededException | ProductConflictException exception) {
+            this.stockMetricsService.recordRejected(quantity, exception);
+            throw exception;
+        }
+    }
+    
+    @Override
+    public ProductDTO decreaseStock(Long id, QuantityForm quantityForm, Long expectedVersion)
+        throws ProductNotFoundException, ProductStockUnderThanZeroException,
+        ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+        var quantity = quantityForm.quantity();
+        try {
+            // The accumulators do not know about reservations, reserved products take the
+            // direct path. A reservation made before the flush makes it reject the decrease.
+            var productDTO = this.stockWriteBehindService.isEnabled() && expectedVersion == null
+                             && this.stockReservationService.reservedQuantity(id) == 0 ?
+                             this.stockWriteBehindService.decreaseStock(id, quantity) :
+                             decreaseStoredStock(id, quantity, expectedVersion);
+            this.stockMetricsService.recordApplied(-quantity);
+            return productDTO;
+        } catch (ProductStockUnderThanZeroException | ProductConflictException exception) {
+            this.stockMetricsService.recordRejected(-quantity, exception);
+            throw exception;
+        }
+    }
+    
+    @Override
+    public ProductDTO commitReservation(Long reservationId)
+        throws ReservationNotFoundException, ProductNotFoundException,
+        ProductStockUnderThanZeroException {
+        var reservation = this.stockReservationService.findById(reservationId);
+        var id          = reservation.productId();
+        var quantity    = reservation.quantity();
+        this.stockWriteBehindService.evict(id);
         
-        if (updatedQuantity > product.getMaxStockLevel()) {
-            throw new ProductStockExceededException();
+        try {
+            var updatedRows = this.stockReservationService.commit(reservationId,
+                reservedByOthers -> this.stockLedgerService.apply(id, -quantity,
+                    () -> this.productRepository.decreaseStock(id, quantity, reservedByOthers)));
+            if (updatedRows == 0) {
+                verifyIfExists(id);
+                throw new ProductStockUnderThanZeroException();
+            }
+            this.stockMetricsService.recordApplied(-quantity);
+        } catch (ProductStockUnderThanZeroException exception) {
+            this.stockMetricsService.recordRejected(-quantity, exception);
+            throw exception;
         }
         
-        product.setStockQuantity(updatedQuantity);
-        var updatedProduct = this.productRepository.save(product);
-        return this.productMapper.toProductDTO(updatedProduct);
+        evictWritten(id);
+        return reloadStock(id, -quantity);
     }
     
     @Override
-    public ProductDTO decreaseStock(Long id, QuantityForm quantityForm)
-        throws ProductNotFoundException, ProductStockUnderThanZeroException {
-        var product = verifyIfExists(id);
-        var updatedQuantity = subtractQuantity(product.getStockQuantity(), quantityForm.quantity());
+    public StockAvailabilityDTO findAvailabilityById(Long id) throws ProductNotFoundException {
+        var stockQuantity    = findById(id).stockQuantity();
+        var reservedQuantity = this.stockReservationService.reservedQuantity(id);
+        return new StockAvailabilityDTO(id, stockQuantity, reservedQuantity,
+            Math.max(0, stockQuantity - reservedQuantity));
+    }
+    
+    @Override
+    @Transactional
+    public List<StockMovementResultDTO> applyStockMovements(StockMovementsForm movementsForm) {
+        this.stockWriteBehindService.flush();
+        
+        var movements   = movementsForm.movements();
+        var updatedRows = this.stockMovementRepository.applyStockMovements(movements);
         
-        if (updatedQuantity < 0) {
+        var stockLevelsById      = new HashMap<Long, ProductStockLevel>();
+        var stockLevelsByBarCode = new HashMap<String, ProductStockLevel>();
+        for (var stockLevel : this.stockMovementRepository.findStockLevels(movements)) {
+            stockLevelsById.put(stockLevel.id(), stockLevel);
+            stockLevelsByBarCode.put(stockLevel.barCode(), stockLevel);
+            evictWritten(stockLevel.id());
+        }
+        // Evicting from the write-behind flushes in a transaction of its own, which would wait
+        // on the rows this one holds until it commits. The alerts follow the committed stock.
+        var stockLevels = List.copyOf(stockLevelsById.values());
+        afterCommit(() -> stockLevels.forEach(stockLevel -> {
+            this.stockWriteBehindService.evict(stockLevel.id());
+            this.stockAlertService.evaluate(stockLevel);
+        }));
+        
+        var movementLevels = new ProductStockLevel[movements.size()];
+        for (var index = 0; index < movements.size(); index++) {
+            var movement = movements.get(index);
+            movementLevels[index] = movement.id() != null ?
+                                    stockLevelsById.get(movement.id()) :
+                                    stockLevelsByBarCode.get(movement.barCode());
+        }
+        
+        // The batch applies the movements in order, so walking back from the final stock of each
+        // product gives the stock right after each of its movements.
+        var stockQuantities = new Integer[movements.size()];
+        var runningStocks   = new HashMap<Long, Integer>();
+        for (var index = movements.size() - 1; index >= 0; index--) {
+            var stockLevel = movementLevels[index];
+            if (stockLevel != null) {
+                var stockQuantity = runningStocks.getOrDefault(stockLevel.id(),
+                    stockLevel.stockQuantity());
+                stockQuantities[index] = stockQuantity;
+                if (updatedRows[index] > 0) {
+                    runningStocks.put(stockLevel.id(),
+                        stockQuantity - movements.get(index).quantity());
+                }
+            }
+        }
+        
+        var results          = new ArrayList<StockMovementResultDTO>(movements.size());
+        var appliedMovements = new ArrayList<StockMovementForm>(movements.size());
+        var appliedLevels    = new ArrayList<ProductStockLevel>(movements.size());
+        for (var index = 0; index < movements.size(); index++) {
+            var movement   = movements.get(index);
+            var stockLevel = movementLevels[index];
+            results.add(toStockMovementResult(movement, stockLevel, stockQuantities[index],
+                updatedRows[index]));
+            if (stockLevel != null && updatedRows[index] > 0) {
+                appliedMovements.add(
+                    new StockMovementForm(stockLevel.id(), null, movement.quantity()));
+                appliedLevels.add(stockLevel);
+            }
+        }
+        this.stockLedgerService.recordAll(appliedMovements);
+        afterCommit(() -> {
+            for (var index = 0; index < appliedMovements.size(); index++) {
+                this.inventoryStatsService.recordMovement(appliedLevels.get(index),
+                    appliedMovements.get(index).quantity());
+            }
+        });
+        
+        return results;
+    }
+    
+    private ProductDTO increaseStoredStock(Long id, Integer quantity, Long expectedVersion)
+        throws ProductNotFoundException, ProductStockExceededException,
+        ProductVersionMismatchException {
+        if (expectedVersion != null) {
+            // Writes the movements accumulated for the product, which change its version.
+            this.stockWriteBehindService.evict(id);
+        }
+        
+        var updatedRows = this.stockLedgerService.apply(id, quantity, () ->
+            expectedVersion == null ?
+            this.productRepository.increaseStock(id, quantity) :
+            this.productRepository.increaseStock(id, quantity, expectedVersion));
+        
+        if (updatedRows == 0) {
+            verifyVersion(verifyIfExists(id), expectedVersion);
+            throw new ProductStockExceededException();
+        }
+        
+        evictWritten(id);
+        return reloadStock(id, quantity);
+    }
+    
+    private ProductDTO decreaseStoredStock(Long id, Integer quantity, Long expectedVersion)
+        throws ProductNotFoundException, ProductStockUnderThanZeroException,
+        ProductVersionMismatchException {
+        this.stockWriteBehindService.evict(id);
+        
+        var updatedRows = this.stockReservationService.updateUnreserved(id, reservedQuantity ->
+            this.stockLedgerService.apply(id, -quantity, () ->
+                expectedVersion == null ?
+                this.productRepository.decreaseStock(id, quantity, reservedQuantity) :
+                this.productRepository.decreaseStock(id, quantity, reservedQuantity,
+                    expectedVersion)));
+        
+        if (updatedRows == 0) {
+            verifyVersion(verifyIfExists(id), expectedVersion);
             throw new ProductStockUnderThanZeroException();
         }
         
-        product.setStockQuantity(updatedQuantity);
-        var updatedProduct = this.productRepository.save(product);
-        return this.productMapper.toProductDTO(updatedProduct);
+        evictWritten(id);
+        return reloadStock(id, -quantity);
+    }
+    
+    /**
+     * A product written in the read-your-writes window is read from the primary, the replicas
+     * may not have its write yet.
+     */
+    private Optional<ProductView> findViewById(Long id) {
+        return this.readYourWritesService.isRecentlyWritten(id) ?
+               this.productRepository.findViewById(id) :
+               ReplicaReadScope.read(() -> this.productRepository.findViewById(id));
+    }
+    
+    /**
+     * The id of a product read by barcode is only known once it is read, so the replica is asked
+     * first, and the primary when the product found was recently written or when none was found
+     * while products were recently written, as it may have just been created.
+     */
+    private Optional<ProductView> findViewByBarCode(String barCode) {
+        var productView = ReplicaReadScope.read(
+            () -> this.productRepository.findViewByBarCode(barCode));
+        var stale       = productView.isPresent() ?
+                          this.readYourWritesService.isRecentlyWritten(productView.get().id()) :
+                          this.readYourWritesService.hasRecentWrites();
+        return stale ? this.productRepository.findViewByBarCode(barCode) : productView;
+    }
+    
+    private ProductPageDTO searchPage(ProductFilter filter, ProductSearchCriteria criteria) {
+        var productViews = this.productSearchRepository.search(criteria);
+        
+        var content = productViews.stream()
+            .map(this.productMapper::toProductDTO)
+            .collect(Collectors.toList());
+        
+        var facets = Boolean.TRUE.equals(filter.facets())
+                     || filter.totalHits() == HitCount.EXACT ?
+                     this.productSearchRepository.countByCategory(criteria.search()) :
+                     null;
+        
+        return new ProductPageDTO(content, nextCursor(productViews, filter.pageSize()),
+            Boolean.TRUE.equals(filter.facets()) ? facets : null,
+            totalHits(filter.totalHits(), criteria.categories(), criteria.search(), facets));
+    }
+    
+    /**
+     * Runs the action once the current transaction commits, or right away outside of one.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Records the write before dropping the cached product and its encoding, so a load racing
+     * with the eviction goes to the primary.
+     */
+    private void evictWritten(Long id) {
+        this.readYourWritesService.recordWrite(id);
+        this.productCacheService.evict(id);
+        this.productJsonCacheService.evict(id);
     }
     
-    private Integer sumQuantity(Integer stockQuantity, Integer quantityToIncrement) {
-        return stockQuantity + quantityToIncrement;
+    /**
+     * The result of the movement, reporting the stock of its product right after it.
+     */
+    private StockMovementResultDTO toStockMovementResult(StockMovementForm movement,
+                                                         ProductStockLevel stockLevel,
+                                                         Integer stockQuantity,
+                                                         int updatedRows) {
+        if (stockLevel == null) {
+            return new StockMovementResultDTO(movement.id(), movement.barCode(),
+                movement.quantity(), null, toErrorDTO(new ProductNotFoundException()));
+        }
+        
+        if (updatedRows == 0) {
+            HttpException exception = movement.quantity() > 0 ?
+                                      new ProductStockExceededException() :
+                                      new ProductStockUnderThanZeroException();
+            this.stockMetricsService.recordRejected(movement.quantity(), exception);
+            return new StockMovementResultDTO(stockLevel.id(), stockLevel.barCode(),
+                movement.quantity(), stockQuantity, toErrorDTO(exception));
+        }
+        
+        this.stockMetricsService.recordApplied(movement.quantity());
+        return new StockMovementResultDTO(stockLevel.id(), stockLevel.barCode(),
+            movement.quantity(), stockQuantity, null);
     }
     
-    private Integer subtractQuantity(Integer stockQuantity, Integer quantityToDecrement) {
-        return stockQuantity - quantityToDecrement;
+    private ErrorDTO toErrorDTO(HttpException exception) {
+        return new ErrorDTO(exception.getStatus().value(), exception.getMessage());
+    }
+
+    /**
+     * Sums the facets of the selected categories for an exact count, so the search is evaluated
+     * once for both, and falls back to it when the database gives no estimate.
+     */
+    private TotalHitsDTO totalHits(HitCount hitCount, List<Category> categories, String search,
+                                   Map<Category, Long> facets) {
+        if (hitCount == null) {
+            return null;
+        }
+        
+        if (hitCount == HitCount.ESTIMATED) {
+            var estimate = this.productSearchRepository.estimateCount(categories, search);
+            if (estimate.isPresent()) {
+                return new TotalHitsDTO(estimate.getAsLong(), true);
+            }
+        }
+        
+        var counts = facets == null ? this.productSearchRepository.countByCategory(search) : facets;
+        var total  = categories.stream()
+            .distinct()
+            .mapToLong(category -> counts.getOrDefault(category, 0L))
+            .sum();
+        return new TotalHitsDTO(total, false);
+    }
+    
+    private String nextCursor(List<ProductView> productViews, int pageSize) {
+        if (productViews.isEmpty() || productViews.size() < pageSize) {
+            return null;
+        }
+        
+        var lastProduct = productViews.get(productViews.size() - 1);
+        return new ProductCursor(lastProduct.entryDate(), lastProduct.id()).encode();
+    }
+    
+    /**
+     * Reads the product back after the movement of its stock, and updates its alerts and the
+     * inventory aggregates from it.
+     */
+    private ProductDTO reloadStock(Long id, int quantity) throws ProductNotFoundException {
+        var productView = this.productRepository.findViewById(id)
+                .orElseThrow(ProductNotFoundException::new);
+        var stockLevel  = this.productMapper.toStockLevel(productView);
+        this.stockAlertService.evaluate(stockLevel);
+        this.inventoryStatsService.recordMovement(stockLevel, quantity);
+        return this.productMapper.toProductDTO(productView);
     }
 
     private Product verifyIfExists(Long id) throws ProductNotFoundException {
@@ -147,6 +615,20 @@ public class ProductService implements IProductService {
                 .orElseThrow(ProductNotFoundException::new);
     }
     
+    private void verifyVersion(Product product, Long expectedVersion)
+        throws ProductVersionMismatchException {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ProductVersionMismatchException();
+        }
+    }
+    
+    private void recordInitialStock(Product product) {
+        if (product.getStockQuantity() != null && product.getStockQuantity() != 0) {
+            this.stockLedgerService.recordAll(List.of(
+                new StockMovementForm(product.getId(), null, product.getStockQuantity())));
+        }
+    }
+    
     private void verifyIfIsAlreadyRegistered(String barCode)
         throws ProductAlreadyRegisteredException {
         var optSavedProduct = this.productRepository.findByBarCode(barCode);
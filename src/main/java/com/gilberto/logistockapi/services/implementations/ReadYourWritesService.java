@@ -0,0 +1,53 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.DataSourceRoutingProperties;
+import com.gilberto.logistockapi.services.IReadYourWritesService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the ids of the products written in the read-your-writes window, which expire on their
+ * own, and the time of the last write, for the reads that are not keyed by a product id. Without
+ * replicas every read already goes to the primary, so nothing is recorded.
+ */
+@Service
+public class ReadYourWritesService implements IReadYourWritesService {
+  
+  private final Cache<Long, Boolean> recentlyWritten;
+  
+  private final long windowNanos;
+  
+  private volatile long lastWriteNanos;
+  
+  public ReadYourWritesService(@Autowired DataSourceRoutingProperties properties) {
+    this.windowNanos     = properties.readYourWritesWindow().toNanos();
+    this.recentlyWritten = properties.enabled() ?
+                           Caffeine.newBuilder()
+                               .maximumSize(properties.readYourWritesMaximumSize())
+                               .expireAfterWrite(properties.readYourWritesWindow())
+                               .build() :
+                           null;
+  }
+  
+  @Override
+  public void recordWrite(Long productId) {
+    if (this.recentlyWritten != null) {
+      this.recentlyWritten.put(productId, Boolean.TRUE);
+      this.lastWriteNanos = System.nanoTime();
+    }
+  }
+  
+  @Override
+  public boolean isRecentlyWritten(Long productId) {
+    return this.recentlyWritten != null && this.recentlyWritten.getIfPresent(productId) != null;
+  }
+  
+  @Override
+  public boolean hasRecentWrites() {
+    return this.recentlyWritten != null
+        && System.nanoTime() - this.lastWriteNanos < this.windowNanos;
+  }
+  
+}
@@ -0,0 +1,125 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.StockAlertProperties;
+import com.gilberto.logistockapi.models.dto.response.StockAlertDTO;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the products in alert in memory, ordered by id. Every stock change evaluates the
+ * thresholds of the product it changed, so the alerts are listed in time proportional to their
+ * number instead of scanning the catalog, which is only read once at startup to rebuild them.
+ * The last version evaluated of each product is kept besides, to order the evaluations. Like the
+ * reservations, this assumes it is the only instance changing the stock.
+ */
+@Slf4j
+@Service
+public class StockAlertService implements IStockAlertService {
+
+  private static final long REMOVED = Long.MAX_VALUE;
+
+  private final StockAlertProperties properties;
+
+  private final IStockMovementRepository stockMovementRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ConcurrentSkipListMap<Long, StockAlertDTO> alerts = new ConcurrentSkipListMap<>();
+
+  /**
+   * Last version evaluated per product, whether it left the product in alert or not, and
+   * {@link #REMOVED} for the removed products. The alert of a product only changes under the lock
+   * of its entry here.
+   */
+  private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+  public StockAlertService(@Autowired StockAlertProperties properties,
+                           @Autowired IStockMovementRepository stockMovementRepository,
+                           @Autowired PlatformTransactionManager transactionManager) {
+    this.properties              = properties;
+    this.stockMovementRepository = stockMovementRepository;
+    this.transactionTemplate     = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @PostConstruct
+  public void start() {
+    this.transactionTemplate.executeWithoutResult(status -> {
+      try (var stockLevels = this.stockMovementRepository
+          .streamAlertingStockLevels(this.properties.overstockRatio())) {
+        stockLevels.forEach(this::evaluate);
+      }
+    });
+    log.info("Loaded {} stock alerts", this.alerts.size());
+  }
+
+  /**
+   * Evaluations of concurrent stock changes can arrive out of order, the last version seen of
+   * each product keeps an older one from replacing a newer one, even when the newer one cleared
+   * the alert. Levels without a version, from the write-behind accumulators, are already ordered
+   * by their stripe lock and keep the version seen before them.
+   */
+  @Override
+  public void evaluate(ProductStockLevel stockLevel) {
+    this.versions.compute(stockLevel.id(), (id, lastVersion) -> {
+      if (lastVersion != null
+          && (lastVersion == REMOVED || isNewer(lastVersion, stockLevel.version()))) {
+        return lastVersion;
+      }
+
+      var type = typeOf(stockLevel);
+      if (type == null) {
+        this.alerts.remove(id);
+      } else {
+        this.alerts.put(id, new StockAlertDTO(stockLevel.id(), stockLevel.barCode(), type,
+            stockLevel.stockQuantity(), stockLevel.reorderPoint(), stockLevel.maxStockLevel()));
+      }
+      return stockLevel.version() != null ? stockLevel.version() : lastVersion;
+    });
+  }
+
+  /**
+   * Removes the alert of a deleted product, and rejects any evaluation of it arriving later.
+   */
+  @Override
+  public void remove(Long productId) {
+    this.versions.compute(productId, (id, lastVersion) -> {
+      this.alerts.remove(id);
+      return REMOVED;
+    });
+  }
+
+  @Override
+  public List<StockAlertDTO> listAll(StockAlertType type) {
+    return this.alerts.values().stream()
+        .filter(alert -> type == null || alert.type() == type)
+        .toList();
+  }
+
+  private StockAlertType typeOf(ProductStockLevel stockLevel) {
+    if (stockLevel.stockQuantity() <= stockLevel.reorderPoint()) {
+      return StockAlertType.LOW_STOCK;
+    }
+    if (stockLevel.stockQuantity()
+        >= stockLevel.maxStockLevel() * this.properties.overstockRatio()) {
+      return StockAlertType.OVERSTOCK;
+    }
+    return null;
+  }
+
+  private boolean isNewer(Long version, Long otherVersion) {
+    return version != null && otherVersion != null && version > otherVersion;
+  }
+
+}
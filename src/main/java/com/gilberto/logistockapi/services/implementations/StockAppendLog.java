@@ -0,0 +1,162 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local file where accepted stock movements are synced before they are acknowledged. Each flush
+ * rotates the movements it writes into a segment numbered with its flush sequence, which is only
+ * deleted after the database commit.
+ */
+final class StockAppendLog {
+  
+  private static final String SEGMENT_SUFFIX = ".flushing.";
+  
+  private final Path file;
+  
+  private FileChannel channel;
+  
+  StockAppendLog(Path file) {
+    this.file = file;
+  }
+  
+  /**
+   * Highest sequence of the segments left by a previous run, or zero when there are none.
+   */
+  synchronized long lastSequence() {
+    return segments().keySet().stream()
+        .mapToLong(Long::longValue)
+        .max()
+        .orElse(0);
+  }
+  
+  /**
+   * Reads the net quantity per product of the segments numbered after the given sequence.
+   */
+  synchronized Map<Long, Integer> readSegmentsAfter(long sequence) {
+    var deltas = new HashMap<Long, Integer>();
+    segments().forEach((segmentSequence, segment) -> {
+      if (segmentSequence > sequence) {
+        readInto(segment, deltas);
+      }
+    });
+    return deltas;
+  }
+  
+  synchronized void open() {
+    try {
+      this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  synchronized void append(Long id, int quantity) {
+    var line = ByteBuffer.wrap((id + " " + quantity + "\n").getBytes(StandardCharsets.US_ASCII));
+    try {
+      while (line.hasRemaining()) {
+        this.channel.write(line);
+      }
+      this.channel.force(false);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  /**
+   * Moves the current movements to the segment of the given sequence and reopens the log when
+   * it was open. Segments of failed flushes stay until a later flush commits.
+   */
+  synchronized void rotate(long sequence) {
+    try {
+      var open = this.channel != null;
+      if (open) {
+        this.channel.close();
+      }
+      if (Files.exists(this.file)) {
+        Files.move(this.file, segment(sequence), StandardCopyOption.ATOMIC_MOVE);
+      }
+      if (open) {
+        open();
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  /**
+   * Deletes the segments up to the given sequence, whose movements are committed.
+   */
+  synchronized void discardThrough(long sequence) {
+    try {
+      for (var segment : segments().entrySet()) {
+        if (segment.getKey() <= sequence) {
+          Files.deleteIfExists(segment.getValue());
+        }
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  synchronized void close() {
+    try {
+      if (this.channel != null) {
+        this.channel.close();
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+  private Path segment(long sequence) {
+    return this.file.resolveSibling(this.file.getFileName() + SEGMENT_SUFFIX + sequence);
+  }
+  
+  private Map<Long, Path> segments() {
+    var prefix    = this.file.getFileName() + SEGMENT_SUFFIX;
+    var directory = this.file.toAbsolutePath().getParent();
+    var segments  = new TreeMap<Long, Path>();
+    try (var paths = Files.list(directory)) {
+      paths.forEach(path -> {
+        var name = path.getFileName().toString();
+        if (name.startsWith(prefix) && name.length() > prefix.length()
+            && name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+          segments.put(Long.valueOf(name.substring(prefix.length())), path);
+        }
+      });
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    return segments;
+  }
+  
+  private void readInto(Path path, Map<Long, Integer> deltas) {
+    if (!Files.exists(path)) {
+      return;
+    }
+    
+    try {
+      var content = Files.readString(path, StandardCharsets.US_ASCII);
+      // A torn last line from a crash during the write was never acknowledged.
+      content.substring(0, content.lastIndexOf('\n') + 1).lines()
+          .map(line -> line.split(" "))
+          .forEach(fields -> deltas.merge(Long.valueOf(fields[0]), Integer.valueOf(fields[1]),
+              Integer::sum));
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+  
+}
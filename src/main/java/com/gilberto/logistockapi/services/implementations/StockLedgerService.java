@@ -0,0 +1,245 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.StockLedgerProperties;
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.StockMovementCursor;
+import com.gilberto.logistockapi.models.dto.request.StockMovementFilter;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.response.StockLevelDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementPageDTO;
+import com.gilberto.logistockapi.models.entity.StockMovement;
+import com.gilberto.logistockapi.models.entity.StockSnapshot;
+import com.gilberto.logistockapi.models.projections.ProductQuantity;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IStockLedgerRepository;
+import com.gilberto.logistockapi.repositories.IStockSnapshotRepository;
+import com.gilberto.logistockapi.services.IStockLedgerService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records every applied stock movement in an append-only ledger and periodically snapshots the
+ * stock of the products moved since the previous snapshots, so the stock at any moment is read
+ * from one snapshot and the movements of at most one snapshot interval.
+ */
+@Slf4j
+@Service
+public class StockLedgerService implements IStockLedgerService {
+
+  private static final int DEFAULT_PAGE_SIZE = 100;
+
+  /**
+   * Upper bound of an open ended period, within the range of timestamps of every database.
+   */
+  private static final Instant END_OF_TIME = Instant.parse("9999-12-31T00:00:00Z");
+
+  private final StockLedgerProperties properties;
+
+  private final IStockLedgerRepository stockLedgerRepository;
+
+  private final IStockSnapshotRepository stockSnapshotRepository;
+
+  private final IProductRepository productRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private ScheduledExecutorService scheduler;
+
+  public StockLedgerService(@Autowired StockLedgerProperties properties,
+                            @Autowired IStockLedgerRepository stockLedgerRepository,
+                            @Autowired IStockSnapshotRepository stockSnapshotRepository,
+                            @Autowired IProductRepository productRepository,
+                            @Autowired PlatformTransactionManager transactionManager) {
+    this.properties              = properties;
+    this.stockLedgerRepository   = stockLedgerRepository;
+    this.stockSnapshotRepository = stockSnapshotRepository;
+    this.productRepository       = productRepository;
+    this.transactionTemplate     = new TransactionTemplate(transactionManager);
+  }
+
+  @PostConstruct
+  public void start() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "stock-ledger-snapshots");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var interval = this.properties.snapshotInterval().toMillis();
+    this.scheduler.scheduleWithFixedDelay(this::scheduledSnapshots, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    this.scheduler.shutdown();
+  }
+
+  @Override
+  @Transactional
+  public int apply(Long productId, int quantity, IntSupplier stockUpdate) {
+    var updatedRows = stockUpdate.getAsInt();
+    if (updatedRows > 0) {
+      this.stockLedgerRepository.save(movementOf(productId, quantity, Instant.now()));
+    }
+    return updatedRows;
+  }
+
+  @Override
+  @Transactional
+  public void recordAll(List<StockMovementForm> movements) {
+    if (movements.isEmpty()) {
+      return;
+    }
+
+    var now = Instant.now();
+    this.stockLedgerRepository.saveAll(movements.stream()
+        .map(movement -> movementOf(movement.id(), movement.quantity(), now))
+        .toList());
+  }
+
+  @Override
+  public StockMovementPageDTO findMovements(Long productId, StockMovementFilter filter)
+      throws ProductNotFoundException, InvalidCursorException {
+    verifyIfExists(productId);
+
+    var cursor = StringUtils.isNotBlank(filter.cursor()) ?
+                 StockMovementCursor.decode(filter.cursor()) :
+                 null;
+
+    var pageSize  = ObjectUtils.defaultIfNull(filter.pageSize(), DEFAULT_PAGE_SIZE);
+    var from      = ObjectUtils.defaultIfNull(filter.from(), Instant.EPOCH);
+    var to        = ObjectUtils.defaultIfNull(filter.to(), END_OF_TIME);
+    var movements = cursor == null ?
+                    this.stockLedgerRepository.findMovements(productId, from, to,
+                        PageRequest.ofSize(pageSize)) :
+                    this.stockLedgerRepository.findMovementsAfter(productId, cursor.createdAt(),
+                        cursor.id(), from, to, PageRequest.ofSize(pageSize));
+
+    var content = movements.stream()
+        .map(movement -> new StockMovementDTO(movement.getId(), movement.getQuantity(),
+            movement.getCreatedAt()))
+        .toList();
+    return new StockMovementPageDTO(content, nextCursor(movements, pageSize));
+  }
+
+  @Override
+  public StockLevelDTO findStockAt(Long productId, Instant at) throws ProductNotFoundException {
+    verifyIfExists(productId);
+
+    var moment   = ObjectUtils.defaultIfNull(at, Instant.now());
+    var snapshot = this.stockSnapshotRepository
+        .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, moment);
+
+    var snapshotStock = snapshot.map(StockSnapshot::getStockQuantity).orElse(0);
+    var snapshotTaken = snapshot.map(StockSnapshot::getTakenAt).orElse(Instant.EPOCH);
+    var movedSince    = this.stockLedgerRepository.sumQuantity(productId, snapshotTaken, moment);
+
+    return new StockLevelDTO(productId, Math.toIntExact(snapshotStock + movedSince), moment);
+  }
+
+  /**
+   * Snapshots are all taken at the same moment, so the movements since the previous snapshots
+   * are those after the latest one. They are written in a single transaction, a partial run
+   * would leave products without the snapshot their next one is based on.
+   */
+  @Override
+  public void takeSnapshots() {
+    var takenAt  = Instant.now().minus(this.properties.snapshotLag());
+    var previous = this.stockSnapshotRepository.findLatestTakenAt().orElse(Instant.EPOCH);
+    if (!takenAt.isAfter(previous)) {
+      return;
+    }
+
+    var movedQuantities = this.stockLedgerRepository.sumQuantitiesByProduct(previous, takenAt);
+    if (movedQuantities.isEmpty()) {
+      return;
+    }
+
+    this.transactionTemplate.executeWithoutResult(status -> {
+      var batchSize = Math.max(1, this.properties.snapshotBatchSize());
+      for (var start = 0; start < movedQuantities.size(); start += batchSize) {
+        var batch = movedQuantities.subList(start,
+            Math.min(start + batchSize, movedQuantities.size()));
+        this.stockSnapshotRepository.saveAll(snapshotsOf(batch, takenAt));
+      }
+    });
+    log.debug("Took stock snapshots of {} products at {}", movedQuantities.size(), takenAt);
+  }
+
+  private List<StockSnapshot> snapshotsOf(List<ProductQuantity> movedQuantities,
+                                          Instant takenAt) {
+    var previousStocks = new HashMap<Long, Integer>();
+    this.stockSnapshotRepository.findLatestByProductIds(movedQuantities.stream()
+            .map(ProductQuantity::productId)
+            .toList())
+        .forEach(snapshot -> previousStocks.put(snapshot.getProductId(),
+            snapshot.getStockQuantity()));
+
+    var snapshots = new ArrayList<StockSnapshot>(movedQuantities.size());
+    for (var movedQuantity : movedQuantities) {
+      var previousStock = previousStocks.getOrDefault(movedQuantity.productId(), 0);
+      snapshots.add(StockSnapshot.builder()
+          .productId(movedQuantity.productId())
+          .stockQuantity(Math.toIntExact(previousStock + movedQuantity.quantity()))
+          .takenAt(takenAt)
+          .build());
+    }
+    return snapshots;
+  }
+
+  private void scheduledSnapshots() {
+    try {
+      takeSnapshots();
+    } catch (RuntimeException exception) {
+      log.error("Could not take the stock snapshots", exception);
+    }
+  }
+
+  private String nextCursor(List<StockMovement> movements, int pageSize) {
+    if (movements.isEmpty() || movements.size() < pageSize) {
+      return null;
+    }
+
+    var lastMovement = movements.get(movements.size() - 1);
+    return new StockMovementCursor(lastMovement.getCreatedAt(), lastMovement.getId()).encode();
+  }
+
+  private StockMovement movementOf(Long productId, int quantity, Instant createdAt) {
+    return StockMovement.builder()
+        .productId(productId)
+        .quantity(quantity)
+        .createdAt(createdAt)
+        .build();
+  }
+
+  /**
+   * The ledger outlives the products, so a deleted product with recorded movements still has a
+   * history.
+   */
+  private void verifyIfExists(Long productId) throws ProductNotFoundException {
+    if (!this.productRepository.existsById(productId)
+        && !this.stockLedgerRepository.existsByProductId(productId)) {
+      throw new ProductNotFoundException();
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.exceptions.HttpException;
+import com.gilberto.logistockapi.services.IStockMetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes {@code logistock.stock.movements}, tagged by direction, outcome and the exception of
+ * rejected movements, and {@code logistock.stock.units} with the quantity moved by the applied
+ * ones. The counters of applied movements are registered upfront since they are hit on every
+ * movement.
+ */
+@Service
+public class StockMetricsService implements IStockMetricsService {
+  
+  private static final String MOVEMENTS = "logistock.stock.movements";
+  
+  private static final String UNITS = "logistock.stock.units";
+  
+  private static final String INCREASE = "increase";
+  
+  private static final String DECREASE = "decrease";
+  
+  private final MeterRegistry meterRegistry;
+  
+  private final Counter increasesApplied;
+  
+  private final Counter decreasesApplied;
+  
+  private final Counter unitsIncreased;
+  
+  private final Counter unitsDecreased;
+  
+  public StockMetricsService(@Autowired MeterRegistry meterRegistry) {
+    this.meterRegistry    = meterRegistry;
+    this.increasesApplied = movements(INCREASE, "applied", "none");
+    this.decreasesApplied = movements(DECREASE, "applied", "none");
+    this.unitsIncreased   = units(INCREASE);
+    this.unitsDecreased   = units(DECREASE);
+  }
+  
+  @Override
+  public void recordApplied(int quantity) {
+    if (quantity >= 0) {
+      this.increasesApplied.increment();
+      this.unitsIncreased.increment(quantity);
+    } else {
+      this.decreasesApplied.increment();
+      this.unitsDecreased.increment(-quantity);
+    }
+  }
+  
+  @Override
+  public void recordRejected(int quantity, HttpException exception) {
+    movements(quantity >= 0 ? INCREASE : DECREASE, "rejected",
+        exception.getClass().getSimpleName()).increment();
+  }
+  
+  private Counter movements(String direction, String outcome, String exception) {
+    return Counter.builder(MOVEMENTS)
+        .description("Stock movements by direction and outcome")
+        .tag("direction", direction)
+        .tag("outcome", outcome)
+        .tag("exception", exception)
+        .register(this.meterRegistry);
+  }
+  
+  private Counter units(String direction) {
+    return Counter.builder(UNITS)
+        .description("Units added to or removed from the stock by applied movements")
+        .baseUnit("units")
+        .tag("direction", direction)
+        .register(this.meterRegistry);
+  }
+  
+}
@@ -0,0 +1,322 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.StockReservationProperties;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.models.dto.response.ReservationDTO;
+import com.gilberto.logistockapi.models.entity.Reservation;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IReservationRepository;
+import com.gilberto.logistockapi.services.IStockReservationService;
+import com.gilberto.logistockapi.services.IStockWriteBehindService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the quantity reserved of each product in striped in-memory maps backed by the
+ * reservations table, so a reservation is checked against the stock with a single lookup however
+ * many reservations the product already holds. Each reservation is expired by its own task on a
+ * single scheduler thread, whose queue is a heap ordered by expiry, so expired reservations are
+ * found without scanning the table. Like the write-behind mode, this assumes it is the only
+ * instance holding reservations.
+ */
+@Slf4j
+@Service
+public class StockReservationService implements IStockReservationService {
+
+  private static final Duration EXPIRY_RETRY_DELAY = Duration.ofSeconds(1);
+
+  private final StockReservationProperties properties;
+
+  private final IReservationRepository reservationRepository;
+
+  private final IProductRepository productRepository;
+
+  private final IStockWriteBehindService stockWriteBehindService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Stripe[] stripes;
+
+  private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+
+  private ScheduledThreadPoolExecutor scheduler;
+
+  public StockReservationService(@Autowired StockReservationProperties properties,
+                                 @Autowired IReservationRepository reservationRepository,
+                                 @Autowired IProductRepository productRepository,
+                                 @Autowired IStockWriteBehindService stockWriteBehindService,
+                                 @Autowired PlatformTransactionManager transactionManager) {
+    this.properties              = properties;
+    this.reservationRepository   = reservationRepository;
+    this.productRepository       = productRepository;
+    this.stockWriteBehindService = stockWriteBehindService;
+    // A commit is written before the product is unlocked, even when called inside a transaction.
+    this.transactionTemplate     = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.stripes                 = new Stripe[Math.max(1, properties.stripes())];
+    for (var index = 0; index < this.stripes.length; index++) {
+      this.stripes[index] = new Stripe();
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      var thread = new Thread(runnable, "stock-reservation-expiry");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Released and committed reservations leave the queue instead of waiting for their expiry.
+    this.scheduler.setRemoveOnCancelPolicy(true);
+
+    // Reservations outlive restarts, those that expired meanwhile are expired right away.
+    for (var reservation : this.reservationRepository.findAll()) {
+      var hold   = new Hold(reservation);
+      var stripe = stripeFor(hold.productId);
+      stripe.lock.lock();
+      try {
+        stripe.add(hold.productId, hold.quantity);
+        schedule(hold);
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    this.scheduler.shutdownNow();
+  }
+
+  @Override
+  public ReservationDTO reserve(ReservationForm reservationForm)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException {
+    var productId = reservationForm.productId();
+    var quantity  = reservationForm.quantity();
+    // The reservation is checked against the stored stock.
+    this.stockWriteBehindService.evict(productId);
+
+    var stripe = stripeFor(productId);
+    stripe.lock.lock();
+    try {
+      var stockQuantity = this.productRepository.findStockQuantityById(productId)
+          .orElseThrow(ProductNotFoundException::new);
+      if (stockQuantity - stripe.reservedQuantity(productId) < quantity) {
+        throw new ProductStockUnderThanZeroException();
+      }
+
+      var now         = Instant.now();
+      var reservation = this.reservationRepository.save(Reservation.builder()
+          .productId(productId)
+          .quantity(quantity)
+          .createdAt(now)
+          .expiresAt(now.plus(ttlOf(reservationForm)))
+          .build());
+
+      var hold = new Hold(reservation);
+      stripe.add(productId, quantity);
+      schedule(hold);
+      return hold.toReservationDTO();
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public ReservationDTO findById(Long reservationId) throws ReservationNotFoundException {
+    return holdOf(reservationId).toReservationDTO();
+  }
+
+  @Override
+  public void release(Long reservationId) throws ReservationNotFoundException {
+    var hold   = holdOf(reservationId);
+    var stripe = stripeFor(hold.productId);
+    stripe.lock.lock();
+    try {
+      verifyIfActive(hold);
+      this.reservationRepository.deleteById(reservationId);
+      end(hold, stripe);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public int commit(Long reservationId, StockUpdate stockUpdate)
+      throws ReservationNotFoundException {
+    var hold   = holdOf(reservationId);
+    var stripe = stripeFor(hold.productId);
+    stripe.lock.lock();
+    try {
+      verifyIfActive(hold);
+      var reservedByOthers = stripe.reservedQuantity(hold.productId) - hold.quantity;
+      var updatedRows      = ObjectUtils.defaultIfNull(this.transactionTemplate.execute(status -> {
+        var rows = stockUpdate.apply(reservedByOthers);
+        if (rows > 0) {
+          this.reservationRepository.deleteById(reservationId);
+        }
+        return rows;
+      }), 0);
+
+      if (updatedRows > 0) {
+        end(hold, stripe);
+      }
+      return updatedRows;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public int updateUnreserved(Long productId, StockUpdate stockUpdate) {
+    var stripe = stripeFor(productId);
+    stripe.lock.lock();
+    try {
+      return stockUpdate.apply(stripe.reservedQuantity(productId));
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  @Override
+  public int reservedQuantity(Long productId) {
+    var stripe = stripeFor(productId);
+    stripe.lock.lock();
+    try {
+      return stripe.reservedQuantity(productId);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  private void expire(Hold hold) {
+    var stripe = stripeFor(hold.productId);
+    stripe.lock.lock();
+    try {
+      if (this.holds.get(hold.id) != hold) {
+        return;
+      }
+      this.reservationRepository.deleteById(hold.id);
+      end(hold, stripe);
+    } catch (RuntimeException exception) {
+      log.error("Could not expire reservation {}, retrying in {}", hold.id, EXPIRY_RETRY_DELAY,
+          exception);
+      hold.expiry = this.scheduler.schedule(() -> expire(hold), EXPIRY_RETRY_DELAY.toNanos(),
+          TimeUnit.NANOSECONDS);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Must be called with the stripe of the product locked.
+   */
+  private void schedule(Hold hold) {
+    var delay = Math.max(0, Duration.between(Instant.now(), hold.expiresAt).toNanos());
+    this.holds.put(hold.id, hold);
+    hold.expiry = this.scheduler.schedule(() -> expire(hold), delay, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Must be called with the stripe of the product locked, once the reservation row is deleted.
+   */
+  private void end(Hold hold, Stripe stripe) {
+    this.holds.remove(hold.id);
+    stripe.subtract(hold.productId, hold.quantity);
+    hold.expiry.cancel(false);
+  }
+
+  private Hold holdOf(Long reservationId) throws ReservationNotFoundException {
+    var hold = this.holds.get(reservationId);
+    if (hold == null) {
+      throw new ReservationNotFoundException();
+    }
+    return hold;
+  }
+
+  /**
+   * Must be called with the stripe of the product locked, as the reservation may have ended
+   * since it was looked up.
+   */
+  private void verifyIfActive(Hold hold) throws ReservationNotFoundException {
+    if (this.holds.get(hold.id) != hold) {
+      throw new ReservationNotFoundException();
+    }
+  }
+
+  private Duration ttlOf(ReservationForm reservationForm) {
+    var ttl = ObjectUtils.defaultIfNull(reservationForm.ttl(), this.properties.defaultTtl());
+    return ttl.compareTo(this.properties.maxTtl()) > 0 ? this.properties.maxTtl() : ttl;
+  }
+
+  private Stripe stripeFor(Long productId) {
+    return this.stripes[Math.floorMod(productId.hashCode(), this.stripes.length)];
+  }
+
+  private static final class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, Integer> reservedQuantities = new HashMap<>();
+
+    private int reservedQuantity(Long productId) {
+      return this.reservedQuantities.getOrDefault(productId, 0);
+    }
+
+    private void add(Long productId, int quantity) {
+      this.reservedQuantities.merge(productId, quantity, Integer::sum);
+    }
+
+    private void subtract(Long productId, int quantity) {
+      this.reservedQuantities.computeIfPresent(productId,
+          (id, reserved) -> reserved == quantity ? null : reserved - quantity);
+    }
+
+  }
+
+  private static final class Hold {
+
+    private final Long id;
+
+    private final Long productId;
+
+    private final int quantity;
+
+    private final Instant expiresAt;
+
+    private ScheduledFuture<?> expiry;
+
+    private Hold(Reservation reservation) {
+      this.id        = reservation.getId();
+      this.productId = reservation.getProductId();
+      this.quantity  = reservation.getQuantity();
+      this.expiresAt = reservation.getExpiresAt();
+    }
+
+    private ReservationDTO toReservationDTO() {
+      return new ReservationDTO(this.id, this.productId, this.quantity, this.expiresAt);
+    }
+
+  }
+
+}
@@ -0,0 +1,625 @@
+package com.gilberto.logistockapi.services.implementations;
+
+import com.gilberto.logistockapi.config.StockWriteBehindProperties;
+import com.gilberto.logistockapi.config.StockWriteBehindProperties.Durability;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.mappers.IProductMapper;
+import com.gilberto.logistockapi.mappers.ProductMapper;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.WriteBehindFlush;
+import com.gilberto.logistockapi.models.entity.WriteBehindRejection;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.repositories.IWriteBehindFlushRepository;
+import com.gilberto.logistockapi.repositories.IWriteBehindRejectionRepository;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import com.gilberto.logistockapi.services.IProductCacheService;
+import com.gilberto.logistockapi.services.IReadYourWritesService;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import com.gilberto.logistockapi.services.IStockLedgerService;
+import com.gilberto.logistockapi.services.IStockWriteBehindService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Accumulates stock movements per product in striped in-memory accumulators and writes the net
+ * quantity of each product in one batch per flush. Movements are checked against the stock and
+ * maximum level cached when the product is first moved, so this mode assumes it is the only
+ * writer of the stock of the products it holds. When another writer breaks that assumption, the
+ * flush rejects the net quantity of the product, and the rejections of movements already
+ * acknowledged are recorded with the flush.
+ */
+@Slf4j
+@Service
+public class StockWriteBehindService implements IStockWriteBehindService {
+
+  private final StockWriteBehindProperties properties;
+
+  private final IProductRepository productRepository;
+
+  private final IStockMovementRepository stockMovementRepository;
+
+  private final IProductCacheService productCacheService;
+
+  private final IStockLedgerService stockLedgerService;
+
+  private final IStockAlertService stockAlertService;
+
+  private final IInventoryStatsService inventoryStatsService;
+
+  private final IReadYourWritesService readYourWritesService;
+
+  private final IWriteBehindFlushRepository writeBehindFlushRepository;
+
+  private final IWriteBehindRejectionRepository writeBehindRejectionRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final IProductMapper productMapper;
+
+  private final Stripe[] stripes;
+
+  /**
+   * Held shared while a movement is accumulated and exclusively while a flush drains the
+   * accumulators, so a movement always belongs to exactly one flush.
+   */
+  private final ReadWriteLock drainLock = new ReentrantReadWriteLock();
+
+  private final AtomicInteger pendingMovements = new AtomicInteger();
+
+  /**
+   * Completed by the next flush with the products whose net quantity it could not write.
+   */
+  private final AtomicReference<CompletableFuture<Set<Long>>> nextFlush =
+      new AtomicReference<>(new CompletableFuture<>());
+
+  private ScheduledExecutorService scheduler;
+
+  private StockAppendLog appendLog;
+
+  /**
+   * Sequence of the last append log segment, only changed while the drain lock is held.
+   */
+  private long sequence;
+
+  public StockWriteBehindService(@Autowired StockWriteBehindProperties properties,
+                                 @Autowired IProductRepository productRepository,
+                                 @Autowired IStockMovementRepository stockMovementRepository,
+                                 @Autowired IProductCacheService productCacheService,
+                                 @Autowired IStockLedgerService stockLedgerService,
+                                 @Autowired IStockAlertService stockAlertService,
+                                 @Autowired IInventoryStatsService inventoryStatsService,
+                                 @Autowired IReadYourWritesService readYourWritesService,
+                                 @Autowired IWriteBehindFlushRepository writeBehindFlushRepository,
+                                 @Autowired
+                                 IWriteBehindRejectionRepository writeBehindRejectionRepository,
+                                 @Autowired PlatformTransactionManager transactionManager) {
+    this.properties                     = properties;
+    this.productRepository              = productRepository;
+    this.stockMovementRepository        = stockMovementRepository;
+    this.productCacheService            = productCacheService;
+    this.stockLedgerService             = stockLedgerService;
+    this.stockAlertService              = stockAlertService;
+    this.inventoryStatsService          = inventoryStatsService;
+    this.readYourWritesService          = readYourWritesService;
+    this.writeBehindFlushRepository     = writeBehindFlushRepository;
+    this.writeBehindRejectionRepository = writeBehindRejectionRepository;
+    // Flushes commit on their own, even when triggered from inside another transaction.
+    this.transactionTemplate            = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.productMapper                  = new ProductMapper();
+    this.stripes                        = new Stripe[Math.max(1, properties.stripes())];
+    for (var index = 0; index < this.stripes.length; index++) {
+      this.stripes[index] = new Stripe();
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!this.properties.enabled()) {
+      return;
+    }
+
+    if (this.properties.durability() == Durability.APPEND_LOG) {
+      this.appendLog = new StockAppendLog(this.properties.logFile());
+      replay();
+      this.appendLog.open();
+    }
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "stock-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    var interval = this.properties.flushInterval().toMillis();
+    this.scheduler.scheduleWithFixedDelay(this::scheduledFlush, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (this.scheduler == null) {
+      return;
+    }
+
+    this.scheduler.shutdown();
+    flush();
+    if (this.appendLog != null) {
+      this.appendLog.close();
+    }
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return this.properties.enabled();
+  }
+
+  @Override
+  public ProductDTO increaseStock(Long id, Integer quantity)
+      throws ProductNotFoundException, ProductStockExceededException, ProductConflictException,
+      StockWriteTimeoutException {
+    var product = accumulate(id, quantity);
+    if (product == null) {
+      throw new ProductStockExceededException();
+    }
+    return product;
+  }
+
+  @Override
+  public ProductDTO decreaseStock(Long id, Integer quantity)
+      throws ProductNotFoundException, ProductStockUnderThanZeroException,
+      ProductConflictException, StockWriteTimeoutException {
+    var product = accumulate(id, -quantity);
+    if (product == null) {
+      throw new ProductStockUnderThanZeroException();
+    }
+    return product;
+  }
+
+  @Override
+  public synchronized void flush() {
+    var deltas = new HashMap<Long, Integer>();
+    CompletableFuture<Set<Long>> flushed;
+    Long sequence = null;
+
+    this.drainLock.writeLock().lock();
+    try {
+      for (var stripe : this.stripes) {
+        stripe.drainInto(deltas);
+      }
+      flushed = this.nextFlush.getAndSet(new CompletableFuture<>());
+      this.pendingMovements.set(0);
+      if (this.appendLog != null && !deltas.isEmpty()) {
+        sequence = ++this.sequence;
+        this.appendLog.rotate(sequence);
+      }
+    } finally {
+      this.drainLock.writeLock().unlock();
+    }
+
+    if (deltas.isEmpty()) {
+      flushed.complete(Set.of());
+      return;
+    }
+
+    Set<Long> rejected;
+    try {
+      rejected = write(deltas, sequence);
+    } catch (RuntimeException exception) {
+      // The movements were already accepted, so they go back to the accumulators and the
+      // callers waiting on this flush wait for the next one.
+      restore(deltas);
+      this.nextFlush.get().thenAccept(flushed::complete);
+      throw exception;
+    }
+
+    if (sequence != null) {
+      this.appendLog.discardThrough(sequence);
+    }
+    flushed.complete(rejected);
+  }
+
+  @Override
+  public synchronized void evict(Long id) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    flush();
+    var stripe = stripeFor(id);
+    stripe.lock.lock();
+    try {
+      if (stripe.accumulators.remove(id) != null) {
+        stripe.removals++;
+      }
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Adds the quantity to the accumulator of the product. A missing accumulator is loaded from the
+   * database without holding the locks, and only inserted when no accumulator of the stripe was
+   * dropped meanwhile, since the loaded stock could predate its flush.
+   *
+   * @return the product with its projected stock, or {@code null} when the projected stock would
+   *     be out of bounds.
+   * @throws ProductConflictException when the movement is acknowledged after the flush, and the
+   *     flush could not write it.
+   * @throws StockWriteTimeoutException when the movement is acknowledged after the flush, and the
+   *     flush does not end in time.
+   */
+  private ProductDTO accumulate(Long id, int quantity)
+      throws ProductNotFoundException, ProductConflictException, StockWriteTimeoutException {
+    var stripe                           = stripeFor(id);
+    ProductDTO product                   = null;
+    CompletableFuture<Set<Long>> flushed = null;
+    StockAccumulator loaded              = null;
+    long removals                        = -1;
+
+    while (product == null) {
+      this.drainLock.readLock().lock();
+      try {
+        stripe.lock.lock();
+        try {
+          var accumulator = stripe.accumulators.get(id);
+          if (accumulator == null && loaded != null && removals == stripe.removals) {
+            accumulator = loaded;
+            stripe.accumulators.put(id, accumulator);
+          }
+
+          if (accumulator == null) {
+            removals = stripe.removals;
+          } else {
+            var projectedStock = accumulator.projectedStock() + quantity;
+            if (projectedStock < 0 || projectedStock > accumulator.maxStockLevel) {
+              return null;
+            }
+
+            if (this.appendLog != null) {
+              this.appendLog.append(id, quantity);
+            }
+            accumulator.pendingQuantity += quantity;
+            accumulator.touched = true;
+            product = accumulator.withStock(projectedStock);
+            var stockLevel = accumulator.stockLevel(projectedStock);
+            this.stockAlertService.evaluate(stockLevel);
+            this.inventoryStatsService.recordMovement(stockLevel, quantity);
+            flushed = this.nextFlush.get();
+          }
+        } finally {
+          stripe.lock.unlock();
+        }
+      } finally {
+        this.drainLock.readLock().unlock();
+      }
+
+      if (product == null) {
+        loaded = load(id);
+      }
+    }
+
+    if (this.pendingMovements.incrementAndGet() >= this.properties.flushThreshold()
+        && !this.scheduler.isShutdown()) {
+      this.scheduler.execute(this::scheduledFlush);
+    }
+
+    if (this.properties.durability() == Durability.FLUSH_BEFORE_ACK
+        && awaitFlush(flushed).contains(id)) {
+      throw new ProductConflictException();
+    }
+
+    return product;
+  }
+
+  private Set<Long> awaitFlush(CompletableFuture<Set<Long>> flushed)
+      throws StockWriteTimeoutException {
+    try {
+      return flushed.get(this.properties.ackTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException exception) {
+      throw new StockWriteTimeoutException();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new StockWriteTimeoutException();
+    } catch (ExecutionException exception) {
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+
+  private StockAccumulator load(Long id) throws ProductNotFoundException {
+    var accumulator = this.transactionTemplate.execute(status ->
+        this.productRepository.findById(id)
+            .map(product -> new StockAccumulator(this.productMapper.toProductDTO(product),
+                product.getStockQuantity(), product.getMaxStockLevel(),
+                product.getReorderPoint()))
+            .orElse(null));
+
+    if (accumulator == null) {
+      throw new ProductNotFoundException();
+    }
+    return accumulator;
+  }
+
+  /**
+   * Writes the net quantities in one transaction, together with the sequence of the append log
+   * segment they come from when there is one. Unless their callers wait for the flush, the net
+   * quantities that could not be written were already acknowledged, so they are recorded as
+   * rejections in the same transaction.
+   *
+   * @return the products whose net quantity was not written.
+   */
+  private Set<Long> write(Map<Long, Integer> deltas, Long sequence) {
+    var movements = deltas.entrySet().stream()
+        .map(delta -> new StockMovementForm(delta.getKey(), null, delta.getValue()))
+        .toList();
+
+    // The ledger records the net quantity of each product per flush.
+    var updatedRows = this.transactionTemplate.execute(status -> {
+      var rows             = this.stockMovementRepository.applyStockMovements(movements);
+      var appliedMovements = new ArrayList<StockMovementForm>(movements.size());
+      for (var index = 0; index < movements.size(); index++) {
+        if (rows[index] > 0) {
+          appliedMovements.add(movements.get(index));
+        }
+      }
+      this.stockLedgerService.recordAll(appliedMovements);
+      if (this.properties.durability() != Durability.FLUSH_BEFORE_ACK) {
+        var rejectedAt = Instant.now();
+        var rejections = new ArrayList<WriteBehindRejection>();
+        for (var index = 0; index < movements.size(); index++) {
+          if (rows[index] == 0) {
+            rejections.add(WriteBehindRejection.builder()
+                .productId(movements.get(index).id())
+                .quantity(movements.get(index).quantity())
+                .rejectedAt(rejectedAt)
+                .build());
+          }
+        }
+        this.writeBehindRejectionRepository.saveAll(rejections);
+      }
+      if (sequence != null) {
+        this.writeBehindFlushRepository.save(new WriteBehindFlush(logFileKey(), sequence));
+      }
+      return rows;
+    });
+    deltas.keySet().forEach(productId -> {
+      this.readYourWritesService.recordWrite(productId);
+      this.productCacheService.evict(productId);
+    });
+
+    var rejectedMovements = new ArrayList<StockMovementForm>();
+    for (var index = 0; index < movements.size(); index++) {
+      if (updatedRows != null && updatedRows[index] == 0) {
+        rejectedMovements.add(movements.get(index));
+      }
+    }
+    if (!rejectedMovements.isEmpty()) {
+      reject(rejectedMovements);
+    }
+    return rejectedMovements.stream()
+        .map(StockMovementForm::id)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Reloads the accumulators of the products whose net quantity could not be written, keeping
+   * the movements accepted since the drain, and takes the rejected quantity back out of the
+   * aggregates it was already counted in. The alerts are evaluated again from the reloaded stock.
+   */
+  private void reject(List<StockMovementForm> rejectedMovements) {
+    for (var movement : rejectedMovements) {
+      var id = movement.id();
+      log.warn("Stock of product {} was changed outside the write-behind accumulators, " +
+          "rejecting its net quantity of {}", id, movement.quantity());
+
+      StockAccumulator reloaded;
+      try {
+        reloaded = load(id);
+      } catch (ProductNotFoundException exception) {
+        reloaded = null;
+      }
+
+      var stripe = stripeFor(id);
+      stripe.lock.lock();
+      try {
+        var accumulator = stripe.accumulators.get(id);
+        if (accumulator != null) {
+          this.inventoryStatsService.recordMovement(
+              accumulator.stockLevel(accumulator.persistedStock), -movement.quantity());
+        }
+        if (reloaded != null) {
+          if (accumulator != null) {
+            reloaded.pendingQuantity = accumulator.pendingQuantity;
+            reloaded.touched         = accumulator.touched;
+            stripe.accumulators.put(id, reloaded);
+          }
+          this.stockAlertService.evaluate(reloaded.stockLevel(reloaded.projectedStock()));
+        } else if (accumulator != null && accumulator.pendingQuantity == 0) {
+          // Movements accepted since the drain are left to the next flush, which rejects them.
+          stripe.accumulators.remove(id);
+          stripe.removals++;
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  private void restore(Map<Long, Integer> deltas) {
+    deltas.forEach((id, quantity) -> {
+      var stripe = stripeFor(id);
+      stripe.lock.lock();
+      try {
+        var accumulator = stripe.accumulators.get(id);
+        accumulator.persistedStock  -= quantity;
+        accumulator.pendingQuantity += quantity;
+      } finally {
+        stripe.lock.unlock();
+      }
+    });
+  }
+
+  /**
+   * Writes the segments whose flush did not commit, the current log being rotated into a new
+   * segment first so a crash during the replay never writes it twice.
+   */
+  private void replay() {
+    var committedSequence = this.writeBehindFlushRepository.findById(logFileKey())
+        .map(WriteBehindFlush::getSequence)
+        .orElse(0L);
+
+    this.sequence = Math.max(committedSequence, this.appendLog.lastSequence()) + 1;
+    this.appendLog.rotate(this.sequence);
+
+    var deltas = this.appendLog.readSegmentsAfter(committedSequence);
+    if (!deltas.isEmpty()) {
+      log.info("Replaying stock movements of {} products from {}", deltas.size(),
+          this.properties.logFile());
+      write(deltas, this.sequence);
+    }
+    this.appendLog.discardThrough(this.sequence);
+  }
+
+  private String logFileKey() {
+    return this.properties.logFile().toAbsolutePath().normalize().toString();
+  }
+
+  private void scheduledFlush() {
+    try {
+      flush();
+    } catch (RuntimeException exception) {
+      log.error("Could not flush the accumulated stock movements", exception);
+    }
+  }
+
+  private Stripe stripeFor(Long id) {
+    return this.stripes[Math.floorMod(id.hashCode(), this.stripes.length)];
+  }
+
+  private static final class Stripe {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, StockAccumulator> accumulators = new HashMap<>();
+
+    /**
+     * Number of accumulators dropped so far, so a product loaded without the lock is not inserted
+     * over a flush it missed.
+     */
+    private long removals;
+
+    /**
+     * Moves the pending quantities to the given map and drops accumulators that were not moved
+     * since the previous flush.
+     */
+    private void drainInto(Map<Long, Integer> deltas) {
+      this.lock.lock();
+      try {
+        List<Long> idle = new ArrayList<>();
+        this.accumulators.forEach((id, accumulator) -> {
+          if (accumulator.pendingQuantity != 0) {
+            deltas.put(id, accumulator.pendingQuantity);
+            accumulator.persistedStock += accumulator.pendingQuantity;
+            accumulator.pendingQuantity = 0;
+          } else if (!accumulator.touched) {
+            idle.add(id);
+          }
+          accumulator.touched = false;
+        });
+        idle.forEach(this.accumulators::remove);
+        this.removals += idle.size();
+      } finally {
+        this.lock.unlock();
+      }
+    }
+
+  }
+
+  private static final class StockAccumulator {
+
+    private final ProductDTO product;
+
+    private final int maxStockLevel;
+
+    private final int reorderPoint;
+
+    private int persistedStock;
+
+    private int pendingQuantity;
+
+    private boolean touched;
+
+    private StockAccumulator(ProductDTO product, int persistedStock, int maxStockLevel,
+                             int reorderPoint) {
+      this.product        = product;
+      this.persistedStock = persistedStock;
+      this.maxStockLevel  = maxStockLevel;
+      this.reorderPoint   = reorderPoint;
+    }
+
+    private int projectedStock() {
+      return this.persistedStock + this.pendingQuantity;
+    }
+
+    /**
+     * Level of the projected stock, without a version since it is not written yet.
+     */
+    private ProductStockLevel stockLevel(int stockQuantity) {
+      return new ProductStockLevel(this.product.id(), this.product.barCode(),
+          this.product.category(), this.product.measureUnit(), this.product.unitPrice(),
+          stockQuantity, this.maxStockLevel, this.reorderPoint, null);
+    }
+
+    /**
+     * The product with its projected stock, without a version either, since the one it was loaded
+     * at also names the stored stock and would tag two representations alike.
+     */
+    private ProductDTO withStock(int stockQuantity) {
+      return new ProductDTO(
+          this.product.id(),
+          this.product.name(),
+          this.product.barCode(),
+          this.product.category(),
+          this.product.supplier(),
+          this.product.unitPrice(),
+          this.product.measureUnit(),
+          stockQuantity,
+          this.product.description(),
+          null
+      );
+    }
+
+  }
+
+}
@@ -0,0 +1,5 @@
+-- Sequence of the last append log segment whose movements the stock write-behind committed.
+CREATE TABLE IF NOT EXISTS wbf_write_behind_flush(
+    wbf_log_file VARCHAR(255) NOT NULL PRIMARY KEY,
+    wbf_sequence BIGINT       NOT NULL
+);
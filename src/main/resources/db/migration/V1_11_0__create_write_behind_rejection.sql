@@ -0,0 +1,13 @@
+-- Net quantities the stock write-behind acknowledged before writing them and could not write,
+-- kept for the operators to reconcile. The product id is kept without a foreign key, so the
+-- rejections of a product outlive it.
+CREATE SEQUENCE IF NOT EXISTS wbr_write_behind_rejection_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS wbr_write_behind_rejection(
+    wbr_id          BIGINT  DEFAULT nextval('wbr_write_behind_rejection_seq') PRIMARY KEY,
+    wbr_product_id  BIGINT  NOT NULL,
+    wbr_quantity    INTEGER NOT NULL,
+    wbr_rejected_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+ALTER SEQUENCE wbr_write_behind_rejection_seq OWNED BY wbr_write_behind_rejection.wbr_id;
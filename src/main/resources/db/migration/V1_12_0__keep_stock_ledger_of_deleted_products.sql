@@ -0,0 +1,5 @@
+-- The ledger is an audit trail, so it outlives the products it records: their ids are kept
+-- without a foreign key instead of cascading the deletes of the products.
+ALTER TABLE stm_stock_movement DROP CONSTRAINT IF EXISTS stm_stock_movement_stm_product_id_fkey;
+
+ALTER TABLE sts_stock_snapshot DROP CONSTRAINT IF EXISTS sts_stock_snapshot_sts_product_id_fkey;
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_pro_product_entry_date_id
+    ON pro_product (pro_entry_date DESC, pro_id DESC);
@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_pro_product_name_trgm
+    ON pro_product USING gin (upper(pro_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_pro_product_barcode_trgm
+    ON pro_product USING gin (upper(pro_barcode) gin_trgm_ops);
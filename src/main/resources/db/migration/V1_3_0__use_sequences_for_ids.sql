@@ -0,0 +1,22 @@
+-- Ids are allocated by Hibernate from sequences in blocks of 50 (pooled-lo optimizer), which lets
+-- inserts be batched. Each sequence starts after the highest id in use, so existing ids are kept.
+-- The columns default to the sequence instead of the identity, so inserts without an id still
+-- work: a plain nextval() takes a whole block for itself and cannot collide with Hibernate.
+
+CREATE SEQUENCE IF NOT EXISTS add_address_seq INCREMENT BY 50;
+SELECT setval('add_address_seq', (SELECT COALESCE(MAX(add_id), 0) + 1 FROM add_address), false);
+ALTER TABLE add_address ALTER COLUMN add_id DROP IDENTITY IF EXISTS;
+ALTER TABLE add_address ALTER COLUMN add_id SET DEFAULT nextval('add_address_seq');
+ALTER SEQUENCE add_address_seq OWNED BY add_address.add_id;
+
+CREATE SEQUENCE IF NOT EXISTS sup_supplier_seq INCREMENT BY 50;
+SELECT setval('sup_supplier_seq', (SELECT COALESCE(MAX(sup_id), 0) + 1 FROM sup_supplier), false);
+ALTER TABLE sup_supplier ALTER COLUMN sup_id DROP IDENTITY IF EXISTS;
+ALTER TABLE sup_supplier ALTER COLUMN sup_id SET DEFAULT nextval('sup_supplier_seq');
+ALTER SEQUENCE sup_supplier_seq OWNED BY sup_supplier.sup_id;
+
+CREATE SEQUENCE IF NOT EXISTS pro_product_seq INCREMENT BY 50;
+SELECT setval('pro_product_seq', (SELECT COALESCE(MAX(pro_id), 0) + 1 FROM pro_product), false);
+ALTER TABLE pro_product ALTER COLUMN pro_id DROP IDENTITY IF EXISTS;
+ALTER TABLE pro_product ALTER COLUMN pro_id SET DEFAULT nextval('pro_product_seq');
+ALTER SEQUENCE pro_product_seq OWNED BY pro_product.pro_id;
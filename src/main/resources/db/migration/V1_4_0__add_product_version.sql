@@ -0,0 +1,2 @@
+ALTER TABLE pro_product
+    ADD COLUMN IF NOT EXISTS pro_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Stock held for a product until it is committed, released or its expiry passes. A row only
+-- exists while the reservation is active, so the active reservations of a product are its rows.
+CREATE SEQUENCE IF NOT EXISTS res_reservation_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS res_reservation(
+    res_id         BIGINT    DEFAULT nextval('res_reservation_seq') PRIMARY KEY,
+    res_product_id BIGINT    NOT NULL,
+    res_quantity   INTEGER   NOT NULL CHECK (res_quantity > 0),
+    res_created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    res_expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    FOREIGN KEY (res_product_id) REFERENCES pro_product (pro_id) ON DELETE CASCADE
+);
+
+ALTER SEQUENCE res_reservation_seq OWNED BY res_reservation.res_id;
+
+CREATE INDEX IF NOT EXISTS res_reservation_product_idx ON res_reservation (res_product_id);
@@ -0,0 +1,39 @@
+-- Append-only ledger of every applied stock movement, with periodic snapshots of the stock so
+-- the stock at any moment is the latest snapshot before it plus the movements after that.
+CREATE SEQUENCE IF NOT EXISTS stm_stock_movement_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS stm_stock_movement(
+    stm_id         BIGINT  DEFAULT nextval('stm_stock_movement_seq') PRIMARY KEY,
+    stm_product_id BIGINT  NOT NULL,
+    stm_quantity   INTEGER NOT NULL,
+    stm_created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    FOREIGN KEY (stm_product_id) REFERENCES pro_product (pro_id) ON DELETE CASCADE
+);
+
+ALTER SEQUENCE stm_stock_movement_seq OWNED BY stm_stock_movement.stm_id;
+
+CREATE INDEX IF NOT EXISTS stm_stock_movement_product_created_idx
+    ON stm_stock_movement (stm_product_id, stm_created_at);
+
+CREATE INDEX IF NOT EXISTS stm_stock_movement_created_idx
+    ON stm_stock_movement (stm_created_at);
+
+CREATE SEQUENCE IF NOT EXISTS sts_stock_snapshot_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS sts_stock_snapshot(
+    sts_id             BIGINT  DEFAULT nextval('sts_stock_snapshot_seq') PRIMARY KEY,
+    sts_product_id     BIGINT  NOT NULL,
+    sts_stock_quantity INTEGER NOT NULL,
+    sts_taken_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    FOREIGN KEY (sts_product_id) REFERENCES pro_product (pro_id) ON DELETE CASCADE
+);
+
+ALTER SEQUENCE sts_stock_snapshot_seq OWNED BY sts_stock_snapshot.sts_id;
+
+CREATE INDEX IF NOT EXISTS sts_stock_snapshot_product_taken_idx
+    ON sts_stock_snapshot (sts_product_id, sts_taken_at);
+
+-- The stock of the existing products is the baseline of their history.
+INSERT INTO sts_stock_snapshot (sts_product_id, sts_stock_quantity, sts_taken_at)
+SELECT pro_id, pro_stock_quantity, now()
+  FROM pro_product;
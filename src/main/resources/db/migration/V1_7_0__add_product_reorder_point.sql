@@ -0,0 +1,2 @@
+ALTER TABLE pro_product
+    ADD COLUMN IF NOT EXISTS pro_reorder_point INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Inventory aggregates of each category and measure unit, maintained by the application as the
+-- products and their stock change.
+CREATE TABLE IF NOT EXISTS ins_inventory_summary(
+    ins_category     VARCHAR(255)   NOT NULL,
+    ins_measure_unit VARCHAR(255)   NOT NULL,
+    ins_products     BIGINT         NOT NULL,
+    ins_units        BIGINT         NOT NULL,
+    ins_value        DECIMAL(38, 2) NOT NULL,
+    ins_updated_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (ins_category, ins_measure_unit)
+);
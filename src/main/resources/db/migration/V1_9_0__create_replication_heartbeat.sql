@@ -0,0 +1,5 @@
+-- Heartbeat written to the primary and read back from the replicas to measure their lag.
+CREATE TABLE IF NOT EXISTS rhb_replication_heartbeat(
+    rhb_id      BIGINT                   NOT NULL PRIMARY KEY,
+    rhb_beat_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
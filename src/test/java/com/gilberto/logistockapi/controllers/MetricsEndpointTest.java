@@ -0,0 +1,83 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.gilberto.logistockapi.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+  private static final String PRODUCT_API_URL_PATH = "/api/v1/product";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("metrics-barcode");
+    this.product = this.productRepository.save(newProduct);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+  }
+
+  @Test
+  void whenTheStockIsMovedThenTheScrapeMustExposeTheRequestPoolJpaAndStockMetrics()
+      throws Exception {
+    // given
+    var url = PRODUCT_API_URL_PATH + "/" + this.product.getId();
+
+    this.mockMvc.perform(patch(url + "/increase")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(new QuantityForm(10))))
+        .andExpect(status().isOk());
+    this.mockMvc.perform(patch(url + "/increase")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(new QuantityForm(this.product.getMaxStockLevel()))))
+        .andExpect(status().isBadRequest());
+
+    // when
+    var scrape = this.mockMvc.perform(get("/actuator/prometheus"));
+
+    // then
+    scrape.andExpect(status().isOk())
+        .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+        .andExpect(content().string(containsString("hikaricp_connections_pending")))
+        .andExpect(content().string(containsString("hibernate_query_executions_total")))
+        .andExpect(content().string(containsString("cache_gets_total{")))
+        .andExpect(content().string(containsString("logistock_stock_movements_total{" +
+            "application=\"LogiStockAPI\",direction=\"increase\",exception=\"none\"," +
+            "outcome=\"applied\",}")))
+        .andExpect(content().string(containsString("exception=\"ProductStockExceededException\"," +
+            "outcome=\"rejected\"")));
+  }
+
+}
@@ -0,0 +1,113 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProductControllerContentNegotiationTest {
+
+  private static final String PRODUCT_API_URL_PATH = "/api/v1/product";
+  private static final String SEARCH_QUERY         = "?search=negotiation-&pageSize=10";
+  private static final MediaType APPLICATION_SMILE  =
+      MediaType.parseMediaType("application/x-jackson-smile");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  private final List<Product> products = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    for (var index = 0; index < 2; index++) {
+      var product = ModelUtils.getProduct();
+      product.setId(null);
+      product.setBarCode("negotiation-" + index);
+      product.setCategory(Category.FOOD);
+      product.setSupplier(Supplier.builder()
+          .name("Supplier " + index)
+          .legalDocument("987.654.321-0" + index)
+          .build());
+      this.products.add(this.productRepository.save(product));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteAll(this.products);
+    this.products.clear();
+  }
+
+  @Test
+  void whenCborIsAcceptedThenThePageMustBeEncodedWithEnumOrdinals() throws Exception {
+    assertCompactPage(MediaType.APPLICATION_CBOR, new CBORMapper());
+  }
+
+  @Test
+  void whenSmileIsAcceptedThenThePageMustBeEncodedWithEnumOrdinals() throws Exception {
+    assertCompactPage(APPLICATION_SMILE, new SmileMapper());
+  }
+
+  @Test
+  void whenAnyFormatIsAcceptedThenThePageMustBeJson() throws Exception {
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + SEARCH_QUERY)
+            .accept(MediaType.ALL))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+        .andExpect(jsonPath("$[0].category", is(Category.FOOD.name())));
+  }
+
+  private void assertCompactPage(MediaType mediaType, ObjectMapper decoder) throws Exception {
+    // when
+    var body = this.mockMvc.perform(get(PRODUCT_API_URL_PATH + SEARCH_QUERY)
+            .accept(mediaType))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(mediaType))
+        .andReturn()
+        .getResponse()
+        .getContentAsByteArray();
+
+    // then
+    var tree     = decoder.readTree(body);
+    var products = decoder.readValue(body, new TypeReference<List<ProductDTO>>() {
+    });
+
+    assertThat(tree.get(0).get("category").isInt(), is(true));
+    assertThat(tree.get(0).get("category").intValue(), is(Category.FOOD.ordinal()));
+    assertThat(products.stream().map(ProductDTO::barCode).toList(),
+        contains("negotiation-1", "negotiation-0"));
+    assertThat(products.get(0).supplier().name(), is("Supplier 1"));
+  }
+
+}
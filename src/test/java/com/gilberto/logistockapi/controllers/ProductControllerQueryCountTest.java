@@ -0,0 +1,167 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.monitoring.SqlMetricsFilter;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import com.gilberto.logistockapi.utils.SqlMetricsTest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.gilberto.logistockapi.utils.JsonConvertionUtils.asJsonString;
+import static com.gilberto.logistockapi.utils.SqlMetricsUtils.maxStatements;
+import static com.gilberto.logistockapi.utils.SqlMetricsUtils.statements;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SqlMetricsTest
+public class ProductControllerQueryCountTest {
+
+  private static final String PRODUCT_API_URL_PATH = "/api/v1/product";
+  private static final int    PRODUCTS             = 5;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  private final List<Product> products = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    for (var index = 0; index < PRODUCTS; index++) {
+      var product = ModelUtils.getProduct();
+      product.setId(null);
+      product.setBarCode("query-count-" + index);
+      product.setSupplier(Supplier.builder()
+          .name("Supplier " + index)
+          .legalDocument("123.456.789-0" + index)
+          .build());
+      this.products.add(this.productRepository.save(product));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    // Reloads the products, whose versions changed with the stock.
+    this.productRepository.deleteAllById(this.products.stream().map(Product::getId).toList());
+    this.products.clear();
+  }
+
+  @Test
+  void whenAPageIsListedThenItsSuppliersMustBeLoadedByTheSameQuery() throws Exception {
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "?pageSize=10")
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(PRODUCTS)))
+        .andExpect(jsonPath("$[0].supplier.name").exists())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void whenAPageIsSearchedThenOnlyTheSearchMustBeQueried() throws Exception {
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "?pageSize=10&search=query-count-")
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(PRODUCTS)))
+        .andExpect(jsonPath("$[0].supplier.name").exists())
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void whenAProductIsFoundByIdThenItsSupplierMustBeLoadedByTheSameQuery() throws Exception {
+    // given
+    var product = this.products.get(0);
+
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/" + product.getId())
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.supplier.name", is("Supplier 0")))
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void whenAProductIsFoundByBarcodeThenItsSupplierMustBeLoadedByTheSameQuery() throws Exception {
+    // given
+    var product = this.products.get(1);
+
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/barcode/" + product.getBarCode())
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.supplier.name", is("Supplier 1")))
+        .andExpect(statements(1));
+  }
+
+  @Test
+  void whenAnUnchangedProductIsRevalidatedThenOnlyItsVersionMustBeQueried() throws Exception {
+    // given
+    var product = this.products.get(3);
+    var eTag    = "\"" + product.getVersion() + "\"";
+
+    // when then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/barcode/" + product.getBarCode())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(header().string(SqlMetricsFilter.ROWS_HEADER, "1"))
+        .andExpect(statements(1));
+  }
+
+  /**
+   * The update, the ledger insert and the reload, plus the ledger sequence fetched once every
+   * 50 movements.
+   */
+  @Test
+  void whenTheStockIsIncreasedThenOnlyTheUpdateTheLedgerAndTheReloadMustBeQueried()
+      throws Exception {
+    // given
+    var product = this.products.get(2);
+
+    // when then
+    this.mockMvc.perform(patch(PRODUCT_API_URL_PATH + "/" + product.getId() + "/increase")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(new QuantityForm(1))))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(SqlMetricsFilter.ROWS_HEADER))
+        .andExpect(header().exists(SqlMetricsFilter.TIME_HEADER))
+        .andExpect(maxStatements(4));
+  }
+
+  @Test
+  void whenStockMovementsAreAppliedThenTheQueriesMustNotGrowWithTheMovements() throws Exception {
+    // given
+    var movements = this.products.stream()
+        .map(product -> new StockMovementForm(product.getId(), null, 1))
+        .toList();
+
+    // when then
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + "/stock/movements")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(new StockMovementsForm(movements))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()", is(PRODUCTS)))
+        .andExpect(maxStatements(4));
+  }
+
+}
@@ -1,12 +1,44 @@
 package com.gilberto.logistockapi.controllers;
 
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
 import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
 import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
 import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.models.dto.request.ProductExportFilter;
+import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
 import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementFilter;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.dto.response.ErrorDTO;
+import com.gilberto.logistockapi.models.dto.response.InventoryAggregateDTO;
+import com.gilberto.logistockapi.models.dto.response.InventoryStatsDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductCacheStatsDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductImportErrorDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductImportResultDTO;
+import com.gilberto.logistockapi.models.dto.response.ProductPageDTO;
+import com.gilberto.logistockapi.models.dto.response.StockAlertDTO;
+import com.gilberto.logistockapi.models.dto.response.StockLevelDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementPageDTO;
+import com.gilberto.logistockapi.models.dto.response.StockMovementResultDTO;
+import com.gilberto.logistockapi.models.dto.response.TotalHitsDTO;
 import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.HitCount;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.models.projections.ProductVersion;
+import com.gilberto.logistockapi.services.IInventoryStatsService;
+import com.gilberto.logistockapi.services.IProductCacheService;
+import com.gilberto.logistockapi.services.IProductExportService;
+import com.gilberto.logistockapi.services.IProductImportService;
+import com.gilberto.logistockapi.services.IStockAlertService;
+import com.gilberto.logistockapi.services.IStockLedgerService;
 import com.gilberto.logistockapi.services.implementations.ProductService;
 import com.gilberto.logistockapi.utils.ModelUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +48,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -25,13 +58,31 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import static com.gilberto.logistockapi.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +94,7 @@ public class ProductControllerTest {
   private static final String PRODUCT_API_SUBPATH_INCREASE_URL = "/increase";
   private static final String PRODUCT_API_SUBPATH_DECREASE_URL = "/decrease";
   private static final String PRODUCT_API_SUBPATH_BAR_CODE     = "/barcode";
+  private static final String PRODUCT_API_SUBPATH_MOVEMENTS    = "/stock/movements";
   public static final  String QUERY_PARAMS                     = "?pageNumber=1&pageSize=10&" +
       "search=search&categories=ELECTRONIC, CLOTHING, FOOD, OTHER";
   
@@ -51,6 +103,24 @@ public class ProductControllerTest {
   @Mock
   private ProductService productService;
   
+  @Mock
+  private IProductCacheService productCacheService;
+  
+  @Mock
+  private IProductExportService productExportService;
+  
+  @Mock
+  private IProductImportService productImportService;
+  
+  @Mock
+  private IStockLedgerService stockLedgerService;
+  
+  @Mock
+  private IStockAlertService stockAlertService;
+  
+  @Mock
+  private IInventoryStatsService inventoryStatsService;
+  
   @InjectMocks
   private ProductController productController;
   
@@ -87,7 +157,7 @@ public class ProductControllerTest {
   void whenPOSTIsCalledWithoutRequiredFieldThenBadRequestStatusMustBeReturned() throws Exception {
     // given
     var productForm = new ProductForm(null, null, null, null,
-        null, null, null, null, null);
+        null, null, null, null, null, null);
     
     // then
     this.mockMvc.perform(post(PRODUCT_API_URL_PATH)
@@ -120,7 +190,7 @@ public class ProductControllerTest {
     var productDTO        = ModelUtils.getProductDTO();
     
     // when
-    when(this.productService.updateById(PRODUCT_ID, productUpdateForm))
+    when(this.productService.updateById(PRODUCT_ID, productUpdateForm, null))
         .thenReturn(productDTO);
     
     // then
@@ -137,7 +207,7 @@ public class ProductControllerTest {
   void whenPUTIsCalledWithoutRequiredFieldThenBadRequestStatusMustBeReturned() throws Exception {
     // given
     var productUpdateForm = new ProductUpdateForm(null, null, null,
-        null, null, null, null);
+        null, null, null, null, null);
     
     
     // then
@@ -155,7 +225,7 @@ public class ProductControllerTest {
     
     // when
     doThrow(ProductNotFoundException.class)
-        .when(this.productService).updateById(INVALID_PRODUCT_ID, productUpdateForm);
+        .when(this.productService).updateById(INVALID_PRODUCT_ID, productUpdateForm, null);
     
     
     // then
@@ -219,6 +289,46 @@ public class ProductControllerTest {
         .andExpect(jsonPath("$.name", is(productDTO.name())));
   }
   
+  @Test
+  void whenGETIsCalledWithTheCurrentETagThenNotModifiedStatusMustBeReturned() throws Exception {
+    // given
+    var productDTO = ModelUtils.getProductDTO();
+    var eTag       = "\"" + productDTO.version() + "\"";
+    
+    // when
+    when(this.productService.findVersionById(PRODUCT_ID))
+        .thenReturn(new ProductVersion(PRODUCT_ID, productDTO.version()));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID)
+            .header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(content().string(""));
+    verify(this.productService, never()).findById(PRODUCT_ID);
+  }
+  
+  @Test
+  void whenGETIsCalledWithAnOutdatedETagThenTheProductMustBeReturnedWithItsETag()
+      throws Exception {
+    // given
+    var productDTO = ModelUtils.getProductDTO();
+    
+    // when
+    when(this.productService.findVersionByBarCode(productDTO.barCode()))
+        .thenReturn(new ProductVersion(PRODUCT_ID, productDTO.version()));
+    when(this.productService.findByBarCode(productDTO.barCode()))
+        .thenReturn(productDTO);
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + PRODUCT_API_SUBPATH_BAR_CODE + "/" +
+            productDTO.barCode())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + productDTO.version() + "\""))
+        .andExpect(jsonPath("$.id", is(productDTO.id().intValue())));
+  }
+  
   @Test
   void whenGETIsCalledWithInvalidIdThenNotFoundStatusMustBeReturned() throws Exception {
     // when
@@ -231,6 +341,96 @@ public class ProductControllerTest {
         .andExpect(status().isNotFound());
   }
   
+  // GET STATS
+  @Test
+  void whenGETStatsIsCalledThenTheInventoryAggregatesMustBeReturned() throws Exception {
+    // given
+    var aggregate = new InventoryAggregateDTO(2, 30, BigDecimal.valueOf(59.70));
+    var stats     = new InventoryStatsDTO(aggregate, Map.of(Category.FOOD, aggregate),
+        Map.of(MeasureUnit.UNIT, aggregate));
+    
+    // when
+    when(this.inventoryStatsService.stats()).thenReturn(stats);
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total.units", is(30)))
+        .andExpect(jsonPath("$.byCategory.FOOD.products", is(2)))
+        .andExpect(jsonPath("$.byMeasureUnit.UNIT.value", is(59.7)));
+  }
+  
+  // GET ALERTS
+  @Test
+  void whenGETAlertsIsCalledWithATypeThenTheAlertsOfThatTypeMustBeReturned() throws Exception {
+    // given
+    var alert = new StockAlertDTO(PRODUCT_ID, "barcode", StockAlertType.LOW_STOCK, 2, 5, 100);
+    
+    // when
+    when(this.stockAlertService.listAll(StockAlertType.LOW_STOCK))
+        .thenReturn(List.of(alert));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/alerts")
+            .param("type", StockAlertType.LOW_STOCK.name()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].productId", is((int) PRODUCT_ID)))
+        .andExpect(jsonPath("$[0].type", is(StockAlertType.LOW_STOCK.name())));
+  }
+  
+  // GET MOVEMENTS
+  @Test
+  void whenGETMovementsIsCalledWithAPeriodThenTheMovementsOfThePeriodMustBeReturned()
+      throws Exception {
+    // given
+    var from     = Instant.parse("2024-01-01T00:00:00Z");
+    var to       = Instant.parse("2024-02-01T00:00:00Z");
+    var movement = new StockMovementDTO(5L, -3, from.plusSeconds(60));
+    
+    // when
+    when(this.stockLedgerService.findMovements(PRODUCT_ID,
+        new StockMovementFilter(from, to, 10, null)))
+        .thenReturn(new StockMovementPageDTO(List.of(movement), "next-cursor"));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + "/movements")
+            .param("from", from.toString())
+            .param("to", to.toString())
+            .param("pageSize", "10"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "next-cursor"))
+        .andExpect(jsonPath("$[0].id", is(5)))
+        .andExpect(jsonPath("$[0].quantity", is(-3)));
+  }
+  
+  @Test
+  void whenGETStockAtIsCalledThenTheStockAtThatMomentMustBeReturned() throws Exception {
+    // given
+    var at = Instant.parse("2024-01-15T12:00:00Z");
+    
+    // when
+    when(this.stockLedgerService.findStockAt(PRODUCT_ID, at))
+        .thenReturn(new StockLevelDTO(PRODUCT_ID, 42, at));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + "/movements/stock")
+            .param("at", at.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.productId", is((int) PRODUCT_ID)))
+        .andExpect(jsonPath("$.stockQuantity", is(42)));
+  }
+  
+  @Test
+  void whenGETStockAtIsCalledWithInvalidIdThenNotFoundStatusMustBeReturned() throws Exception {
+    // when
+    when(this.stockLedgerService.findStockAt(INVALID_PRODUCT_ID, null))
+        .thenThrow(ProductNotFoundException.class);
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/" + INVALID_PRODUCT_ID + "/movements/stock"))
+        .andExpect(status().isNotFound());
+  }
+  
   // GET ALL
   @Test
   void whenGETIsCalledToListProductsThenAProductListMustBeReturned() throws Exception {
@@ -240,7 +440,7 @@ public class ProductControllerTest {
     
     // when
     when(this.productService.listAll(productFilter))
-        .thenReturn(Collections.singletonList(productDTO));
+        .thenReturn(new ProductPageDTO(Collections.singletonList(productDTO), null, null, null));
     
     // then
     this.mockMvc.perform(get(PRODUCT_API_URL_PATH + QUERY_PARAMS)
@@ -258,7 +458,7 @@ public class ProductControllerTest {
     
     // when
     when(productService.listAll(productFilter))
-        .thenReturn(Collections.emptyList());
+        .thenReturn(new ProductPageDTO(Collections.emptyList(), null, null, null));
     
     // then
     this.mockMvc.perform(get(PRODUCT_API_URL_PATH + QUERY_PARAMS)
@@ -266,6 +466,64 @@ public class ProductControllerTest {
         .andExpect(status().isOk());
   }
   
+  @Test
+  void whenGETIsCalledToListProductsThenTheNextCursorMustBeReturnedInTheHeader() throws Exception {
+    // given
+    var productFilter = ModelUtils.getProductFilter();
+    var productDTO    = ModelUtils.getProductDTO();
+    
+    // when
+    when(this.productService.listAll(productFilter))
+        .thenReturn(new ProductPageDTO(Collections.singletonList(productDTO), "cursor", null,
+            null));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + QUERY_PARAMS)
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ProductController.NEXT_CURSOR_HEADER, "cursor"));
+  }
+  
+  @Test
+  void whenGETIsCalledWithFacetsAndTotalHitsThenTheyMustBeReturnedInTheHeaders()
+      throws Exception {
+    // given
+    var productFilter = new ProductFilter(null, 10, null, null, null, true, HitCount.ESTIMATED);
+    var facets        = new EnumMap<Category, Long>(Category.class);
+    facets.put(Category.CLOTHING, 2L);
+    facets.put(Category.FOOD, 3L);
+    
+    // when
+    when(this.productService.listAll(productFilter))
+        .thenReturn(new ProductPageDTO(Collections.emptyList(), null, facets,
+            new TotalHitsDTO(120, true)));
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH +
+            "?pageSize=10&facets=true&totalHits=ESTIMATED")
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ProductController.CATEGORY_FACETS_HEADER,
+            "CLOTHING=2, FOOD=3"))
+        .andExpect(header().string(ProductController.TOTAL_HITS_HEADER, "120"))
+        .andExpect(header().string(ProductController.TOTAL_HITS_ESTIMATED_HEADER, "true"));
+  }
+  
+  @Test
+  void whenGETIsCalledWithAnInvalidCursorThenBadRequestStatusMustBeReturned() throws Exception {
+    // given
+    var productFilter = new ProductFilter(null, 10, null, null, "invalid", null, null);
+    
+    // when
+    when(this.productService.listAll(productFilter))
+        .thenThrow(InvalidCursorException.class);
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "?pageSize=10&cursor=invalid")
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+  }
+  
   // DELETE
   @Test
   void whenDELETEIsCalledWithValidIdThenNoContentStatusMustBeReturned() throws Exception {
@@ -298,7 +556,7 @@ public class ProductControllerTest {
     var productDTO   = ModelUtils.getProductDTO();
     
     // when
-    when(this.productService.increaseStock(PRODUCT_ID, quantityForm))
+    when(this.productService.increaseStock(PRODUCT_ID, quantityForm, null))
         .thenReturn(productDTO);
     
     // then
@@ -326,7 +584,7 @@ public class ProductControllerTest {
     var quantityForm = new QuantityForm(91);
     
     // when
-    when(this.productService.increaseStock(PRODUCT_ID, quantityForm))
+    when(this.productService.increaseStock(PRODUCT_ID, quantityForm, null))
         .thenThrow(ProductStockExceededException.class);
     
     // then
@@ -336,13 +594,91 @@ public class ProductControllerTest {
         .andExpect(status().isBadRequest());
   }
   
+  @Test
+  void whenPATCHIsCalledWithAnIfMatchHeaderThenTheIncreaseMustBeConditionalOnItsVersion()
+      throws Exception {
+    // given
+    var quantityForm = new QuantityForm(10);
+    var productDTO   = ModelUtils.getProductDTO();
+    
+    // when
+    when(this.productService.increaseStock(PRODUCT_ID, quantityForm, 3L))
+        .thenReturn(productDTO);
+    
+    // then
+    this.mockMvc.perform(patch(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + PRODUCT_API_SUBPATH_INCREASE_URL)
+            .header(HttpHeaders.IF_MATCH, "\"3\"")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(quantityForm)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + productDTO.version() + "\""));
+  }
+  
+  @Test
+  void whenPATCHIsCalledWithAnOutdatedIfMatchHeaderThenPreconditionFailedStatusMustBeReturned()
+      throws Exception {
+    // given
+    var quantityForm = new QuantityForm(10);
+    
+    // when
+    when(this.productService.findVersionById(PRODUCT_ID))
+        .thenReturn(new ProductVersion(PRODUCT_ID, 5L));
+    
+    // then
+    this.mockMvc.perform(patch(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + PRODUCT_API_SUBPATH_DECREASE_URL)
+            .header(HttpHeaders.IF_MATCH, "\"3\", \"4\", W/\"5\"")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(quantityForm)))
+        .andExpect(status().isPreconditionFailed());
+    verify(this.productService, never()).decreaseStock(any(), any(), any());
+  }
+  
+  @Test
+  void whenPATCHIsCalledWithAnIfMatchHeaderTooLongForAVersionThenPreconditionFailedStatusMustBeReturned()
+      throws Exception {
+    // given
+    var quantityForm = new QuantityForm(10);
+    
+    // when
+    when(this.productService.findVersionById(PRODUCT_ID))
+        .thenReturn(new ProductVersion(PRODUCT_ID, 5L));
+    
+    // then
+    this.mockMvc.perform(patch(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + PRODUCT_API_SUBPATH_INCREASE_URL)
+            .header(HttpHeaders.IF_MATCH, "\"99999999999999999999\"")
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(quantityForm)))
+        .andExpect(status().isPreconditionFailed());
+    verify(this.productService, never()).increaseStock(any(), any(), any());
+  }
+  
+  @Test
+  void whenPATCHReturnsAProjectedStockThenNoETagMustBeReturned() throws Exception {
+    // given
+    var quantityForm = new QuantityForm(10);
+    var productDTO   = ModelUtils.getProductDTO();
+    var projected    = new ProductDTO(productDTO.id(), productDTO.name(), productDTO.barCode(),
+        productDTO.category(), productDTO.supplier(), productDTO.unitPrice(),
+        productDTO.measureUnit(), productDTO.stockQuantity() + 10, productDTO.description(), null);
+    
+    // when
+    when(this.productService.increaseStock(PRODUCT_ID, quantityForm, null)).thenReturn(projected);
+    
+    // then
+    this.mockMvc.perform(patch(PRODUCT_API_URL_PATH + "/" + PRODUCT_ID + PRODUCT_API_SUBPATH_INCREASE_URL)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(quantityForm)))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+  
   @Test
   void whenPATCHIsCalledWithInvalidProductIdToIncreaseStockThenNotFoundStatusMustBeReturned() throws Exception {
     // given
     var quantityForm = new QuantityForm(30);
     
     // when
-    when(this.productService.increaseStock(INVALID_PRODUCT_ID, quantityForm))
+    when(this.productService.increaseStock(INVALID_PRODUCT_ID, quantityForm, null))
         .thenThrow(ProductNotFoundException.class);
     
     // then
@@ -360,7 +696,7 @@ public class ProductControllerTest {
     var productDTO   = ModelUtils.getProductDTO();
     
     // when
-    when(this.productService.decreaseStock(PRODUCT_ID, quantityForm))
+    when(this.productService.decreaseStock(PRODUCT_ID, quantityForm, null))
         .thenReturn(productDTO);
     
     // then
@@ -388,7 +724,7 @@ public class ProductControllerTest {
     var quantityForm = new QuantityForm(11);
     
     // when
-    when(this.productService.decreaseStock(PRODUCT_ID, quantityForm))
+    when(this.productService.decreaseStock(PRODUCT_ID, quantityForm, null))
         .thenThrow(ProductStockUnderThanZeroException.class);
     
     // then
@@ -404,7 +740,7 @@ public class ProductControllerTest {
     var quantityForm = new QuantityForm(5);
     
     // when
-    when(this.productService.decreaseStock(INVALID_PRODUCT_ID, quantityForm))
+    when(this.productService.decreaseStock(INVALID_PRODUCT_ID, quantityForm, null))
         .thenThrow(ProductNotFoundException.class);
     
     // then
@@ -414,4 +750,125 @@ public class ProductControllerTest {
         .andExpect(status().isNotFound());
   }
   
+  // POST Stock Movements
+  @Test
+  void whenPOSTIsCalledToApplyStockMovementsThenTheResultsMustBeReturned() throws Exception {
+    // given
+    var movementsForm = ModelUtils.getStockMovementsForm();
+    var resultDTO     = new StockMovementResultDTO(PRODUCT_ID, "barcode", 10, 20, null);
+    
+    // when
+    when(this.productService.applyStockMovements(movementsForm))
+        .thenReturn(Collections.singletonList(resultDTO));
+    
+    // then
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + PRODUCT_API_SUBPATH_MOVEMENTS)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(movementsForm)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id", is(resultDTO.id().intValue())))
+        .andExpect(jsonPath("$[0].stockQuantity", is(resultDTO.stockQuantity())));
+  }
+  
+  @Test
+  void whenPOSTIsCalledToApplyAnEmptyListOfStockMovementsThenBadRequestStatusMustBeReturned()
+      throws Exception {
+    // given
+    var movementsForm = new StockMovementsForm(Collections.emptyList());
+    
+    // then
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + PRODUCT_API_SUBPATH_MOVEMENTS)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(movementsForm)))
+        .andExpect(status().isBadRequest());
+  }
+  
+  @Test
+  void whenPOSTIsCalledWithAnOutOfBoundsStockMovementThenBadRequestStatusMustBeReturned()
+      throws Exception {
+    // given
+    var movementsForm = new StockMovementsForm(List.of(
+        new StockMovementForm(PRODUCT_ID, null, Integer.MAX_VALUE)));
+    
+    // then
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + PRODUCT_API_SUBPATH_MOVEMENTS)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(movementsForm)))
+        .andExpect(status().isBadRequest());
+  }
+  
+  // GET Cache Stats
+  @Test
+  void whenGETIsCalledToReadTheCacheStatsThenTheStatsMustBeReturned() throws Exception {
+    // given
+    var statsDTO = new ProductCacheStatsDTO(3, 1, 0, 0.75, 1);
+    
+    // when
+    when(this.productCacheService.stats())
+        .thenReturn(statsDTO);
+    
+    // then
+    this.mockMvc.perform(get(PRODUCT_API_URL_PATH + "/cache/stats")
+            .contentType(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hitCount", is(3)))
+        .andExpect(jsonPath("$.missCount", is(1)));
+  }
+  
+  // Export
+  @Test
+  void whenGETExportIsCalledWithTheCsvFormatThenTheCatalogMustBeStreamedAsCsv()
+      throws Exception {
+    // given
+    var filter = new ProductExportFilter("search", null, CatalogFormat.CSV);
+    
+    // when
+    doAnswer(invocation -> {
+      invocation.<OutputStream>getArgument(1).write("id\r\n1\r\n".getBytes());
+      return null;
+    }).when(this.productExportService).export(eq(filter), any());
+    
+    // then
+    var result = this.mockMvc.perform(
+            get(PRODUCT_API_URL_PATH + "/export?search=search&format=CSV"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    
+    this.mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(CONTENT_TYPE, "text/csv"))
+        .andExpect(header().string(CONTENT_DISPOSITION, containsString("products.csv")))
+        .andExpect(content().string("id\r\n1\r\n"));
+  }
+  
+  // Import
+  @Test
+  void whenPOSTImportIsCalledWithAnNdjsonFileThenTheImportResultMustBeReturned()
+      throws Exception {
+    // given
+    var resultDTO = new ProductImportResultDTO(2, 1, Collections.singletonList(
+        new ProductImportErrorDTO(3, "barcode", new ErrorDTO(400, "Product already registered!"))));
+    
+    // when
+    when(this.productImportService.importProducts(eq(CatalogFormat.NDJSON), any()))
+        .thenReturn(resultDTO);
+    
+    // then
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + "/import")
+            .contentType("application/x-ndjson")
+            .content("{}\n{}\n{}\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported", is(2)))
+        .andExpect(jsonPath("$.errors[0].row", is(3)));
+  }
+  
+  @Test
+  void whenPOSTImportIsCalledWithAnUnsupportedFileThenUnsupportedMediaTypeMustBeReturned()
+      throws Exception {
+    this.mockMvc.perform(post(PRODUCT_API_URL_PATH + "/import")
+            .contentType(APPLICATION_JSON)
+            .content("[]"))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+  
 }
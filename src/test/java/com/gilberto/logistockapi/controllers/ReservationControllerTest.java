@@ -0,0 +1,133 @@
+package com.gilberto.logistockapi.controllers;
+
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.models.dto.response.ReservationDTO;
+import com.gilberto.logistockapi.services.IProductService;
+import com.gilberto.logistockapi.services.IStockReservationService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import static com.gilberto.logistockapi.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationControllerTest {
+  
+  private static final long   PRODUCT_ID               = 1L;
+  private static final long   RESERVATION_ID           = 3L;
+  private static final String RESERVATION_API_URL_PATH = "/api/v1/reservation";
+  
+  private MockMvc mockMvc;
+  
+  @Mock
+  private IStockReservationService stockReservationService;
+  
+  @Mock
+  private IProductService productService;
+  
+  @InjectMocks
+  private ReservationController reservationController;
+  
+  @BeforeEach
+  void setUp() {
+    this.mockMvc = MockMvcBuilders.standaloneSetup(reservationController).build();
+  }
+  
+  // POST
+  @Test
+  void whenPOSTIsCalledThenTheStockMustBeReserved() throws Exception {
+    // given
+    var reservationForm = new ReservationForm(PRODUCT_ID, 2, Duration.ofMinutes(5));
+    var reservation     = new ReservationDTO(RESERVATION_ID, PRODUCT_ID, 2, Instant.now());
+    
+    // when
+    when(this.stockReservationService.reserve(reservationForm))
+        .thenReturn(reservation);
+    
+    // then
+    this.mockMvc.perform(post(RESERVATION_API_URL_PATH)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(reservationForm)))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Location", RESERVATION_API_URL_PATH + "/" + RESERVATION_ID))
+        .andExpect(jsonPath("$.id", is((int) RESERVATION_ID)))
+        .andExpect(jsonPath("$.quantity", is(2)));
+  }
+  
+  @Test
+  void whenPOSTIsCalledWithoutAQuantityThenAnErrorMustBeReturned() throws Exception {
+    // given
+    var reservationForm = new ReservationForm(PRODUCT_ID, null, null);
+    
+    // then
+    this.mockMvc.perform(post(RESERVATION_API_URL_PATH)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(reservationForm)))
+        .andExpect(status().isBadRequest());
+  }
+  
+  @Test
+  void whenPOSTIsCalledWithMoreThanTheAvailableStockThenAnErrorMustBeReturned()
+      throws Exception {
+    // given
+    var reservationForm = new ReservationForm(PRODUCT_ID, 200, null);
+    
+    // when
+    when(this.stockReservationService.reserve(reservationForm))
+        .thenThrow(ProductStockUnderThanZeroException.class);
+    
+    // then
+    this.mockMvc.perform(post(RESERVATION_API_URL_PATH)
+            .contentType(APPLICATION_JSON)
+            .content(asJsonString(reservationForm)))
+        .andExpect(status().isBadRequest());
+  }
+  
+  @Test
+  void whenPOSTIsCalledToCommitAReservationThenTheUpdatedProductMustBeReturned()
+      throws Exception {
+    // given
+    var productDTO = ModelUtils.getProductDTO();
+    
+    // when
+    when(this.productService.commitReservation(RESERVATION_ID))
+        .thenReturn(productDTO);
+    
+    // then
+    this.mockMvc.perform(post(RESERVATION_API_URL_PATH + "/" + RESERVATION_ID + "/commit"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.stockQuantity", is(productDTO.stockQuantity())));
+  }
+  
+  // DELETE
+  @Test
+  void whenDELETEIsCalledWithAnEndedReservationThenNotFoundStatusMustBeReturned()
+      throws Exception {
+    // when
+    doThrow(ReservationNotFoundException.class)
+        .when(this.stockReservationService).release(RESERVATION_ID);
+    
+    // then
+    this.mockMvc.perform(delete(RESERVATION_API_URL_PATH + "/" + RESERVATION_ID))
+        .andExpect(status().isNotFound());
+  }
+  
+}
@@ -0,0 +1,177 @@
+package com.gilberto.logistockapi.datasource;
+
+import com.gilberto.logistockapi.models.dto.request.ProductFilter;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.services.IProductService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Runs the application on two embedded databases, the second one standing for a replica that
+ * only catches up with the primary when the test copies it over.
+ */
+@SpringBootTest(properties = {
+    "logistock.datasource-routing.enabled=true",
+    "logistock.datasource-routing.replicas[0].url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+    "logistock.datasource-routing.lag-check-interval=1h",
+    "logistock.datasource-routing.max-replica-lag=2s"
+})
+public class ReplicaRoutingDataSourceTest {
+
+  static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+  private static final String UPDATE_NAME_SQL = "update pro_product set pro_name = ? " +
+      "where pro_id = ?";
+
+  @Autowired
+  private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+  @Autowired
+  private IProductService productService;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+
+  @TempDir
+  private Path scriptDirectory;
+
+  private JdbcTemplate replicaTemplate;
+
+  private Product product;
+
+  private Long createdProductId;
+
+  @BeforeEach
+  void setUp() {
+    this.replicaTemplate = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL,
+        this.dataSourceProperties.determineUsername(),
+        this.dataSourceProperties.determinePassword()));
+
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setName("Replicated name");
+    newProduct.setBarCode("replica-barcode");
+    newProduct.setStockQuantity(0);
+    this.product = this.productRepository.save(newProduct);
+    catchUp();
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+    if (this.createdProductId != null) {
+      this.productRepository.deleteById(this.createdProductId);
+      this.createdProductId = null;
+    }
+  }
+
+  @Test
+  void whenAReadRunsInAReplicaScopeThenTheReplicaMustServeIt() {
+    // given
+    var productId = this.product.getId();
+
+    // when
+    this.jdbcTemplate.update(UPDATE_NAME_SQL, "Primary name", productId);
+
+    // then
+    assertThat(readFromReplica(productId).name(), is("Replicated name"));
+    assertThat(this.productRepository.findViewById(productId).orElseThrow().name(),
+        is("Primary name"));
+  }
+
+  @Test
+  void whenTheStockOfAProductChangesThenItsNextReadsMustSeeTheChange() throws Exception {
+    // given
+    var productId = this.product.getId();
+
+    // when
+    var updatedProduct = this.productService.increaseStock(productId, new QuantityForm(5), null);
+
+    // then
+    assertThat(updatedProduct.stockQuantity(), is(5));
+    assertThat(this.productService.findById(productId).stockQuantity(), is(5));
+    assertThat(readFromReplica(productId).stockQuantity(), is(0));
+  }
+
+  @Test
+  void whenAProductIsCreatedThenItMustBeFoundByBarCodeAndListed() throws Exception {
+    // given
+    var form = ModelUtils.getProductForm();
+
+    // when
+    this.createdProductId = this.productService.create(new ProductForm(form.name(),
+        "replica-created", form.category(), form.supplier(), form.unitPrice(),
+        form.stockQuantity(), form.maxStockLevel(), form.reorderPoint(), form.measureUnit(),
+        form.description())).id();
+
+    // then
+    var page = this.productService.listAll(
+        new ProductFilter(0, 10, "replica-created", null, null, null, null));
+
+    assertThat(this.productService.findByBarCode("replica-created").id(),
+        is(this.createdProductId));
+    assertThat(page.content().stream().map(ProductDTO::barCode).toList(),
+        hasItem("replica-created"));
+    assertThat(ReplicaReadScope.read(
+        () -> this.productRepository.findViewByBarCode("replica-created")).isPresent(), is(false));
+  }
+
+  @Test
+  void whenTheReplicaLagsMoreThanTheToleranceThenTheReadsMustGoToThePrimary() throws Exception {
+    // given
+    var productId = this.product.getId();
+    this.jdbcTemplate.update(UPDATE_NAME_SQL, "Primary name", productId);
+
+    // when
+    Thread.sleep(2500);
+    this.replicaRoutingDataSource.checkLag();
+
+    // then
+    assertThat(readFromReplica(productId).name(), is("Primary name"));
+  }
+
+  private ProductView readFromReplica(Long productId) {
+    return ReplicaReadScope.read(() -> this.productRepository.findViewById(productId))
+        .orElseThrow();
+  }
+
+  /**
+   * Writes a heartbeat, copies the primary to the replica with it and measures the lag again,
+   * so the replica is up to date and available.
+   */
+  private void catchUp() {
+    this.replicaRoutingDataSource.checkLag();
+
+    var script = this.scriptDirectory.resolve("primary.sql").toString();
+    this.jdbcTemplate.execute("script to '" + script + "'");
+    this.replicaTemplate.execute("drop all objects");
+    this.replicaTemplate.execute("runscript from '" + script + "'");
+
+    this.replicaRoutingDataSource.checkLag();
+  }
+
+}
@@ -0,0 +1,70 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+public class ProductRepositoryBatchInsertTest {
+  
+  private static final int PRODUCTS = 100;
+  
+  @Autowired
+  private IProductRepository productRepository;
+  
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  
+  private final List<Product> products = new ArrayList<>();
+  
+  private Statistics statistics;
+  
+  @BeforeEach
+  void setUp() {
+    this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    this.statistics.clear();
+  }
+  
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteAllInBatch(this.products);
+    this.products.clear();
+  }
+  
+  @Test
+  void whenProductsAreSavedTogetherThenTheirIdsAndInsertsMustBeBatched() {
+    // given
+    var newProducts = new ArrayList<Product>();
+    for (var index = 0; index < PRODUCTS; index++) {
+      var product = ModelUtils.getProduct();
+      product.setId(null);
+      product.setBarCode("batch-insert-" + index);
+      newProducts.add(product);
+    }
+    
+    // when
+    this.products.addAll(this.productRepository.saveAll(newProducts));
+    
+    // then
+    assertThat(this.statistics.getEntityInsertCount(), is((long) PRODUCTS));
+    // Two blocks of 50 ids and two batches of 50 inserts.
+    assertThat(this.statistics.getPrepareStatementCount(), lessThanOrEqualTo(4L));
+  }
+  
+}
@@ -0,0 +1,138 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.dto.request.ProductCursor;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.projections.ProductView;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository.ProductSearchCriteria;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+public class ProductSearchRepositoryTest {
+
+  private static final List<Category> ALL_CATEGORIES = Arrays.asList(Category.values());
+
+  @Autowired
+  private IProductSearchRepository productSearchRepository;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  private final List<Product> products = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    this.products.add(saveProduct("Green Apple", "search-7890001"));
+    this.products.add(saveProduct("Red apple", "search-7890002"));
+    this.products.add(saveProduct("Discount 100%", "search-1230003"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteAll(this.products);
+    this.products.clear();
+  }
+
+  @Test
+  void whenSearchingByNameThenTheMatchMustBeCaseInsensitive() {
+    // when
+    var result = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "aPPle", null, 0, 10));
+
+    // then
+    assertThat(names(result), containsInAnyOrder("Green Apple", "Red apple"));
+  }
+
+  @Test
+  void whenSearchingByBarcodeSubstringThenTheMatchingProductsMustBeReturned() {
+    // when
+    var result = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "123", null, 0, 10));
+
+    // then
+    assertThat(names(result), contains("Discount 100%"));
+  }
+
+  @Test
+  void whenSearchingByANumericIdThenTheProductWithThatIdMustBeReturned() {
+    // given
+    var product = this.products.get(1);
+
+    // when
+    var result = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, product.getId().toString(), null, 0, 10));
+
+    // then
+    assertThat(result.stream().anyMatch(found -> found.id().equals(product.getId())), is(true));
+  }
+
+  @Test
+  void whenTheSearchContainsLikeWildcardsThenTheyMustBeMatchedLiterally() {
+    // when
+    var percent    = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "0%", null, 0, 10));
+    var underscore = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "search_", null, 0, 10));
+
+    // then
+    assertThat(names(percent), contains("Discount 100%"));
+    assertThat(underscore, is(empty()));
+  }
+
+  @Test
+  void whenACursorIsGivenThenOnlyTheProductsAfterItMustBeReturned() {
+    // given
+    var firstPage = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "search-", null, 0, 2));
+    var lastProduct = firstPage.get(firstPage.size() - 1);
+    var cursor      = new ProductCursor(lastProduct.entryDate(), lastProduct.id());
+
+    // when
+    var secondPage = this.productSearchRepository.search(
+        new ProductSearchCriteria(ALL_CATEGORIES, "search-", cursor, 0, 2));
+
+    // then
+    assertThat(secondPage.size(), is(1));
+    assertThat(firstPage.stream().noneMatch(productView ->
+        productView.id().equals(secondPage.get(0).id())), is(true));
+  }
+
+  @Test
+  void whenCountingByCategoryThenOnlyTheMatchingProductsMustBeCounted() {
+    // when
+    var counts = this.productSearchRepository.countByCategory("apple");
+
+    // then
+    assertThat(counts.get(Category.FOOD), is(2L));
+    assertThat(counts.containsKey(Category.CLOTHING), is(false));
+  }
+
+  private Product saveProduct(String name, String barCode) {
+    var product = ModelUtils.getProduct();
+    product.setId(null);
+    product.setName(name);
+    product.setBarCode(barCode);
+    return this.productRepository.save(product);
+  }
+
+  private List<String> names(List<ProductView> productViews) {
+    return productViews.stream()
+        .map(ProductView::name)
+        .toList();
+  }
+
+}
@@ -0,0 +1,125 @@
+package com.gilberto.logistockapi.repositories;
+
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+@SpringBootTest
+public class StockMovementRepositoryTest {
+  
+  @Autowired
+  private IStockMovementRepository stockMovementRepository;
+  
+  @Autowired
+  private IProductRepository productRepository;
+  
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  
+  private TransactionTemplate transactionTemplate;
+  
+  private Product product;
+  
+  @BeforeEach
+  void setUp() {
+    this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("movement-barcode");
+    this.product = this.productRepository.save(newProduct);
+  }
+  
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+  }
+  
+  @Test
+  void shouldApplyOnlyTheMovementsThatKeepTheStockWithinBounds() {
+    // given
+    var movements = List.of(
+        new StockMovementForm(this.product.getId(), null, 50),
+        new StockMovementForm(null, this.product.getBarCode(), -20),
+        new StockMovementForm(this.product.getId(), null, 61),
+        new StockMovementForm(null, this.product.getBarCode(), -41),
+        new StockMovementForm(Long.MAX_VALUE, null, 1));
+    
+    // when
+    var updatedRows = this.stockMovementRepository.applyStockMovements(movements);
+    var stockLevels = this.stockMovementRepository.findStockLevels(movements);
+    
+    // then
+    assertThat(updatedRows[0], is(1));
+    assertThat(updatedRows[1], is(1));
+    assertThat(updatedRows[2], is(0));
+    assertThat(updatedRows[3], is(0));
+    assertThat(updatedRows[4], is(0));
+    assertThat(stockLevels, hasSize(1));
+    assertThat(stockLevels.get(0).stockQuantity(), is(40));
+  }
+  
+  @Test
+  void shouldRejectOnlyTheMovementThatWouldOverflowTheStock() {
+    // given
+    this.product.setStockQuantity(Integer.MAX_VALUE - 1);
+    this.product.setMaxStockLevel(Integer.MAX_VALUE);
+    this.product = this.productRepository.save(this.product);
+    var movements = List.of(
+        new StockMovementForm(this.product.getId(), null, 5),
+        new StockMovementForm(this.product.getId(), null, -1));
+    
+    // when
+    var updatedRows = this.stockMovementRepository.applyStockMovements(movements);
+    
+    // then
+    assertThat(updatedRows[0], is(0));
+    assertThat(updatedRows[1], is(1));
+    assertThat(this.stockMovementRepository.findStockLevels(movements).get(0).stockQuantity(),
+        is(Integer.MAX_VALUE - 2));
+  }
+  
+  @Test
+  void shouldStreamOnlyTheProductsUnderTheirReorderPointOrOverstocked() {
+    // given
+    this.product.setReorderPoint(this.product.getStockQuantity());
+    this.product = this.productRepository.save(this.product);
+    
+    // when
+    var alertingIds = this.transactionTemplate.execute(status -> {
+      try (var stockLevels = this.stockMovementRepository.streamAlertingStockLevels(0.9)) {
+        return stockLevels.map(ProductStockLevel::id).toList();
+      }
+    });
+    
+    // then
+    assertThat(alertingIds, hasItem(this.product.getId()));
+    
+    // when
+    this.product.setReorderPoint(this.product.getStockQuantity() - 1);
+    this.product = this.productRepository.save(this.product);
+    alertingIds = this.transactionTemplate.execute(status -> {
+      try (var stockLevels = this.stockMovementRepository.streamAlertingStockLevels(0.9)) {
+        return stockLevels.map(ProductStockLevel::id).toList();
+      }
+    });
+    
+    // then
+    assertThat(alertingIds, not(hasItem(this.product.getId())));
+  }
+  
+}
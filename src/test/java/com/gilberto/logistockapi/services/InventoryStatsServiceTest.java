@@ -0,0 +1,128 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.InventoryStatsProperties;
+import com.gilberto.logistockapi.models.dto.request.ProductForm;
+import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.response.InventoryAggregateDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.repositories.IInventorySummaryRepository;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.services.implementations.InventoryStatsService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+public class InventoryStatsServiceTest {
+
+  @Autowired
+  private IProductService productService;
+
+  @Autowired
+  private IInventoryStatsService inventoryStatsService;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  @Autowired
+  private IInventorySummaryRepository inventorySummaryRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  void whenProductsAndTheirStockChangeThenTheAggregatesMustFollow() throws Exception {
+    // given
+    var before      = this.inventoryStatsService.stats().byCategory().get(Category.CLOTHING);
+    var productForm = ModelUtils.getProductForm();
+
+    // when
+    var product = this.productService.create(productForm);
+    this.productService.increaseStock(product.id(), new QuantityForm(5), null);
+    this.productService.decreaseStock(product.id(), new QuantityForm(3), null);
+
+    // then
+    var created = this.inventoryStatsService.stats().byCategory().get(Category.CLOTHING);
+
+    assertAggregate(created, before.products() + 1, before.units() + 12,
+        before.value().add(BigDecimal.valueOf(23.88)));
+
+    // when
+    this.productService.updateById(product.id(), new ProductUpdateForm("Updated name",
+        Category.FOOD, null, BigDecimal.valueOf(2.50), 100, 0, MeasureUnit.UNIT, null), null);
+
+    // then
+    var moved = this.inventoryStatsService.stats().byCategory().get(Category.FOOD);
+
+    assertAggregate(this.inventoryStatsService.stats().byCategory().get(Category.CLOTHING),
+        before.products(), before.units(), before.value());
+
+    // when
+    this.productService.delete(product.id());
+
+    // then
+    var deleted = this.inventoryStatsService.stats().byCategory().get(Category.FOOD);
+
+    assertAggregate(deleted, moved.products() - 1, moved.units() - 12,
+        moved.value().subtract(BigDecimal.valueOf(30)));
+  }
+
+  @Test
+  void whenTheAggregatesAreRebuiltThenTheyMustMatchTheCatalog() throws Exception {
+    // given
+    var productForm = ModelUtils.getProductForm();
+    var product     = this.productService.create(new ProductForm(productForm.name(),
+        "rebuild-barcode", productForm.category(), null, productForm.unitPrice(),
+        productForm.stockQuantity(), productForm.maxStockLevel(), productForm.reorderPoint(),
+        productForm.measureUnit(), productForm.description()));
+    this.productService.increaseStock(product.id(), new QuantityForm(7), null);
+
+    // when
+    var rebuiltService = new InventoryStatsService(
+        new InventoryStatsProperties(Duration.ofHours(1), 2), this.productRepository,
+        this.inventorySummaryRepository, this.transactionManager);
+    rebuiltService.start();
+
+    try {
+      // then
+      var products = this.productRepository.findAll();
+      var rebuilt  = rebuiltService.stats();
+
+      assertAggregate(rebuilt.total(), products.size(),
+          products.stream().mapToLong(Product::getStockQuantity).sum(),
+          products.stream()
+              .map(stored -> stored.getUnitPrice()
+                  .multiply(BigDecimal.valueOf(stored.getStockQuantity())))
+              .reduce(BigDecimal.ZERO, BigDecimal::add));
+      assertThat(summedUnits(), is(rebuilt.total().units()));
+    } finally {
+      rebuiltService.stop();
+      this.productService.delete(product.id());
+    }
+  }
+
+  private void assertAggregate(InventoryAggregateDTO aggregate, long products, long units,
+                               BigDecimal value) {
+    assertThat(aggregate.products(), is(products));
+    assertThat(aggregate.units(), is(units));
+    assertThat(aggregate.value(), comparesEqualTo(value));
+  }
+
+  private long summedUnits() {
+    return this.inventorySummaryRepository.findAll().stream()
+        .mapToLong(summary -> summary.getUnits())
+        .sum();
+  }
+
+}
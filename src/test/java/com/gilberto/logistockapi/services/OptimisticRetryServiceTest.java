@@ -0,0 +1,66 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.OptimisticRetryProperties;
+import com.gilberto.logistockapi.services.implementations.OptimisticRetryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class OptimisticRetryServiceTest {
+  
+  private static final String OPERATION = "product.update";
+  
+  private SimpleMeterRegistry meterRegistry;
+  
+  private OptimisticRetryService optimisticRetryService;
+  
+  @BeforeEach
+  void setUp() {
+    this.meterRegistry          = new SimpleMeterRegistry();
+    this.optimisticRetryService = new OptimisticRetryService(
+        new OptimisticRetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(2)),
+        this.meterRegistry);
+  }
+  
+  @Test
+  void whenAnOperationRunsOutOfAttemptsThenItMustNotBeRetried() {
+    // when
+    var retriedFirst  = this.optimisticRetryService.backoff(OPERATION, 1);
+    var retriedSecond = this.optimisticRetryService.backoff(OPERATION, 2);
+    var retriedThird  = this.optimisticRetryService.backoff(OPERATION, 3);
+    
+    // then
+    assertThat(retriedFirst, is(true));
+    assertThat(retriedSecond, is(true));
+    assertThat(retriedThird, is(false));
+    assertThat(conflicts("retried"), is(2.0));
+    assertThat(conflicts("exhausted"), is(1.0));
+  }
+  
+  @Test
+  void whenAnOperationIsRetriedThenTheBackoffMustNotExceedTheMaximum() {
+    // when
+    var start = System.nanoTime();
+    for (var retry = 0; retry < 20; retry++) {
+      this.optimisticRetryService.backoff(OPERATION, 2);
+    }
+    var elapsed = Duration.ofNanos(System.nanoTime() - start);
+    
+    // then
+    assertThat(elapsed.compareTo(Duration.ofSeconds(1)), is(lessThan(0)));
+  }
+  
+  private double conflicts(String outcome) {
+    return this.meterRegistry.get("logistock.optimistic.conflicts")
+        .tag("operation", OPERATION)
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+  
+}
@@ -0,0 +1,112 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.ProductCacheProperties;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.services.implementations.ProductCacheService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ProductCacheServiceTest {
+  
+  private ProductCacheService productCacheService;
+  
+  private AtomicInteger loads;
+  
+  @BeforeEach
+  void setUp() {
+    this.productCacheService = new ProductCacheService(
+        new ProductCacheProperties(100, Duration.ofMinutes(1)));
+    this.loads = new AtomicInteger();
+  }
+  
+  @Test
+  void whenAProductIsLoadedByIdThenTheNextLookupMustBeAHit() {
+    // when
+    this.productCacheService.findById(1L, this::load);
+    var product = this.productCacheService.findById(1L, this::load);
+    
+    // then
+    assertThat(product.isPresent(), is(true));
+    assertThat(this.loads.get(), is(1));
+    assertThat(this.productCacheService.stats().hitCount(), is(1L));
+    assertThat(this.productCacheService.stats().missCount(), is(1L));
+  }
+  
+  @Test
+  void whenAProductIsNotFoundThenItMustNotBeCached() {
+    // when
+    this.productCacheService.findById(1L, id -> notFound());
+    var product = this.productCacheService.findById(1L, this::load);
+    
+    // then
+    assertThat(product.isPresent(), is(true));
+    assertThat(this.productCacheService.stats().size(), is(1L));
+  }
+  
+  @Test
+  void whenABarcodeIsKnownThenTheProductCachedByIdMustBeReturned() {
+    // given
+    var barCode = ModelUtils.getProductDTO().barCode();
+    
+    // when
+    this.productCacheService.findByBarCode(barCode, code -> load(1L));
+    this.productCacheService.findByBarCode(barCode, code -> load(1L));
+    this.productCacheService.findByBarCode(barCode, code -> load(1L));
+    this.productCacheService.findById(1L, this::load);
+    
+    // then
+    assertThat(this.loads.get(), is(2));
+    assertThat(this.productCacheService.stats().hitCount(), is(2L));
+  }
+  
+  @Test
+  void whenAProductIsEvictedThenBothLookupsMustLoadItAgain() {
+    // given
+    var barCode = ModelUtils.getProductDTO().barCode();
+    this.productCacheService.findByBarCode(barCode, code -> load(1L));
+    this.productCacheService.findById(1L, this::load);
+    
+    // when
+    this.productCacheService.evict(1L);
+    this.productCacheService.findByBarCode(barCode, code -> load(1L));
+    
+    // then
+    assertThat(this.loads.get(), is(3));
+  }
+  
+  @Test
+  void whenTheCacheIsFullThenEntriesMustBeEvicted() {
+    // given
+    var productCacheService = new ProductCacheService(
+        new ProductCacheProperties(10, Duration.ofMinutes(1)));
+    
+    // when
+    for (var id = 0L; id < 100; id++) {
+      productCacheService.findById(id, this::load);
+    }
+    
+    // then
+    assertThat(productCacheService.stats().evictionCount() > 0, is(true));
+  }
+  
+  private Optional<ProductDTO> load(Long id) {
+    this.loads.incrementAndGet();
+    var product = ModelUtils.getProductDTO();
+    return Optional.of(new ProductDTO(id, product.name(), product.barCode(), product.category(),
+        product.supplier(), product.unitPrice(), product.measureUnit(), product.stockQuantity(),
+        product.description(), product.version()));
+  }
+  
+  private Optional<ProductDTO> notFound() {
+    this.loads.incrementAndGet();
+    return Optional.empty();
+  }
+  
+}
@@ -0,0 +1,113 @@
+package com.gilberto.logistockapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.models.dto.request.ProductExportFilter;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.entity.Supplier;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = "logistock.product-export.fetch-size=2")
+public class ProductExportServiceTest {
+  
+  @Autowired
+  private IProductExportService productExportService;
+  
+  @Autowired
+  private IProductRepository productRepository;
+  
+  @Autowired
+  private ObjectMapper objectMapper;
+  
+  private final List<Product> products = new ArrayList<>();
+  
+  @BeforeEach
+  void setUp() {
+    this.products.add(saveProduct("Green Apple", "export-1", Category.FOOD));
+    this.products.add(saveProduct("Apples, \"red\"", "export-2", Category.FOOD));
+    this.products.add(saveProduct("Apple charger", "export-3", Category.ELECTRONIC));
+  }
+  
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteAll(this.products);
+    this.products.clear();
+  }
+  
+  @Test
+  void whenTheCatalogIsExportedAsNdjsonThenEachMatchingProductMustBeALine() throws Exception {
+    // given
+    var filter = new ProductExportFilter("export-", List.of(Category.FOOD), null);
+    
+    // when
+    var lines = export(filter);
+    
+    // then
+    var names = lines.stream()
+        .map(line -> readProduct(line).name())
+        .toList();
+    assertThat(names, contains("Apples, \"red\"", "Green Apple"));
+    assertThat(readProduct(lines.get(0)).supplier().name(), is("Supplier export-2"));
+  }
+  
+  @Test
+  void whenTheCatalogIsExportedAsCsvThenValuesWithSeparatorsMustBeQuoted() throws Exception {
+    // given
+    var filter = new ProductExportFilter("export-", null, CatalogFormat.CSV);
+    
+    // when
+    var lines = export(filter);
+    
+    // then
+    assertThat(lines.size(), is(4));
+    assertThat(lines.get(0).startsWith("id,name,barCode,"), is(true));
+    assertThat(lines, hasItem(this.products.get(1).getId() +
+        ",\"Apples, \"\"red\"\"\",export-2,FOOD,1.99,KILOGRAM,10,description," +
+        this.products.get(1).getSupplier().getId() + ",Supplier export-2,legal-export-2,,"));
+  }
+  
+  private List<String> export(ProductExportFilter filter) throws Exception {
+    var outputStream = new ByteArrayOutputStream();
+    this.productExportService.export(filter, outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+  
+  private ProductDTO readProduct(String line) {
+    try {
+      return this.objectMapper.readValue(line, ProductDTO.class);
+    } catch (Exception exception) {
+      throw new IllegalStateException(exception);
+    }
+  }
+  
+  private Product saveProduct(String name, String barCode, Category category) {
+    var product = ModelUtils.getProduct();
+    product.setId(null);
+    product.setName(name);
+    product.setBarCode(barCode);
+    product.setCategory(category);
+    product.setSupplier(Supplier.builder()
+        .name("Supplier " + barCode)
+        .legalDocument("legal-" + barCode)
+        .build());
+    return this.productRepository.save(product);
+  }
+  
+}
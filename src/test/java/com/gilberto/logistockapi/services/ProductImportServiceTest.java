@@ -0,0 +1,164 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.models.dto.response.ProductImportErrorDTO;
+import com.gilberto.logistockapi.models.enums.CatalogFormat;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.ISupplierRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+@SpringBootTest(properties = "logistock.product-import.batch-size=2")
+public class ProductImportServiceTest {
+  
+  private static final String LEGAL_DOCUMENT = "987.654.321-00";
+  
+  private static final List<String> BAR_CODES = List.of("import-1", "import-2", "import-3",
+      "import-4", "import-5");
+  
+  @Autowired
+  private IProductImportService productImportService;
+  
+  @Autowired
+  private IProductRepository productRepository;
+  
+  @Autowired
+  private ISupplierRepository supplierRepository;
+  
+  @Autowired
+  private NamedParameterJdbcTemplate jdbcTemplate;
+  
+  @AfterEach
+  void tearDown() {
+    // Deleting the products through JPA would cascade to the supplier they share.
+    this.jdbcTemplate.update("delete from pro_product where pro_barcode in (:barCodes)",
+        Map.of("barCodes", BAR_CODES));
+    this.jdbcTemplate.update("delete from sup_supplier where sup_legal_document = :document",
+        Map.of("document", LEGAL_DOCUMENT));
+  }
+  
+  @Test
+  void whenAnNdjsonFileIsImportedThenTheValidRowsMustBeCreatedAndTheOthersReported()
+      throws Exception {
+    // given
+    var registered = ModelUtils.getProduct();
+    registered.setId(null);
+    registered.setBarCode("import-5");
+    this.productRepository.save(registered);
+    
+    var ndjson = String.join("\n",
+        productJson("import-1"),
+        productJson("import-2"),
+        "{\"name\": \"Broken\"",
+        productJson("import-1"),
+        "{\"name\": \"N\", \"barCode\": \"import-4\"}",
+        "",
+        productJson("import-3"),
+        productJson("import-5"));
+    
+    // when
+    var result = this.productImportService.importProducts(CatalogFormat.NDJSON, toStream(ndjson));
+    
+    // then
+    assertThat(result.imported(), is(3));
+    assertThat(result.failed(), is(4));
+    assertThat(result.errors().stream().map(ProductImportErrorDTO::row).toList(),
+        contains(3L, 4L, 5L, 8L));
+    assertThat(result.errors().get(1).error().message(), is("Product already registered!"));
+    assertThat(result.errors().get(2).error().code(), is(400));
+    
+    var supplier = this.supplierRepository.findByLegalDocument(LEGAL_DOCUMENT).orElseThrow();
+    assertThat(this.productRepository.findByBarCode("import-3").orElseThrow()
+        .getSupplier().getId(), is(supplier.getId()));
+    assertThat(this.productRepository.findByBarCode("import-1").orElseThrow()
+        .getSupplier().getId(), is(supplier.getId()));
+  }
+  
+  @Test
+  void whenAnNdjsonLineIsNullThenItMustBeReportedAsMalformed() throws Exception {
+    // given
+    var ndjson = String.join("\n",
+        "null",
+        productJson("import-1"));
+    
+    // when
+    var result = this.productImportService.importProducts(CatalogFormat.NDJSON, toStream(ndjson));
+    
+    // then
+    assertThat(result.imported(), is(1));
+    assertThat(result.errors().size(), is(1));
+    assertThat(result.errors().get(0).row(), is(1L));
+    assertThat(result.errors().get(0).error().code(), is(400));
+  }
+  
+  @Test
+  void whenTheDatabaseRejectsARowForAnotherReasonThenItMustNotBeReportedAsRegistered()
+      throws Exception {
+    // given
+    var tooLongDescription = "d".repeat(300);
+    var ndjson             = String.join("\n",
+        productJson("import-1"),
+        productJson("import-2").replace("\"measureUnit\"",
+            "\"description\": \"" + tooLongDescription + "\", \"measureUnit\""));
+    
+    // when
+    var result = this.productImportService.importProducts(CatalogFormat.NDJSON, toStream(ndjson));
+    
+    // then
+    assertThat(result.imported(), is(1));
+    assertThat(result.errors().size(), is(1));
+    assertThat(result.errors().get(0).barCode(), is("import-2"));
+    assertThat(result.errors().get(0).error().message(),
+        is(not(new ProductAlreadyRegisteredException().getMessage())));
+    assertThat(this.productRepository.findByBarCode("import-1").isPresent(), is(true));
+  }
+  
+  @Test
+  void whenACsvFileIsImportedThenItsColumnsMustBeMappedByTheHeader() throws Exception {
+    // given
+    var csv = "barCode,name,category,unitPrice,measureUnit,maxStockLevel,description," +
+        "supplierName,supplierLegalDocument\r\n" +
+        "import-1,\"Apples, red\",FOOD,2.50,KILOGRAM,100,\"Sweet \"\"gala\"\"\"," +
+        "Orchard," + LEGAL_DOCUMENT + "\r\n" +
+        "import-2,Pears,FRUIT,2.50,KILOGRAM,100,,,\r\n";
+    
+    // when
+    var result = this.productImportService.importProducts(CatalogFormat.CSV, toStream(csv));
+    
+    // then
+    assertThat(result.imported(), is(1));
+    assertThat(result.errors().get(0).row(), is(2L));
+    assertThat(result.errors().get(0).barCode(), is("import-2"));
+    
+    var product = this.productRepository.findByBarCode("import-1").orElseThrow();
+    assertThat(product.getName(), is("Apples, red"));
+    assertThat(product.getDescription(), is("Sweet \"gala\""));
+    assertThat(product.getStockQuantity(), is(0));
+    assertThat(product.getSupplier().getName(), is("Orchard"));
+  }
+  
+  private String productJson(String barCode) {
+    return "{\"name\": \"Product " + barCode + "\", \"barCode\": \"" + barCode + "\", " +
+        "\"category\": \"FOOD\", \"unitPrice\": 1.99, \"stockQuantity\": 10, " +
+        "\"maxStockLevel\": 100, \"measureUnit\": \"UNIT\", " +
+        "\"supplier\": {\"name\": \"Importer\", \"legalDocument\": \"" + LEGAL_DOCUMENT + "\"}}";
+  }
+  
+  private ByteArrayInputStream toStream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+  
+}
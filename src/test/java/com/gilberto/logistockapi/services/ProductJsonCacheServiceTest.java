@@ -0,0 +1,102 @@
+package com.gilberto.logistockapi.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gilberto.logistockapi.config.ProductJsonCacheProperties;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.services.implementations.ProductJsonCacheService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ProductJsonCacheServiceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ProductJsonCacheService productJsonCacheService;
+
+  @BeforeEach
+  void setUp() {
+    this.productJsonCacheService = new ProductJsonCacheService(this.objectMapper,
+        new ProductJsonCacheProperties(DataSize.ofMegabytes(1)));
+  }
+
+  @Test
+  void whenAProductIsEncodedTwiceThenTheSameBytesMustBeReturned() throws Exception {
+    // given
+    var product = ModelUtils.getProductDTO();
+
+    // when
+    var json       = this.productJsonCacheService.toJson(product);
+    var cachedJson = this.productJsonCacheService.toJson(product);
+
+    // then
+    assertThat(cachedJson, is(sameInstance(json)));
+    assertThat(new String(json, StandardCharsets.UTF_8),
+        is(this.objectMapper.writeValueAsString(product)));
+  }
+
+  @Test
+  void whenTheProductChangesWithoutANewVersionThenItMustBeEncodedAgain() throws Exception {
+    // given
+    var product        = ModelUtils.getProductDTO();
+    var changedProduct = withStock(product, product.stockQuantity() + 5);
+
+    // when
+    this.productJsonCacheService.toJson(product);
+    var json = this.productJsonCacheService.toJson(changedProduct);
+
+    // then
+    assertThat(new String(json, StandardCharsets.UTF_8),
+        is(this.objectMapper.writeValueAsString(changedProduct)));
+  }
+
+  @Test
+  void whenAProductIsEvictedThenItMustBeEncodedAgain() {
+    // given
+    var product = ModelUtils.getProductDTO();
+    var json    = this.productJsonCacheService.toJson(product);
+
+    // when
+    this.productJsonCacheService.evict(product.id());
+
+    // then
+    assertThat(this.productJsonCacheService.toJson(product), is(not(sameInstance(json))));
+  }
+
+  @Test
+  void whenAListIsWrittenThenItMustMatchTheSerializedList() throws Exception {
+    // given
+    var product  = ModelUtils.getProductDTO();
+    var products = List.of(product, withId(product, 2L), withId(product, 3L));
+    var output   = new ByteArrayOutputStream();
+
+    // when
+    this.productJsonCacheService.writeJson(products, output);
+
+    // then
+    assertThat(output.toString(StandardCharsets.UTF_8),
+        is(this.objectMapper.writeValueAsString(products)));
+  }
+
+  private ProductDTO withStock(ProductDTO product, Integer stockQuantity) {
+    return new ProductDTO(product.id(), product.name(), product.barCode(), product.category(),
+        product.supplier(), product.unitPrice(), product.measureUnit(), stockQuantity,
+        product.description(), product.version());
+  }
+
+  private ProductDTO withId(ProductDTO product, Long id) {
+    return new ProductDTO(id, product.name(), product.barCode() + id, product.category(),
+        product.supplier(), product.unitPrice(), product.measureUnit(), product.stockQuantity(),
+        product.description(), product.version());
+  }
+
+}
@@ -0,0 +1,181 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+public class ProductServiceConcurrencyTest {
+
+  private static final int THREADS              = 8;
+  private static final int MOVEMENTS_PER_THREAD = 50;
+
+  @Autowired
+  private IProductService productService;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("concurrency-barcode");
+    newProduct.setStockQuantity(0);
+    newProduct.setMaxStockLevel(THREADS * MOVEMENTS_PER_THREAD);
+    this.product = this.productRepository.save(newProduct);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+  }
+
+  @Test
+  void whenConcurrentIncreasesAreAppliedThenNoIncrementMustBeLost() throws Exception {
+    // when
+    runConcurrently(() -> this.productService.increaseStock(this.product.getId(),
+        new QuantityForm(1), null));
+
+    // then
+    var stockQuantity = this.productRepository.findById(this.product.getId())
+        .orElseThrow()
+        .getStockQuantity();
+
+    assertThat(stockQuantity, is(THREADS * MOVEMENTS_PER_THREAD));
+  }
+
+  @Test
+  void whenConcurrentIncreasesExceedTheMaximumStockThenOnlyTheAllowedOnesMustBeApplied()
+      throws Exception {
+    // given
+    var rejections = new AtomicInteger();
+    this.product.setMaxStockLevel(THREADS * MOVEMENTS_PER_THREAD / 2);
+    this.productRepository.save(this.product);
+
+    // when
+    runConcurrently(() -> {
+      try {
+        return this.productService.increaseStock(this.product.getId(), new QuantityForm(1), null);
+      } catch (ProductStockExceededException exception) {
+        return rejections.incrementAndGet();
+      }
+    });
+
+    // then
+    var stockQuantity = this.productRepository.findById(this.product.getId())
+        .orElseThrow()
+        .getStockQuantity();
+
+    assertThat(stockQuantity, is(THREADS * MOVEMENTS_PER_THREAD / 2));
+    assertThat(rejections.get(), is(THREADS * MOVEMENTS_PER_THREAD / 2));
+  }
+
+  @Test
+  void whenConcurrentDecreasesAreAppliedThenTheStockMustNeverBeNegative() throws Exception {
+    // given
+    var rejections = new AtomicInteger();
+    this.product.setStockQuantity(THREADS * MOVEMENTS_PER_THREAD / 2);
+    this.productRepository.save(this.product);
+
+    // when
+    runConcurrently(() -> {
+      try {
+        return this.productService.decreaseStock(this.product.getId(), new QuantityForm(1), null);
+      } catch (ProductStockUnderThanZeroException exception) {
+        return rejections.incrementAndGet();
+      }
+    });
+
+    // then
+    var stockQuantity = this.productRepository.findById(this.product.getId())
+        .orElseThrow()
+        .getStockQuantity();
+
+    assertThat(stockQuantity, is(0));
+    assertThat(rejections.get(), is(THREADS * MOVEMENTS_PER_THREAD / 2));
+  }
+
+  @Test
+  void whenProductsAreUpdatedWhileTheirStockMovesThenNoMovementMustBeOverwritten()
+      throws Exception {
+    // given
+    var calls      = new AtomicInteger();
+    var increases  = new AtomicInteger();
+    var updateForm = new ProductUpdateForm("Updated name", Category.CLOTHING, null,
+        BigDecimal.valueOf(2.99), THREADS * MOVEMENTS_PER_THREAD, 0, MeasureUnit.UNIT,
+        "description");
+
+    // when
+    runConcurrently(() -> {
+      if (calls.getAndIncrement() % 2 == 0) {
+        this.productService.increaseStock(this.product.getId(), new QuantityForm(1), null);
+        return increases.incrementAndGet();
+      }
+      try {
+        return this.productService.updateById(this.product.getId(), updateForm, null);
+      } catch (ProductConflictException exception) {
+        return null;
+      }
+    });
+
+    // then
+    var updatedProduct = this.productRepository.findById(this.product.getId()).orElseThrow();
+
+    assertThat(updatedProduct.getStockQuantity(), is(increases.get()));
+    assertThat(updatedProduct.getName(), is(updateForm.name()));
+  }
+
+  private void runConcurrently(Callable<?> movement)
+      throws InterruptedException, ExecutionException {
+    var executor = Executors.newFixedThreadPool(THREADS);
+    var start    = new CountDownLatch(1);
+    var futures  = new ArrayList<Future<?>>();
+
+    try {
+      for (var thread = 0; thread < THREADS; thread++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (var movementIndex = 0; movementIndex < MOVEMENTS_PER_THREAD; movementIndex++) {
+            movement.call();
+          }
+          return null;
+        }));
+      }
+
+      start.countDown();
+
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
@@ -1,33 +1,74 @@
 package com.gilberto.logistockapi.services;
 
+import com.gilberto.logistockapi.config.ProductCacheProperties;
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
 import com.gilberto.logistockapi.exceptions.ProductAlreadyRegisteredException;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
 import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
 import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
 import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ProductVersionMismatchException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.models.dto.request.ProductCursor;
+import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.response.ProductDTO;
+import com.gilberto.logistockapi.models.dto.response.ReservationDTO;
+import com.gilberto.logistockapi.models.dto.response.TotalHitsDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.HitCount;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
 import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository;
+import com.gilberto.logistockapi.repositories.IProductSearchRepository.ProductSearchCriteria;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.services.IStockReservationService.StockUpdate;
+import com.gilberto.logistockapi.services.implementations.ProductCacheService;
 import com.gilberto.logistockapi.services.implementations.ProductService;
 import com.gilberto.logistockapi.utils.ModelUtils;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.IntSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -36,6 +77,7 @@ public class ProductServiceTest {
   
   private static final long PRODUCT_ID         = 1L;
   private static final long INVALID_PRODUCT_ID = 2L;
+  private static final long RESERVATION_ID     = 3L;
   
   @Mock
   private IProductRepository productRepository;
@@ -43,9 +85,52 @@ public class ProductServiceTest {
   @Mock
   private ISupplierService supplierService;
   
+  @Mock
+  private IStockMovementRepository stockMovementRepository;
+  
+  @Mock
+  private IProductSearchRepository productSearchRepository;
+  
+  @Mock
+  private IStockWriteBehindService stockWriteBehindService;
+  
+  @Mock
+  private IStockMetricsService stockMetricsService;
+  
+  @Mock
+  private IOptimisticRetryService optimisticRetryService;
+  
+  @Mock
+  private IStockReservationService stockReservationService;
+  
+  @Mock
+  private IStockLedgerService stockLedgerService;
+  
+  @Mock
+  private IStockAlertService stockAlertService;
+  
+  @Mock
+  private IInventoryStatsService inventoryStatsService;
+  
+  @Mock
+  private IReadYourWritesService readYourWritesService;
+  
+  @Mock
+  private IProductJsonCacheService productJsonCacheService;
+  
+  @Spy
+  private ProductCacheService productCacheService =
+      new ProductCacheService(new ProductCacheProperties(100, Duration.ofMinutes(1)));
+  
   @InjectMocks
   private ProductService productService;
   
+  @BeforeEach
+  void setUp() {
+    lenient().when(this.stockLedgerService.apply(any(), anyInt(), any()))
+        .thenAnswer(invocation -> invocation.<IntSupplier>getArgument(2).getAsInt());
+  }
+  
   // Create Product
   @Test
   void shouldCreateProduct() throws ProductAlreadyRegisteredException {
@@ -86,19 +171,20 @@ public class ProductServiceTest {
   
   // Find All
   @Test
-  void shouldReturnAProductList() {
+  void shouldReturnAProductList() throws InvalidCursorException {
     // given
     var productFilter = ModelUtils.getProductFilter();
     var product       = ModelUtils.getProduct();
     var pageNumber    = productFilter.pageNumber() * productFilter.pageSize();
     
     // when
-    when(this.productRepository.findAllByFilters(productFilter.categories(),
-        productFilter.search(), productFilter.pageSize(), pageNumber))
-        .thenReturn(Collections.singletonList(product));
+    when(this.productSearchRepository.search(new ProductSearchCriteria(
+        productFilter.categories(), productFilter.search(), null, pageNumber,
+        productFilter.pageSize())))
+        .thenReturn(Collections.singletonList(ModelUtils.getProductView(product)));
     
     // then
-    var productDTOList = this.productService.listAll(productFilter);
+    var productDTOList = this.productService.listAll(productFilter).content();
     
     assertThat(productDTOList, is(not(empty())));
     assertThat(productDTOList.get(0).name(), is(product.getName()));
@@ -106,22 +192,181 @@ public class ProductServiceTest {
   }
   
   @Test
-  void shouldReturnAnEmptyProductList() {
+  void shouldReturnAnEmptyProductList() throws InvalidCursorException {
     // given
     var productFilter = ModelUtils.getProductFilter();
     var pageNumber    = productFilter.pageNumber() * productFilter.pageSize();
     
     // when
-    when(this.productRepository.findAllByFilters(productFilter.categories(),
-        productFilter.search(), productFilter.pageSize(), pageNumber))
+    when(this.productSearchRepository.search(new ProductSearchCriteria(
+        productFilter.categories(), productFilter.search(), null, pageNumber,
+        productFilter.pageSize())))
         .thenReturn(Collections.emptyList());
     
     // then
-    var productDTOList = this.productService.listAll(productFilter);
+    var productDTOList = this.productService.listAll(productFilter).content();
     
     assertThat(productDTOList, is(empty()));
   }
   
+  @Test
+  void whenAPageIsFullThenACursorToTheNextPageMustBeReturned() throws InvalidCursorException {
+    // given
+    var productFilter = new ProductFilter(0, 1, "search", Arrays.asList(Category.values()),
+        null, null, null);
+    var product       = ModelUtils.getProduct();
+    product.setEntryDate(LocalDate.of(2024, 1, 15));
+    
+    // when
+    when(this.productSearchRepository.search(new ProductSearchCriteria(
+        productFilter.categories(), productFilter.search(), null, 0, productFilter.pageSize())))
+        .thenReturn(Collections.singletonList(ModelUtils.getProductView(product)));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(ProductCursor.decode(productPage.nextCursor()),
+        is(new ProductCursor(product.getEntryDate(), product.getId())));
+  }
+  
+  @Test
+  void whenACursorIsGivenThenThePageAfterItMustBeReturned() throws InvalidCursorException {
+    // given
+    var cursor        = new ProductCursor(LocalDate.of(2024, 1, 15), PRODUCT_ID);
+    var productFilter = new ProductFilter(null, 10, "search", Arrays.asList(Category.values()),
+        cursor.encode(), null, null);
+    var product       = ModelUtils.getProduct();
+    
+    // when
+    when(this.productSearchRepository.search(new ProductSearchCriteria(
+        productFilter.categories(), productFilter.search(), cursor, 0, productFilter.pageSize())))
+        .thenReturn(Collections.singletonList(ModelUtils.getProductView(product)));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.content().get(0).id(), is(product.getId()));
+    assertThat(productPage.nextCursor(), is(nullValue()));
+  }
+  
+  @Test
+  void whenTheSearchIsAWholeBarcodeThenEveryProductContainingItMustBeReturned()
+      throws InvalidCursorException {
+    // given
+    var product       = ModelUtils.getProduct();
+    var longerBarcode = ModelUtils.getProduct();
+    longerBarcode.setId(PRODUCT_ID + 1);
+    longerBarcode.setBarCode(product.getBarCode() + "1");
+    var productFilter = new ProductFilter(0, 10, product.getBarCode(), null, null, null, null);
+    
+    // when
+    when(this.productSearchRepository.search(new ProductSearchCriteria(
+        Arrays.asList(Category.values()), product.getBarCode(), null, 0, 10)))
+        .thenReturn(List.of(ModelUtils.getProductView(product),
+            ModelUtils.getProductView(longerBarcode)));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.content().stream().map(ProductDTO::barCode).toList(),
+        contains(product.getBarCode(), longerBarcode.getBarCode()));
+    verify(this.productRepository, never()).findViewByBarCode(any());
+  }
+  
+  @Test
+  void whenFacetsAndAnExactTotalAreAskedThenOneGroupedCountMustServeBoth()
+      throws InvalidCursorException {
+    // given
+    var categories    = List.of(Category.FOOD, Category.CLOTHING);
+    var productFilter = new ProductFilter(0, 10, "search", categories, null, true,
+        HitCount.EXACT);
+    
+    // when
+    when(this.productSearchRepository.search(any())).thenReturn(Collections.emptyList());
+    when(this.productSearchRepository.countByCategory("search"))
+        .thenReturn(Map.of(Category.FOOD, 3L, Category.CLOTHING, 2L, Category.ELECTRONIC, 4L));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.facets().get(Category.ELECTRONIC), is(4L));
+    assertThat(productPage.totalHits(), is(new TotalHitsDTO(5, false)));
+    verify(this.productSearchRepository, times(1)).countByCategory("search");
+  }
+  
+  @Test
+  void whenTheSearchIsAWholeBarcodeThenTheFacetsMustCountEveryMatch()
+      throws InvalidCursorException {
+    // given
+    var barCode       = ModelUtils.getProduct().getBarCode();
+    var productFilter = new ProductFilter(0, 10, barCode, List.of(Category.FOOD), null, true,
+        HitCount.EXACT);
+    
+    // when
+    when(this.productSearchRepository.search(any())).thenReturn(Collections.emptyList());
+    when(this.productSearchRepository.countByCategory(barCode))
+        .thenReturn(Map.of(Category.FOOD, 2L, Category.CLOTHING, 1L));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.facets(), is(Map.of(Category.FOOD, 2L, Category.CLOTHING, 1L)));
+    assertThat(productPage.totalHits(), is(new TotalHitsDTO(2, false)));
+  }
+  
+  @Test
+  void whenAnEstimatedTotalIsAskedThenThePlannerEstimateMustBeReturned()
+      throws InvalidCursorException {
+    // given
+    var categories    = List.of(Category.FOOD);
+    var productFilter = new ProductFilter(0, 10, "search", categories, null, null,
+        HitCount.ESTIMATED);
+    
+    // when
+    when(this.productSearchRepository.search(any())).thenReturn(Collections.emptyList());
+    when(this.productSearchRepository.estimateCount(categories, "search"))
+        .thenReturn(OptionalLong.of(120));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.facets(), is(nullValue()));
+    assertThat(productPage.totalHits(), is(new TotalHitsDTO(120, true)));
+    verify(this.productSearchRepository, never()).countByCategory(any());
+  }
+  
+  @Test
+  void whenNoEstimateIsAvailableThenTheTotalMustBeCountedExactly()
+      throws InvalidCursorException {
+    // given
+    var categories    = List.of(Category.FOOD);
+    var productFilter = new ProductFilter(0, 10, "search", categories, null, null,
+        HitCount.ESTIMATED);
+    
+    // when
+    when(this.productSearchRepository.search(any())).thenReturn(Collections.emptyList());
+    when(this.productSearchRepository.estimateCount(categories, "search"))
+        .thenReturn(OptionalLong.empty());
+    when(this.productSearchRepository.countByCategory("search"))
+        .thenReturn(Map.of(Category.FOOD, 3L, Category.CLOTHING, 2L));
+    
+    // then
+    var productPage = this.productService.listAll(productFilter);
+    
+    assertThat(productPage.totalHits(), is(new TotalHitsDTO(3, false)));
+  }
+  
+  @Test
+  void whenAnInvalidCursorIsGivenThenAnExceptionMustBeThrown() {
+    // given
+    var productFilter = new ProductFilter(null, 10, null, null, "not-a-cursor", null,
+        null);
+    
+    // then
+    assertThrows(InvalidCursorException.class,
+        () -> this.productService.listAll(productFilter));
+  }
+  
   // Find By Barcode
   @Test
   void whenAProductBarcodeIsValidThenReturnAProduct() throws ProductNotFoundException {
@@ -129,8 +374,8 @@ public class ProductServiceTest {
     var product     = ModelUtils.getProduct();
     
     // when
-    when(this.productRepository.findByBarCode(product.getBarCode()))
-        .thenReturn(Optional.of(product));
+    when(this.productRepository.findViewByBarCode(product.getBarCode()))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
     
     // then
     var productDTO = this.productService.findByBarCode(product.getBarCode());
@@ -146,7 +391,7 @@ public class ProductServiceTest {
     var product = ModelUtils.getProduct();
     
     // when
-    when(this.productRepository.findByBarCode(product.getBarCode()))
+    when(this.productRepository.findViewByBarCode(product.getBarCode()))
         .thenReturn(Optional.empty());
     
     // then
@@ -161,8 +406,8 @@ public class ProductServiceTest {
     var product = ModelUtils.getProduct();
     
     // when
-    when(this.productRepository.findById(PRODUCT_ID))
-        .thenReturn(Optional.of(product));
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
     
     // then
     var productDTO = this.productService.findById(PRODUCT_ID);
@@ -173,10 +418,52 @@ public class ProductServiceTest {
     
   }
   
+  @Test
+  void whenAProductIsFoundTwiceThenTheSecondLookupMustBeServedFromTheCache()
+      throws ProductNotFoundException {
+    // given
+    var product = ModelUtils.getProduct();
+    
+    // when
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
+    
+    // then
+    this.productService.findById(PRODUCT_ID);
+    var productDTO = this.productService.findById(PRODUCT_ID);
+    
+    assertThat(productDTO.id(), is(product.getId()));
+    assertThat(this.productCacheService.stats().hitCount(), is(1L));
+    verify(this.productRepository, times(1)).findViewById(PRODUCT_ID);
+  }
+  
+  @Test
+  void whenTheStockOfACachedProductChangesThenTheCacheMustBeEvicted()
+      throws ProductNotFoundException, ProductStockExceededException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
+    // given
+    var quantityForm = new QuantityForm(10);
+    var product      = ModelUtils.getProduct();
+    
+    // when
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
+    when(this.productRepository.increaseStock(PRODUCT_ID, quantityForm.quantity()))
+        .thenReturn(1);
+    
+    // then
+    this.productService.findById(PRODUCT_ID);
+    this.productService.increaseStock(PRODUCT_ID, quantityForm, null);
+    this.productService.findById(PRODUCT_ID);
+    
+    verify(this.productCacheService, times(1)).evict(PRODUCT_ID);
+    assertThat(this.productCacheService.stats().missCount(), is(2L));
+  }
+  
   @Test
   public void whenAProductIdIsInvalidThenAnExceptionMustBeThrown() {
     // when
-    when(this.productRepository.findById(INVALID_PRODUCT_ID))
+    when(this.productRepository.findViewById(INVALID_PRODUCT_ID))
         .thenReturn(Optional.empty());
     
     // then
@@ -187,20 +474,23 @@ public class ProductServiceTest {
   
   // Delete By Id
   @Test
-  void shouldDeleteAProduct() throws ProductNotFoundException {
+  void shouldDeleteAProduct() throws ProductNotFoundException, ProductConflictException {
     // given
     var product = ModelUtils.getProduct();
     
     // when
     when(this.productRepository.findById(product.getId()))
         .thenReturn(Optional.of(product));
-    doNothing().when(this.productRepository).deleteById(product.getId());
+    doNothing().when(this.productRepository).delete(product);
     
     // then
     this.productService.delete(product.getId());
     
     verify(this.productRepository, times(1)).findById(product.getId());
-    verify(this.productRepository, times(1)).deleteById(product.getId());
+    verify(this.productRepository, times(1)).delete(product);
+    verify(this.stockAlertService).remove(product.getId());
+    verify(this.inventoryStatsService).remove(argThat(stockLevel ->
+        stockLevel.stockQuantity().equals(product.getStockQuantity())));
   }
   
   @Test
@@ -217,7 +507,9 @@ public class ProductServiceTest {
   
   // Update By id
   @Test
-  void shouldUpdateAProduct() throws ProductNotFoundException {
+  void shouldUpdateAProduct() 
+      throws ProductNotFoundException, ProductVersionMismatchException,
+      ProductConflictException {
     // given
     var productUpdateForm = ModelUtils.getProductUpdateForm();
     var product           = ModelUtils.getProduct();
@@ -229,12 +521,73 @@ public class ProductServiceTest {
         .thenReturn(product);
     
     // then
-    var productDTO = this.productService.updateById(PRODUCT_ID, productUpdateForm);
+    var productDTO = this.productService.updateById(PRODUCT_ID, productUpdateForm, null);
     
     assertThat(productDTO.name(), is(product.getName()));
     assertThat(productDTO.barCode(), is(product.getBarCode()));
   }
   
+  @Test
+  void whenAnUpdateLosesAnOptimisticLockingRaceThenItMustBeRetriedOnAFreshRead()
+      throws ProductNotFoundException, ProductVersionMismatchException,
+      ProductConflictException {
+    // given
+    var productUpdateForm = ModelUtils.getProductUpdateForm();
+    var product           = ModelUtils.getProduct();
+    
+    // when
+    when(this.productRepository.findById(PRODUCT_ID))
+        .thenReturn(Optional.of(product));
+    when(this.productRepository.save(any()))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, PRODUCT_ID))
+        .thenReturn(product);
+    when(this.optimisticRetryService.backoff(any(), eq(1)))
+        .thenReturn(true);
+    
+    // then
+    var productDTO = this.productService.updateById(PRODUCT_ID, productUpdateForm, null);
+    
+    assertThat(productDTO.name(), is(productUpdateForm.name()));
+    verify(this.productRepository, times(2)).findById(PRODUCT_ID);
+  }
+  
+  @Test
+  void whenAnUpdateKeepsLosingOptimisticLockingRacesThenAConflictMustBeThrown() {
+    // given
+    var productUpdateForm = ModelUtils.getProductUpdateForm();
+    
+    // when
+    when(this.productRepository.findById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProduct()));
+    when(this.productRepository.save(any()))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, PRODUCT_ID));
+    when(this.optimisticRetryService.backoff(any(), eq(1)))
+        .thenReturn(false);
+    
+    // then
+    assertThrows(ProductConflictException.class,
+        () -> this.productService.updateById(PRODUCT_ID, productUpdateForm, null));
+  }
+  
+  @Test
+  void whenAConditionalUpdateLosesAnOptimisticLockingRaceThenItMustNotBeRetried() {
+    // given
+    var productUpdateForm = ModelUtils.getProductUpdateForm();
+    var product           = ModelUtils.getProduct();
+    product.setVersion(3L);
+    
+    // when
+    when(this.productRepository.findById(PRODUCT_ID))
+        .thenReturn(Optional.of(product));
+    when(this.productRepository.save(any()))
+        .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, PRODUCT_ID));
+    
+    // then
+    assertThrows(ProductVersionMismatchException.class,
+        () -> this.productService.updateById(PRODUCT_ID, productUpdateForm, 3L));
+    verify(this.optimisticRetryService, never()).backoff(any(), anyInt());
+  }
+  
   @Test
   void whenAProductWithInvalidIdIsUpdatedThenAnExceptionMustBeThrown() {
     // given
@@ -246,13 +599,14 @@ public class ProductServiceTest {
     
     // then
     assertThrows(ProductNotFoundException.class,
-        () -> this.productService.updateById(INVALID_PRODUCT_ID, productUpdateForm));
+        () -> this.productService.updateById(INVALID_PRODUCT_ID, productUpdateForm, null));
   }
   
   // Increase Stock
   @Test
   void shouldIncreaseProductStock()
-      throws ProductNotFoundException, ProductStockExceededException {
+      throws ProductNotFoundException, ProductStockExceededException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
     // given
     var quantityForm = new QuantityForm(10);
     var product      = ModelUtils.getProduct();
@@ -261,20 +615,21 @@ public class ProductServiceTest {
     savedProduct.setStockQuantity(product.getStockQuantity() + quantityForm.quantity());
     
     // when
-    when(this.productRepository.findById(PRODUCT_ID))
-        .thenReturn(Optional.of(product));
-    when(this.productRepository.save(any()))
-        .thenReturn(savedProduct);
+    when(this.productRepository.increaseStock(PRODUCT_ID, quantityForm.quantity()))
+        .thenReturn(1);
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(savedProduct)));
     
     // then
-    var productDTO = this.productService.increaseStock(PRODUCT_ID, quantityForm);
+    var productDTO = this.productService.increaseStock(PRODUCT_ID, quantityForm, null);
     
     assertThat(productDTO.stockQuantity(), lessThan(savedProduct.getMaxStockLevel()));
   }
   
   @Test
   void WhenTheQuantityAfterTheSumIsEqualToTheMaximumStockThenIncreaseTheStock()
-      throws ProductNotFoundException, ProductStockExceededException {
+      throws ProductNotFoundException, ProductStockExceededException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
     // given
     var quantityForm = new QuantityForm(90);
     var product      = ModelUtils.getProduct();
@@ -283,15 +638,18 @@ public class ProductServiceTest {
     savedProduct.setStockQuantity(product.getStockQuantity() + quantityForm.quantity());
     
     // when
-    when(this.productRepository.findById(PRODUCT_ID))
-        .thenReturn(Optional.of(product));
-    when(this.productRepository.save(any()))
-        .thenReturn(savedProduct);
+    when(this.productRepository.increaseStock(PRODUCT_ID, quantityForm.quantity()))
+        .thenReturn(1);
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(savedProduct)));
     
     // then
-    var productDTO = this.productService.increaseStock(PRODUCT_ID, quantityForm);
+    var productDTO = this.productService.increaseStock(PRODUCT_ID, quantityForm, null);
     
     assertThat(productDTO.stockQuantity(), equalTo(savedProduct.getMaxStockLevel()));
+    verify(this.stockMetricsService).recordApplied(quantityForm.quantity());
+    verify(this.stockAlertService).evaluate(argThat(stockLevel ->
+        stockLevel.stockQuantity().equals(savedProduct.getMaxStockLevel())));
   }
   
   @Test
@@ -301,12 +659,54 @@ public class ProductServiceTest {
     var product      = ModelUtils.getProduct();
     
     // when
+    when(this.productRepository.increaseStock(PRODUCT_ID, quantityForm.quantity()))
+        .thenReturn(0);
     when(this.productRepository.findById(PRODUCT_ID))
         .thenReturn(Optional.of(product));
     
     // then
     assertThrows(ProductStockExceededException.class,
-        () -> this.productService.increaseStock(PRODUCT_ID, quantityForm));
+        () -> this.productService.increaseStock(PRODUCT_ID, quantityForm, null));
+    verify(this.stockMetricsService).recordRejected(eq(quantityForm.quantity()),
+        any(ProductStockExceededException.class));
+  }
+  
+  @Test
+  void whenTheProductIsNotAtTheExpectedVersionThenTheStockMustNotBeIncreased() {
+    // given
+    var quantityForm = new QuantityForm(10);
+    var product      = ModelUtils.getProduct();
+    product.setVersion(4L);
+    
+    // when
+    when(this.productRepository.increaseStock(PRODUCT_ID, quantityForm.quantity(), 3L))
+        .thenReturn(0);
+    when(this.productRepository.findById(PRODUCT_ID))
+        .thenReturn(Optional.of(product));
+    
+    // then
+    assertThrows(ProductVersionMismatchException.class,
+        () -> this.productService.increaseStock(PRODUCT_ID, quantityForm, 3L));
+    verify(this.stockMetricsService, never()).recordApplied(quantityForm.quantity());
+  }
+  
+  @Test
+  void whenAProductIsCachedThenItsVersionMustBeReadWithoutQueryingIt()
+      throws ProductNotFoundException {
+    // given
+    var product = ModelUtils.getProduct();
+    product.setVersion(7L);
+    
+    // when
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
+    this.productService.findById(PRODUCT_ID);
+    
+    // then
+    var version = this.productService.findVersionById(PRODUCT_ID);
+    
+    assertThat(version.version(), is(7L));
+    verify(this.productRepository, never()).findVersionById(PRODUCT_ID);
   }
   
   @Test
@@ -315,18 +715,21 @@ public class ProductServiceTest {
     var quantityForm = new QuantityForm(10);
     
     // when
+    when(this.productRepository.increaseStock(INVALID_PRODUCT_ID, quantityForm.quantity()))
+        .thenReturn(0);
     when(this.productRepository.findById(INVALID_PRODUCT_ID))
         .thenReturn(Optional.empty());
     
     // then
     assertThrows(ProductNotFoundException.class,
-        () -> this.productService.increaseStock(INVALID_PRODUCT_ID, quantityForm));
+        () -> this.productService.increaseStock(INVALID_PRODUCT_ID, quantityForm, null));
   }
   
   // Decreases
   @Test
   void shouldDecreasesProductStock()
-      throws ProductNotFoundException, ProductStockUnderThanZeroException {
+      throws ProductNotFoundException, ProductStockUnderThanZeroException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
     // given
     var quantityForm = new QuantityForm(2);
     var product      = ModelUtils.getProduct();
@@ -336,13 +739,14 @@ public class ProductServiceTest {
     savedProduct.setStockQuantity(quantity);
     
     // when
-    when(this.productRepository.findById(PRODUCT_ID))
-        .thenReturn(Optional.of(product));
-    when(this.productRepository.save(any()))
-        .thenReturn(savedProduct);
+    whenNothingIsReserved(PRODUCT_ID);
+    when(this.productRepository.decreaseStock(PRODUCT_ID, quantityForm.quantity(), 0))
+        .thenReturn(1);
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(savedProduct)));
     
     // then
-    var productDTO = this.productService.decreaseStock(PRODUCT_ID, quantityForm);
+    var productDTO = this.productService.decreaseStock(PRODUCT_ID, quantityForm, null);
     
     assertThat(productDTO.stockQuantity(), equalTo(quantity));
     assertThat(productDTO.stockQuantity(), greaterThan(0));
@@ -350,7 +754,8 @@ public class ProductServiceTest {
   
   @Test
   void whenTheQuantityAfterSubtractionIsEqualToZeroThenDecreasesStock()
-      throws ProductStockUnderThanZeroException, ProductNotFoundException {
+      throws ProductStockUnderThanZeroException, ProductNotFoundException,
+      ProductVersionMismatchException, ProductConflictException, StockWriteTimeoutException {
     // given
     var quantityForm = new QuantityForm(10);
     var product      = ModelUtils.getProduct();
@@ -360,13 +765,14 @@ public class ProductServiceTest {
     savedProduct.setStockQuantity(quantity);
     
     // when
-    when(this.productRepository.findById(PRODUCT_ID))
-        .thenReturn(Optional.of(product));
-    when(this.productRepository.save(any()))
-        .thenReturn(savedProduct);
+    whenNothingIsReserved(PRODUCT_ID);
+    when(this.productRepository.decreaseStock(PRODUCT_ID, quantityForm.quantity(), 0))
+        .thenReturn(1);
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(savedProduct)));
     
     // then
-    var productDTO = this.productService.decreaseStock(PRODUCT_ID, quantityForm);
+    var productDTO = this.productService.decreaseStock(PRODUCT_ID, quantityForm, null);
     
     assertThat(productDTO.stockQuantity(), equalTo(0));
   }
@@ -378,12 +784,15 @@ public class ProductServiceTest {
     var product      = ModelUtils.getProduct();
     
     // when
+    whenNothingIsReserved(PRODUCT_ID);
+    when(this.productRepository.decreaseStock(PRODUCT_ID, quantityForm.quantity(), 0))
+        .thenReturn(0);
     when(this.productRepository.findById(PRODUCT_ID))
         .thenReturn(Optional.of(product));
     
     // then
     assertThrows(ProductStockUnderThanZeroException.class,
-        () -> this.productService.decreaseStock(PRODUCT_ID, quantityForm));
+        () -> this.productService.decreaseStock(PRODUCT_ID, quantityForm, null));
   }
   
   @Test
@@ -392,12 +801,142 @@ public class ProductServiceTest {
     var quantityForm = new QuantityForm(10);
     
     // when
+    whenNothingIsReserved(INVALID_PRODUCT_ID);
+    when(this.productRepository.decreaseStock(INVALID_PRODUCT_ID, quantityForm.quantity(), 0))
+        .thenReturn(0);
     when(this.productRepository.findById(INVALID_PRODUCT_ID))
         .thenReturn(Optional.empty());
     
     // then
     assertThrows(ProductNotFoundException.class,
-        () -> this.productService.decreaseStock(INVALID_PRODUCT_ID, quantityForm));
+        () -> this.productService.decreaseStock(INVALID_PRODUCT_ID, quantityForm, null));
+  }
+  
+  // Reservations
+  @Test
+  void whenAReservationIsCommittedThenTheStockMustBeDecreasedKeepingTheOtherReservations()
+      throws ReservationNotFoundException, ProductNotFoundException,
+      ProductStockUnderThanZeroException {
+    // given
+    var reservation  = new ReservationDTO(RESERVATION_ID, PRODUCT_ID, 4, Instant.now());
+    var savedProduct = ModelUtils.getProduct();
+    savedProduct.setStockQuantity(6);
+    
+    // when
+    when(this.stockReservationService.findById(RESERVATION_ID))
+        .thenReturn(reservation);
+    when(this.stockReservationService.commit(eq(RESERVATION_ID), any()))
+        .thenAnswer(invocation -> invocation.<StockUpdate>getArgument(1).apply(3));
+    when(this.productRepository.decreaseStock(PRODUCT_ID, 4, 3))
+        .thenReturn(1);
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(savedProduct)));
+    
+    // then
+    var productDTO = this.productService.commitReservation(RESERVATION_ID);
+    
+    assertThat(productDTO.stockQuantity(), is(6));
+    verify(this.stockMetricsService).recordApplied(-4);
+  }
+  
+  @Test
+  void whenTheStockOfACommittedReservationIsGoneThenAnExceptionMustBeThrown()
+      throws ReservationNotFoundException {
+    // given
+    var reservation = new ReservationDTO(RESERVATION_ID, PRODUCT_ID, 4, Instant.now());
+    
+    // when
+    when(this.stockReservationService.findById(RESERVATION_ID))
+        .thenReturn(reservation);
+    when(this.stockReservationService.commit(eq(RESERVATION_ID), any()))
+        .thenReturn(0);
+    when(this.productRepository.findById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProduct()));
+    
+    // then
+    assertThrows(ProductStockUnderThanZeroException.class,
+        () -> this.productService.commitReservation(RESERVATION_ID));
+    verify(this.stockMetricsService).recordRejected(eq(-4),
+        any(ProductStockUnderThanZeroException.class));
+  }
+  
+  @Test
+  void whenAProductHasReservationsThenItsAvailableStockMustExcludeThem()
+      throws ProductNotFoundException {
+    // given
+    var product = ModelUtils.getProduct();
+    
+    // when
+    when(this.productRepository.findViewById(PRODUCT_ID))
+        .thenReturn(Optional.of(ModelUtils.getProductView(product)));
+    when(this.stockReservationService.reservedQuantity(PRODUCT_ID))
+        .thenReturn(7);
+    
+    // then
+    var availability = this.productService.findAvailabilityById(PRODUCT_ID);
+    
+    assertThat(availability.stockQuantity(), is(product.getStockQuantity()));
+    assertThat(availability.reservedQuantity(), is(7));
+    assertThat(availability.availableQuantity(), is(product.getStockQuantity() - 7));
+  }
+  
+  // Stock Movements
+  @Test
+  void shouldApplyStockMovementsAndReportTheStockAfterEachOne() {
+    // given
+    var movementsForm = ModelUtils.getStockMovementsForm();
+    var movements     = movementsForm.movements();
+    
+    // when
+    when(this.stockMovementRepository.applyStockMovements(movements))
+        .thenReturn(new int[]{1, 1, 0});
+    when(this.stockMovementRepository.findStockLevels(movements))
+        .thenReturn(List.of(
+            new ProductStockLevel(PRODUCT_ID, "barcode", Category.FOOD, MeasureUnit.UNIT,
+                BigDecimal.ONE, 15, 100, 0, 2L),
+            new ProductStockLevel(INVALID_PRODUCT_ID, "other-barcode", Category.FOOD,
+                MeasureUnit.UNIT, BigDecimal.ONE, 10, 100, 0, 1L)));
+    
+    // then
+    var results = this.productService.applyStockMovements(movementsForm);
+    
+    assertThat(results.size(), is(movements.size()));
+    assertThat(results.get(0).error(), is(nullValue()));
+    assertThat(results.get(0).stockQuantity(), is(20));
+    assertThat(results.get(1).id(), is(PRODUCT_ID));
+    assertThat(results.get(1).error(), is(nullValue()));
+    assertThat(results.get(1).stockQuantity(), is(15));
+    assertThat(results.get(2).error(), is(notNullValue()));
+    assertThat(results.get(2).error().message(),
+        is(new ProductStockExceededException().getMessage()));
+    verify(this.stockMetricsService).recordApplied(10);
+    verify(this.stockMetricsService).recordApplied(-5);
+    verify(this.stockMetricsService).recordRejected(eq(91),
+        any(ProductStockExceededException.class));
+  }
+  
+  @Test
+  void whenAStockMovementReferencesAnUnknownProductThenItsResultMustReportNotFound() {
+    // given
+    var movementsForm = ModelUtils.getStockMovementsForm();
+    var movements     = movementsForm.movements();
+    
+    // when
+    when(this.stockMovementRepository.applyStockMovements(movements))
+        .thenReturn(new int[]{0, 0, 0});
+    when(this.stockMovementRepository.findStockLevels(movements))
+        .thenReturn(Collections.emptyList());
+    
+    // then
+    var results = this.productService.applyStockMovements(movementsForm);
+    
+    assertThat(results.get(1).barCode(), is("barcode"));
+    assertThat(results.get(1).error().code(), is(new ProductNotFoundException().getStatus().value()));
+  }
+  
+  private void whenNothingIsReserved(Long id) {
+    when(this.stockReservationService.updateUnreserved(eq(id), any()))
+        .thenAnswer(invocation -> invocation.<StockUpdate>getArgument(1).apply(0));
   }
   
 }
@@ -0,0 +1,137 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.StockAlertProperties;
+import com.gilberto.logistockapi.models.dto.response.StockAlertDTO;
+import com.gilberto.logistockapi.models.enums.Category;
+import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository.ProductStockLevel;
+import com.gilberto.logistockapi.services.implementations.StockAlertService;
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockAlertServiceTest {
+  
+  private static final double OVERSTOCK_RATIO = 0.9;
+  
+  @Mock
+  private IStockMovementRepository stockMovementRepository;
+  
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  
+  private StockAlertService stockAlertService;
+  
+  @BeforeEach
+  void setUp() {
+    this.stockAlertService = new StockAlertService(new StockAlertProperties(OVERSTOCK_RATIO),
+        this.stockMovementRepository, this.transactionManager);
+  }
+  
+  @Test
+  void whenTheStockFallsToTheReorderPointThenALowStockAlertMustBeListed() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 1L));
+    
+    // then
+    var alerts = this.stockAlertService.listAll(null);
+    
+    assertThat(alerts.size(), is(1));
+    assertThat(alerts.get(0).productId(), is(1L));
+    assertThat(alerts.get(0).type(), is(StockAlertType.LOW_STOCK));
+    assertThat(alerts.get(0).stockQuantity(), is(5));
+  }
+  
+  @Test
+  void whenTheStockRecoversThenTheAlertMustBeRemoved() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 1L));
+    this.stockAlertService.evaluate(stockLevel(1L, 50, 2L));
+    
+    // then
+    assertThat(this.stockAlertService.listAll(null), is(empty()));
+  }
+  
+  @Test
+  void whenTheStockReachesTheOverstockRatioThenOnlyOverstockAlertsMustBeListedByType() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 90, 1L));
+    this.stockAlertService.evaluate(stockLevel(2L, 89, 1L));
+    this.stockAlertService.evaluate(stockLevel(3L, 0, 1L));
+    
+    // then
+    assertThat(this.stockAlertService.listAll(StockAlertType.OVERSTOCK).stream()
+        .map(StockAlertDTO::productId)
+        .toList(), contains(1L));
+    assertThat(this.stockAlertService.listAll(null).stream()
+        .map(StockAlertDTO::productId)
+        .toList(), contains(1L, 3L));
+  }
+  
+  @Test
+  void whenAnOlderStockLevelArrivesAfterANewerOneThenItMustBeIgnored() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 3L));
+    this.stockAlertService.evaluate(stockLevel(1L, 50, 2L));
+    
+    // then
+    assertThat(this.stockAlertService.listAll(null).size(), is(1));
+  }
+  
+  @Test
+  void whenAnOlderStockLevelArrivesAfterANewerOneClearedTheAlertThenItMustBeIgnored() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 1L));
+    this.stockAlertService.evaluate(stockLevel(1L, 50, 3L));
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 2L));
+    
+    // then
+    assertThat(this.stockAlertService.listAll(null), is(empty()));
+  }
+  
+  @Test
+  void whenAStockLevelArrivesAfterTheProductWasRemovedThenItMustBeIgnored() {
+    // when
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 1L));
+    this.stockAlertService.remove(1L);
+    this.stockAlertService.evaluate(stockLevel(1L, 5, 2L));
+    
+    // then
+    assertThat(this.stockAlertService.listAll(null), is(empty()));
+  }
+  
+  @Test
+  void whenTheServiceStartsThenTheAlertsMustBeRebuiltFromTheStoredStock() {
+    // given
+    when(this.stockMovementRepository.streamAlertingStockLevels(OVERSTOCK_RATIO))
+        .thenReturn(Stream.of(stockLevel(2L, 95, 1L), stockLevel(1L, 0, 1L)));
+    
+    // when
+    this.stockAlertService.start();
+    
+    // then
+    assertThat(this.stockAlertService.listAll(null).stream()
+        .map(StockAlertDTO::productId)
+        .toList(), contains(1L, 2L));
+  }
+  
+  private ProductStockLevel stockLevel(Long id, int stockQuantity, Long version) {
+    return new ProductStockLevel(id, "barcode-" + id, Category.FOOD, MeasureUnit.UNIT,
+        BigDecimal.ONE, stockQuantity, 100, 10, version);
+  }
+  
+}
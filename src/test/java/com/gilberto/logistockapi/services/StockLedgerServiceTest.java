@@ -0,0 +1,202 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.StockLedgerProperties;
+import com.gilberto.logistockapi.exceptions.InvalidCursorException;
+import com.gilberto.logistockapi.exceptions.ProductNotFoundException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementFilter;
+import com.gilberto.logistockapi.models.dto.response.StockMovementDTO;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IStockLedgerRepository;
+import com.gilberto.logistockapi.repositories.IStockSnapshotRepository;
+import com.gilberto.logistockapi.services.implementations.StockLedgerService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class StockLedgerServiceTest {
+
+  private static final long INVALID_PRODUCT_ID = Long.MAX_VALUE;
+
+  @Autowired
+  private IProductService productService;
+
+  @Autowired
+  private IStockLedgerService stockLedgerService;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  @Autowired
+  private IStockLedgerRepository stockLedgerRepository;
+
+  @Autowired
+  private IStockSnapshotRepository stockSnapshotRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("ledger-barcode");
+    newProduct.setStockQuantity(0);
+    this.product = this.productRepository.save(newProduct);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+  }
+
+  @Test
+  void whenTheStockMovesThenEveryMovementMustBeListedInOrder() throws Exception {
+    // given
+    var productId = this.product.getId();
+
+    // when
+    this.productService.increaseStock(productId, new QuantityForm(5), null);
+    this.productService.decreaseStock(productId, new QuantityForm(2), null);
+
+    // then
+    var movements = this.stockLedgerService.findMovements(productId,
+        new StockMovementFilter(null, null, null, null)).content();
+
+    assertThat(movements.stream().map(StockMovementDTO::quantity).toList(), contains(5, -2));
+  }
+
+  @Test
+  void whenTheProductIsDeletedThenItsHistoryMustBeKept() throws Exception {
+    // given
+    var productId = this.product.getId();
+    this.productService.increaseStock(productId, new QuantityForm(5), null);
+    this.productService.decreaseStock(productId, new QuantityForm(2), null);
+
+    // when
+    this.productService.delete(productId);
+
+    // then
+    var movements = this.stockLedgerService.findMovements(productId,
+        new StockMovementFilter(null, null, null, null)).content();
+
+    assertThat(this.productRepository.existsById(productId), is(false));
+    assertThat(movements.stream().map(StockMovementDTO::quantity).toList(), contains(5, -2));
+    assertThat(this.stockLedgerService.findStockAt(productId, null).stockQuantity(), is(3));
+  }
+
+  @Test
+  void whenThePageIsFullThenTheCursorMustContinueTheHistoryAfterIt() throws Exception {
+    // given
+    var productId = this.product.getId();
+    for (var quantity = 1; quantity <= 3; quantity++) {
+      this.productService.increaseStock(productId, new QuantityForm(quantity), null);
+    }
+
+    // when
+    var firstPage  = this.stockLedgerService.findMovements(productId,
+        new StockMovementFilter(null, null, 2, null));
+    var secondPage = this.stockLedgerService.findMovements(productId,
+        new StockMovementFilter(null, null, 2, firstPage.nextCursor()));
+
+    // then
+    assertThat(firstPage.content().stream().map(StockMovementDTO::quantity).toList(),
+        contains(1, 2));
+    assertThat(secondPage.content().stream().map(StockMovementDTO::quantity).toList(),
+        contains(3));
+    assertThat(secondPage.nextCursor(), is(nullValue()));
+  }
+
+  @Test
+  void whenAnInvalidCursorIsGivenThenAnExceptionMustBeThrown() {
+    assertThrows(InvalidCursorException.class,
+        () -> this.stockLedgerService.findMovements(this.product.getId(),
+            new StockMovementFilter(null, null, null, "not-a-cursor")));
+  }
+
+  @Test
+  void whenARejectedMovementIsAppliedThenNoMovementMustBeRecorded() throws Exception {
+    // given
+    var productId = this.product.getId();
+
+    // when
+    assertThrows(ProductStockUnderThanZeroException.class,
+        () -> this.productService.decreaseStock(productId, new QuantityForm(1), null));
+
+    // then
+    var movements = this.stockLedgerService.findMovements(productId,
+        new StockMovementFilter(null, null, null, null)).content();
+
+    assertThat(movements.isEmpty(), is(true));
+  }
+
+  @Test
+  void whenTheStockAtAPastMomentIsRequestedThenOnlyTheMovementsUntilThenMustCount()
+      throws Exception {
+    // given
+    var productId = this.product.getId();
+
+    // when
+    this.productService.increaseStock(productId, new QuantityForm(5), null);
+    var betweenMovements = Instant.now();
+    Thread.sleep(5);
+    this.productService.decreaseStock(productId, new QuantityForm(2), null);
+
+    // then
+    assertThat(this.stockLedgerService.findStockAt(productId, betweenMovements).stockQuantity(),
+        is(5));
+    assertThat(this.stockLedgerService.findStockAt(productId, null).stockQuantity(), is(3));
+  }
+
+  @Test
+  void whenSnapshotsAreTakenThenTheStockMustBeComputedFromTheSnapshotAndTheLaterMovements()
+      throws Exception {
+    // given
+    var productId = this.product.getId();
+    var service   = new StockLedgerService(
+        new StockLedgerProperties(Duration.ofHours(1), Duration.ZERO, 1),
+        this.stockLedgerRepository, this.stockSnapshotRepository, this.productRepository,
+        this.transactionManager);
+
+    // when
+    this.productService.increaseStock(productId, new QuantityForm(5), null);
+    Thread.sleep(5);
+    service.takeSnapshots();
+    Thread.sleep(5);
+    this.productService.decreaseStock(productId, new QuantityForm(2), null);
+
+    // then
+    var snapshot = this.stockSnapshotRepository
+        .findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, Instant.now())
+        .orElseThrow();
+
+    assertThat(snapshot.getStockQuantity(), is(5));
+    assertThat(service.findStockAt(productId, null).stockQuantity(), is(3));
+    assertThat(service.findStockAt(productId, snapshot.getTakenAt()).stockQuantity(), is(5));
+  }
+
+  @Test
+  void whenTheProductDoesNotExistThenAnExceptionMustBeThrown() {
+    // then
+    assertThrows(ProductNotFoundException.class,
+        () -> this.stockLedgerService.findStockAt(INVALID_PRODUCT_ID, null));
+  }
+
+}
@@ -0,0 +1,226 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.StockReservationProperties;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.ReservationNotFoundException;
+import com.gilberto.logistockapi.models.dto.request.QuantityForm;
+import com.gilberto.logistockapi.models.dto.request.ReservationForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IReservationRepository;
+import com.gilberto.logistockapi.services.implementations.StockReservationService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class StockReservationServiceTest {
+
+  private static final int THREADS = 8;
+
+  private static final int STOCK = 10;
+
+  @Autowired
+  private IStockReservationService stockReservationService;
+
+  @Autowired
+  private IProductService productService;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  @Autowired
+  private IReservationRepository reservationRepository;
+
+  @Autowired
+  private IStockWriteBehindService stockWriteBehindService;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("reservation-barcode");
+    newProduct.setStockQuantity(STOCK);
+    this.product = this.productRepository.save(newProduct);
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (var reservation : this.reservationRepository.findAll()) {
+      try {
+        this.stockReservationService.release(reservation.getId());
+      } catch (ReservationNotFoundException exception) {
+        this.reservationRepository.delete(reservation);
+      }
+    }
+    this.productRepository.deleteById(this.product.getId());
+  }
+
+  @Test
+  void whenTheStockIsReservedThenOnlyTheUnreservedStockMustBeAvailable() throws Exception {
+    // given
+    this.stockReservationService.reserve(reservationOf(6, null));
+
+    // when
+    var availability = this.productService.findAvailabilityById(this.product.getId());
+
+    // then
+    assertThat(availability.reservedQuantity(), is(6));
+    assertThat(availability.availableQuantity(), is(STOCK - 6));
+    assertThrows(ProductStockUnderThanZeroException.class,
+        () -> this.stockReservationService.reserve(reservationOf(5, null)));
+    assertThrows(ProductStockUnderThanZeroException.class,
+        () -> this.productService.decreaseStock(this.product.getId(), new QuantityForm(5), null));
+  }
+
+  @Test
+  void whenAReservationIsReleasedThenItsStockMustBeAvailableAgain() throws Exception {
+    // given
+    var reservation = this.stockReservationService.reserve(reservationOf(STOCK, null));
+
+    // when
+    this.stockReservationService.release(reservation.id());
+
+    // then
+    assertThat(this.stockReservationService.reservedQuantity(this.product.getId()), is(0));
+    assertThat(this.reservationRepository.existsById(reservation.id()), is(false));
+    assertThrows(ReservationNotFoundException.class,
+        () -> this.stockReservationService.release(reservation.id()));
+  }
+
+  @Test
+  void whenAReservationIsCommittedThenTheStockMustBeDecreased() throws Exception {
+    // given
+    var reservation = this.stockReservationService.reserve(reservationOf(4, null));
+    this.stockReservationService.reserve(reservationOf(6, null));
+
+    // when
+    var productDTO = this.productService.commitReservation(reservation.id());
+
+    // then
+    assertThat(productDTO.stockQuantity(), is(STOCK - 4));
+    assertThat(this.stockReservationService.reservedQuantity(this.product.getId()), is(6));
+    assertThat(this.reservationRepository.existsById(reservation.id()), is(false));
+    assertThrows(ReservationNotFoundException.class,
+        () -> this.productService.commitReservation(reservation.id()));
+  }
+
+  @Test
+  void whenABatchDecreaseWouldTakeReservedStockThenItMustBeRejected() throws Exception {
+    // given
+    var reservation = this.stockReservationService.reserve(reservationOf(6, null));
+    var movements   = new StockMovementsForm(List.of(
+        new StockMovementForm(this.product.getId(), null, -5),
+        new StockMovementForm(null, this.product.getBarCode(), -4)));
+
+    // when
+    var results = this.productService.applyStockMovements(movements);
+
+    // then
+    assertThat(results.get(0).error(), is(notNullValue()));
+    assertThat(results.get(1).error(), is(nullValue()));
+    assertThat(this.productService.commitReservation(reservation.id()).stockQuantity(),
+        is(STOCK - 4 - 6));
+  }
+
+  @Test
+  void whenAReservationExpiresThenItMustBeReleased() throws Exception {
+    // given
+    var reservation = this.stockReservationService.reserve(
+        reservationOf(STOCK, Duration.ofMillis(100)));
+
+    // when
+    var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (this.stockReservationService.reservedQuantity(this.product.getId()) > 0
+        && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+
+    // then
+    assertThat(this.stockReservationService.reservedQuantity(this.product.getId()), is(0));
+    assertThat(this.reservationRepository.existsById(reservation.id()), is(false));
+  }
+
+  @Test
+  void whenTheServiceRestartsThenActiveReservationsMustBeRestored() throws Exception {
+    // given
+    this.stockReservationService.reserve(reservationOf(3, null));
+
+    // when
+    var restartedService = new StockReservationService(
+        new StockReservationProperties(Duration.ofMinutes(15), Duration.ofHours(1), 4),
+        this.reservationRepository, this.productRepository, this.stockWriteBehindService,
+        this.transactionManager);
+    restartedService.start();
+
+    // then
+    try {
+      assertThat(restartedService.reservedQuantity(this.product.getId()), is(3));
+    } finally {
+      restartedService.stop();
+    }
+  }
+
+  @Test
+  void whenConcurrentReservationsExceedTheStockThenOnlyTheAvailableOnesMustBeHeld()
+      throws Exception {
+    // given
+    var executor   = Executors.newFixedThreadPool(THREADS);
+    var start      = new CountDownLatch(1);
+    var rejections = new AtomicInteger();
+    var futures    = new ArrayList<Future<?>>();
+
+    // when
+    try {
+      for (var thread = 0; thread < THREADS * 2; thread++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          try {
+            return this.stockReservationService.reserve(reservationOf(1, null));
+          } catch (ProductStockUnderThanZeroException exception) {
+            return rejections.incrementAndGet();
+          }
+        }));
+      }
+      start.countDown();
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // then
+    assertThat(this.stockReservationService.reservedQuantity(this.product.getId()), is(STOCK));
+    assertThat(rejections.get(), is(THREADS * 2 - STOCK));
+  }
+
+  private ReservationForm reservationOf(int quantity, Duration ttl) {
+    return new ReservationForm(this.product.getId(), quantity, ttl);
+  }
+
+}
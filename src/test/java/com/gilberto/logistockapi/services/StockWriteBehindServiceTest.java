@@ -0,0 +1,301 @@
+package com.gilberto.logistockapi.services;
+
+import com.gilberto.logistockapi.config.StockWriteBehindProperties;
+import com.gilberto.logistockapi.config.StockWriteBehindProperties.Durability;
+import com.gilberto.logistockapi.exceptions.ProductConflictException;
+import com.gilberto.logistockapi.exceptions.ProductStockExceededException;
+import com.gilberto.logistockapi.exceptions.ProductStockUnderThanZeroException;
+import com.gilberto.logistockapi.exceptions.StockWriteTimeoutException;
+import com.gilberto.logistockapi.models.entity.Product;
+import com.gilberto.logistockapi.models.enums.StockAlertType;
+import com.gilberto.logistockapi.repositories.IProductRepository;
+import com.gilberto.logistockapi.repositories.IStockMovementRepository;
+import com.gilberto.logistockapi.repositories.IWriteBehindFlushRepository;
+import com.gilberto.logistockapi.repositories.IWriteBehindRejectionRepository;
+import com.gilberto.logistockapi.services.implementations.StockWriteBehindService;
+import com.gilberto.logistockapi.utils.ModelUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class StockWriteBehindServiceTest {
+
+  private static final int THREADS              = 8;
+  private static final int MOVEMENTS_PER_THREAD = 50;
+
+  @Autowired
+  private IProductRepository productRepository;
+
+  @Autowired
+  private IStockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private IProductCacheService productCacheService;
+
+  @Autowired
+  private IStockLedgerService stockLedgerService;
+
+  @Autowired
+  private IStockAlertService stockAlertService;
+
+  @Autowired
+  private IInventoryStatsService inventoryStatsService;
+
+  @Autowired
+  private IReadYourWritesService readYourWritesService;
+
+  @Autowired
+  private IWriteBehindFlushRepository writeBehindFlushRepository;
+
+  @Autowired
+  private IWriteBehindRejectionRepository writeBehindRejectionRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  private Path logDirectory;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    var newProduct = ModelUtils.getProduct();
+    newProduct.setId(null);
+    newProduct.setBarCode("write-behind-barcode");
+    newProduct.setStockQuantity(0);
+    newProduct.setMaxStockLevel(THREADS * MOVEMENTS_PER_THREAD);
+    this.product = this.productRepository.save(newProduct);
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.productRepository.deleteById(this.product.getId());
+    this.writeBehindRejectionRepository.deleteAll(
+        this.writeBehindRejectionRepository.findByProductId(this.product.getId()));
+  }
+
+  @Test
+  void whenMovementsAreAcknowledgedAfterTheFlushThenEveryMovementMustBePersisted()
+      throws Exception {
+    // given
+    var service  = createService(Durability.FLUSH_BEFORE_ACK, Duration.ofMillis(10));
+    var executor = Executors.newFixedThreadPool(THREADS);
+    var futures  = new ArrayList<Future<?>>();
+
+    // when
+    try {
+      for (var thread = 0; thread < THREADS; thread++) {
+        futures.add(executor.submit(() -> {
+          for (var movement = 0; movement < MOVEMENTS_PER_THREAD; movement++) {
+            service.increaseStock(this.product.getId(), 1);
+          }
+          return null;
+        }));
+      }
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+      service.stop();
+    }
+
+    // then
+    assertThat(persistedStock(), is(THREADS * MOVEMENTS_PER_THREAD));
+  }
+
+  @Test
+  void whenTheProjectedStockIsOutOfBoundsThenTheMovementMustBeRejected() throws Exception {
+    // given
+    var service = createService(Durability.NONE, Duration.ofHours(1));
+
+    // when
+    try {
+      service.increaseStock(this.product.getId(), THREADS * MOVEMENTS_PER_THREAD);
+
+      // then
+      assertThrows(ProductStockExceededException.class,
+          () -> service.increaseStock(this.product.getId(), 1));
+      service.decreaseStock(this.product.getId(), THREADS * MOVEMENTS_PER_THREAD);
+      assertThrows(ProductStockUnderThanZeroException.class,
+          () -> service.decreaseStock(this.product.getId(), 1));
+      assertThat(persistedStock(), is(0));
+
+      service.increaseStock(this.product.getId(), 5);
+      service.flush();
+      assertThat(persistedStock(), is(5));
+    } finally {
+      service.stop();
+    }
+  }
+
+  @Test
+  void whenTheFlushCannotWriteAMovementThenItMustBeRejected() throws Exception {
+    // given
+    var service  = createService(Durability.FLUSH_BEFORE_ACK, Duration.ofHours(1));
+    var executor = Executors.newSingleThreadExecutor();
+    var units    = totalUnits();
+
+    try {
+      var movement = executor.submit(() -> service.increaseStock(this.product.getId(), 1));
+      while (totalUnits() == units) {
+        Thread.sleep(1);
+      }
+      var storedProduct = this.productRepository.findById(this.product.getId()).orElseThrow();
+      storedProduct.setStockQuantity(storedProduct.getMaxStockLevel());
+      this.productRepository.save(storedProduct);
+
+      // when
+      service.flush();
+
+      // then
+      var exception = assertThrows(ExecutionException.class,
+          () -> movement.get(5, TimeUnit.SECONDS));
+      assertThat(exception.getCause(), is(instanceOf(ProductConflictException.class)));
+      assertThat(persistedStock(), is(THREADS * MOVEMENTS_PER_THREAD));
+      assertThat(totalUnits(), is(units));
+      assertThat(this.stockAlertService.listAll(StockAlertType.OVERSTOCK).stream()
+          .anyMatch(alert -> alert.productId().equals(this.product.getId())), is(true));
+    } finally {
+      executor.shutdownNow();
+      service.stop();
+      this.stockAlertService.remove(this.product.getId());
+    }
+  }
+
+  @Test
+  void whenTheFlushCannotWriteAnAcknowledgedMovementThenItMustBeRecorded() throws Exception {
+    // given
+    var service = createService(Durability.NONE, Duration.ofHours(1));
+
+    try {
+      service.increaseStock(this.product.getId(), 3);
+      var storedProduct = this.productRepository.findById(this.product.getId()).orElseThrow();
+      storedProduct.setStockQuantity(storedProduct.getMaxStockLevel());
+      this.productRepository.save(storedProduct);
+
+      // when
+      service.flush();
+
+      // then
+      var rejections = this.writeBehindRejectionRepository.findByProductId(
+          this.product.getId());
+      assertThat(rejections.size(), is(1));
+      assertThat(rejections.get(0).getQuantity(), is(3));
+      assertThat(persistedStock(), is(THREADS * MOVEMENTS_PER_THREAD));
+    } finally {
+      service.stop();
+      this.stockAlertService.remove(this.product.getId());
+    }
+  }
+
+  @Test
+  void whenTheFlushDoesNotEndInTimeThenTheMovementMustTimeOut() {
+    // given
+    var service = createService(Durability.FLUSH_BEFORE_ACK, Duration.ofMillis(50),
+        Duration.ofHours(1));
+
+    // when then
+    try {
+      assertThrows(StockWriteTimeoutException.class,
+          () -> service.increaseStock(this.product.getId(), 1));
+    } finally {
+      service.stop();
+    }
+  }
+
+  @Test
+  void whenTheApplicationStopsBeforeAFlushThenTheAppendLogMustBeReplayed() throws Exception {
+    // given
+    var crashedService = createService(Durability.APPEND_LOG, Duration.ofHours(1));
+    crashedService.increaseStock(this.product.getId(), 7);
+    crashedService.decreaseStock(this.product.getId(), 2);
+
+    assertThat(persistedStock(), is(0));
+
+    // when
+    var restartedService = createService(Durability.APPEND_LOG, Duration.ofHours(1));
+
+    // then
+    try {
+      assertThat(persistedStock(), is(5));
+    } finally {
+      restartedService.stop();
+    }
+  }
+
+  @Test
+  void whenTheApplicationStopsBeforeAFlushedSegmentIsDeletedThenItMustNotBeReplayed()
+      throws Exception {
+    // given
+    var logFile        = this.logDirectory.resolve("stock-write-behind.log");
+    var crashedService = createService(Durability.APPEND_LOG, Duration.ofHours(1));
+    crashedService.increaseStock(this.product.getId(), 7);
+    var flushedMovements = Files.readAllBytes(logFile);
+    crashedService.flush();
+
+    var committedSequence = this.writeBehindFlushRepository
+        .findById(logFile.toAbsolutePath().normalize().toString())
+        .orElseThrow()
+        .getSequence();
+    Files.write(logFile.resolveSibling("stock-write-behind.log.flushing." + committedSequence),
+        flushedMovements);
+
+    // when
+    var restartedService = createService(Durability.APPEND_LOG, Duration.ofHours(1));
+
+    // then
+    try {
+      assertThat(persistedStock(), is(7));
+    } finally {
+      restartedService.stop();
+    }
+  }
+
+  private StockWriteBehindService createService(Durability durability, Duration flushInterval) {
+    return createService(durability, Duration.ofSeconds(5), flushInterval);
+  }
+
+  private StockWriteBehindService createService(Durability durability, Duration ackTimeout,
+                                                Duration flushInterval) {
+    var properties = new StockWriteBehindProperties(true, durability, ackTimeout, flushInterval,
+        500, 4, this.logDirectory.resolve("stock-write-behind.log"));
+    var service = new StockWriteBehindService(properties, this.productRepository,
+        this.stockMovementRepository, this.productCacheService, this.stockLedgerService,
+        this.stockAlertService, this.inventoryStatsService, this.readYourWritesService,
+        this.writeBehindFlushRepository, this.writeBehindRejectionRepository,
+        this.transactionManager);
+    service.start();
+    return service;
+  }
+
+  private Integer persistedStock() {
+    return this.productRepository.findById(this.product.getId())
+        .orElseThrow()
+        .getStockQuantity();
+  }
+
+  private long totalUnits() {
+    return this.inventoryStatsService.stats().total().units();
+  }
+
+}
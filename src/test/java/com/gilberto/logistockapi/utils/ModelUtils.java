@@ -3,12 +3,16 @@ package com.gilberto.logistockapi.utils;
 import com.gilberto.logistockapi.models.dto.request.ProductFilter;
 import com.gilberto.logistockapi.models.dto.request.ProductForm;
 import com.gilberto.logistockapi.models.dto.request.ProductUpdateForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementForm;
+import com.gilberto.logistockapi.models.dto.request.StockMovementsForm;
 import com.gilberto.logistockapi.models.dto.response.ProductDTO;
 import com.gilberto.logistockapi.models.entity.Product;
 import com.gilberto.logistockapi.models.enums.Category;
 import com.gilberto.logistockapi.models.enums.MeasureUnit;
+import com.gilberto.logistockapi.models.projections.ProductView;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
 
 public class ModelUtils {
   
@@ -21,6 +25,7 @@ public class ModelUtils {
         BigDecimal.valueOf(1.99),
         10,
         100,
+        0,
         MeasureUnit.UNIT,
         "description"
     );
@@ -31,7 +36,10 @@ public class ModelUtils {
         1,
         10,
         "search",
-        Arrays.asList(Category.values())
+        Arrays.asList(Category.values()),
+        null,
+        null,
+        null
     );
   }
   
@@ -49,6 +57,29 @@ public class ModelUtils {
         .build();
   }
   
+  public static ProductView getProductView(Product product) {
+    var supplier = product.getSupplier();
+    return new ProductView(
+        product.getId(),
+        product.getName(),
+        product.getBarCode(),
+        product.getCategory(),
+        product.getUnitPrice(),
+        product.getMeasureUnit(),
+        product.getStockQuantity(),
+        product.getMaxStockLevel(),
+        product.getReorderPoint(),
+        product.getDescription(),
+        product.getEntryDate(),
+        supplier == null ? null : supplier.getId(),
+        supplier == null ? null : supplier.getName(),
+        supplier == null ? null : supplier.getLegalDocument(),
+        supplier == null ? null : supplier.getEmail(),
+        supplier == null ? null : supplier.getPhone(),
+        product.getVersion()
+    );
+  }
+  
   public static ProductUpdateForm getProductUpdateForm() {
     return new ProductUpdateForm(
         "Product's name",
@@ -56,6 +87,7 @@ public class ModelUtils {
         null,
         BigDecimal.valueOf(1.99),
         100,
+        0,
         MeasureUnit.UNIT,
         "description"
     );
@@ -71,7 +103,16 @@ public class ModelUtils {
         BigDecimal.valueOf(1.99),
         MeasureUnit.PACK,
         10,
-        "description");
+        "description",
+        1L);
+  }
+  
+  public static StockMovementsForm getStockMovementsForm() {
+    return new StockMovementsForm(List.of(
+        new StockMovementForm(1L, null, 10),
+        new StockMovementForm(null, "barcode", -5),
+        new StockMovementForm(2L, null, 91)
+    ));
   }
   
 }
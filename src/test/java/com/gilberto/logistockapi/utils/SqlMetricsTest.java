@@ -0,0 +1,22 @@
+package com.gilberto.logistockapi.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the application with the SQL metrics headers exposed, so each request can be checked
+ * against a statement budget with {@link SqlMetricsUtils}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+    "logistock.sql-metrics.enabled=true",
+    "logistock.sql-metrics.expose-headers=true"
+})
+@AutoConfigureMockMvc
+public @interface SqlMetricsTest {
+}
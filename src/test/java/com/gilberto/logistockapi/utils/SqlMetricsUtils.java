@@ -0,0 +1,38 @@
+package com.gilberto.logistockapi.utils;
+
+import com.gilberto.logistockapi.monitoring.SqlMetricsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class SqlMetricsUtils {
+  
+  /**
+   * Expects the request to have executed exactly the given number of statements.
+   */
+  public static ResultMatcher statements(long expected) {
+    return result -> assertThat("SQL statements of " + result.getRequest().getRequestURI(),
+        statementsOf(result.getResponse().getHeader(SqlMetricsFilter.STATEMENTS_HEADER)),
+        is(expected));
+  }
+  
+  /**
+   * Expects the request to have executed at most the given number of statements, which fails
+   * when a change makes a request load its relations one by one.
+   */
+  public static ResultMatcher maxStatements(long budget) {
+    return result -> assertThat("SQL statements of " + result.getRequest().getRequestURI(),
+        statementsOf(result.getResponse().getHeader(SqlMetricsFilter.STATEMENTS_HEADER)),
+        lessThanOrEqualTo(budget));
+  }
+  
+  private static long statementsOf(String header) {
+    assertThat("The " + SqlMetricsFilter.STATEMENTS_HEADER + " header, is the test annotated " +
+        "with @SqlMetricsTest?", header, is(notNullValue()));
+    return Long.parseLong(header);
+  }
+  
+}
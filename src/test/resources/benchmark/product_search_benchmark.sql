@@ -0,0 +1,74 @@
+-- Product search benchmark on PostgreSQL with 1M products.
+--
+-- Run against a scratch database migrated by Flyway (V1_2_0 or later):
+--   psql -d products_benchmark -f src/test/resources/benchmark/product_search_benchmark.sql
+--
+-- Each block prints the plan and timing of the previous leading-wildcard query and of the
+-- queries built by ProductSearchRepository for the same term.
+
+\timing on
+
+TRUNCATE pro_product RESTART IDENTITY CASCADE;
+
+INSERT INTO pro_product (pro_name, pro_barcode, pro_category, pro_unit_price, pro_measure_unit,
+                         pro_stock_quantity, pro_max_stock_level, pro_entry_date, pro_description)
+SELECT 'Product ' || md5(i::text),
+       lpad(i::text, 13, '789'),
+       (ARRAY ['ELECTRONIC', 'CLOTHING', 'FOOD', 'OTHER'])[1 + i % 4],
+       round((random() * 100)::numeric, 2),
+       (ARRAY ['KILOGRAM', 'LITER', 'PACK', 'UNIT'])[1 + i % 4],
+       i % 100,
+       100,
+       DATE '2020-01-01' + (i % 1500),
+       NULL
+  FROM generate_series(1, 1000000) AS i;
+
+ANALYZE pro_product;
+
+-- Substring of the name -------------------------------------------------------------------------
+
+-- Before
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pro_product
+ WHERE pro_category IN ('ELECTRONIC', 'CLOTHING', 'FOOD', 'OTHER')
+   AND (CAST(pro_id AS text) = 'a1b2c'
+     OR upper(pro_barcode) LIKE '%A1B2C%'
+     OR upper(pro_name) LIKE '%A1B2C%')
+ ORDER BY pro_entry_date DESC
+ LIMIT 20 OFFSET 0;
+
+-- After
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pro_product
+ WHERE pro_category IN ('ELECTRONIC', 'CLOTHING', 'FOOD', 'OTHER')
+   AND (upper(pro_barcode) LIKE '%A1B2C%' ESCAPE '\'
+     OR upper(pro_name) LIKE '%A1B2C%' ESCAPE '\')
+ ORDER BY pro_entry_date DESC, pro_id DESC
+ LIMIT 20 OFFSET 0;
+
+-- Numeric term, matched as id and as barcode substring ------------------------------------------
+
+-- Before
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pro_product
+ WHERE pro_category IN ('ELECTRONIC', 'CLOTHING', 'FOOD', 'OTHER')
+   AND (CAST(pro_id AS text) = '424242'
+     OR upper(pro_barcode) LIKE '%424242%'
+     OR upper(pro_name) LIKE '%424242%')
+ ORDER BY pro_entry_date DESC
+ LIMIT 20 OFFSET 0;
+
+-- After
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pro_product
+ WHERE pro_category IN ('ELECTRONIC', 'CLOTHING', 'FOOD', 'OTHER')
+   AND (upper(pro_barcode) LIKE '%424242%' ESCAPE '\'
+     OR upper(pro_name) LIKE '%424242%' ESCAPE '\'
+     OR pro_id = 424242)
+ ORDER BY pro_entry_date DESC, pro_id DESC
+ LIMIT 20 OFFSET 0;
+
+-- Whole barcode, answered by the unique index before any substring search ------------------------
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM pro_product WHERE pro_barcode = '7897890424242';